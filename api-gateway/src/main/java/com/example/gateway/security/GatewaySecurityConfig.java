@@ -47,17 +47,26 @@ public class GatewaySecurityConfig {
                         // FLIGHT SERVICE
                         .pathMatchers("/flight-service/flight/register").hasRole("ADMIN")
                         .pathMatchers("/flight-service/flight/delete/**").hasRole("ADMIN")
-                        .pathMatchers("/flight-service/flight/getAllFlights")
+                        .pathMatchers("/flight-service/flight/import").hasRole("ADMIN")
+                        .pathMatchers("/flight-service/flight/schedule/**").hasRole("ADMIN")
+                        .pathMatchers("/flight-service/flight/getAllFlights/**")
                         .hasAnyRole("ADMIN", "USER")
                         .pathMatchers("/flight-service/flight/getFlightById/**")
                         .hasAnyRole("ADMIN", "USER")
-                                .pathMatchers("/flight-service/flight/getByOriginDestinationDateTime")
+                        // batch lookups are for ticket-service, which calls flight-service directly
+                        .pathMatchers("/flight-service/flight/getFlightsByIds").hasRole("ADMIN")
+                                .pathMatchers("/flight-service/flight/getByOriginDestinationDateTime",
+                                        "/flight-service/flight/getConnections",
+                                        "/flight-service/flight/getFareCalendar")
                                 .permitAll()
                         // SEAT MANAGEMENT (internal but same roles)
                         .pathMatchers("/flight-service/flight/flights/*/reserve")
                         .hasAnyRole("ADMIN", "USER")
                         .pathMatchers("/flight-service/flight/flights/*/release")
                         .hasAnyRole("ADMIN", "USER")
+                        .pathMatchers("/flight-service/flight/flights/reserve",
+                                "/flight-service/flight/flights/release")
+                        .hasAnyRole("ADMIN", "USER")
                         // PASSENGER SERVICE
                         .pathMatchers("/passenger-service/passenger/register")
                         .hasAnyRole("ADMIN", "USER")
@@ -65,16 +74,25 @@ public class GatewaySecurityConfig {
                         .hasAnyRole("ADMIN", "USER")
                         .pathMatchers("/passenger-service/passenger/getPassengerIdByEmail/**")
                         .hasAnyRole("ADMIN", "USER")
+                        // batch lookups are for ticket-service, which calls passenger-service directly
+                        .pathMatchers("/passenger-service/passenger/getByPassengerIds").hasRole("ADMIN")
                         .pathMatchers("/passenger-service/passenger/delete/**")
                         .hasAnyRole("ADMIN", "USER")
 
                         // TICKET SERVICE
-                        .pathMatchers("/ticket-service/ticket/book")
+                        .pathMatchers("/ticket-service/ticket/flight/**").hasRole("ADMIN")
+                        .pathMatchers("/ticket-service/ticket/book", "/ticket-service/ticket/book/**")
                         .hasAnyRole("ADMIN", "USER")
                         .pathMatchers("/ticket-service/ticket/getByPnr/**")
                         .hasAnyRole("ADMIN", "USER")
                         .pathMatchers("/ticket-service/ticket/getTicketsByEmail/**")
                         .hasAnyRole("ADMIN", "USER")
+                        .pathMatchers("/ticket-service/ticket/hold", "/ticket-service/ticket/hold/**")
+                        .hasAnyRole("ADMIN", "USER")
+                        .pathMatchers("/ticket-service/ticket/seat-map/**")
+                        .hasAnyRole("ADMIN", "USER")
+                        .pathMatchers("/ticket-service/ticket/reactive/**")
+                        .hasAnyRole("ADMIN", "USER")
 
                         // other services
                         //any exchange means all other requests not matched above
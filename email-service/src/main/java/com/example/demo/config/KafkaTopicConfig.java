@@ -12,6 +12,9 @@ public class KafkaTopicConfig {
     @Value("${kafka.topic.ticket-booked}")
     private String ticketBookedTopic;
 
+    @Value("${kafka.topic.ticket-cancelled}")
+    private String ticketCancelledTopic;
+
     @Bean
     public NewTopic createTicketBookedTopic() {
         return TopicBuilder
@@ -20,4 +23,13 @@ public class KafkaTopicConfig {
                 .replicas(1)
                 .build();
     }
+
+    @Bean
+    public NewTopic createTicketCancelledTopic() {
+        return TopicBuilder
+                .name(ticketCancelledTopic)
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
 }
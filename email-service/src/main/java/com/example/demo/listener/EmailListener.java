@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 
 import com.example.demo.service.EmailService;
 import com.example.event.TicketBookedEvent;
+import com.example.event.TicketCancelledEvent;
 
 @Service
 public class EmailListener {
@@ -33,4 +34,27 @@ public class EmailListener {
         }
     }
 
+    // its own default type, so profiles that ignore the type header do not read it as a booking
+    @KafkaListener(topics = "${kafka.topic.ticket-cancelled}", groupId = "email-group",
+            properties = "spring.json.value.default.type=com.example.event.TicketCancelledEvent")
+    public void listenCancelled(TicketCancelledEvent event) {
+        System.out.println("===== EMAIL SERVICE KAFKA LISTENER =====");
+        System.out.println("Cancellation received from Kafka");
+        System.out.println("Email: " + event.getEmail());
+        System.out.println("PNR  : " + event.getPnr());
+        System.out.println("=======================================");
+        try {
+            emailService.sendCancellationEmail(
+                    event.getEmail(),
+                    "Your flight has been cancelled and your ticket with it.\nPNR: " + event.getPnr()
+            );
+
+            System.out.println("Email sent successfully");
+
+        } catch (Exception e) {
+            System.out.println("Email sending failed");
+            e.printStackTrace();
+        }
+    }
+
 }
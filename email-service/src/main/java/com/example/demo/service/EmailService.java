@@ -13,12 +13,21 @@ public class EmailService {
 
     public void sendBookingEmail(String toEmail, String content) {
         System.out.println("Inside EmailService.sendBookingEmail()");
+        send(toEmail, "Ticket Booking Confirmation", content);
+    }
+
+    public void sendCancellationEmail(String toEmail, String content) {
+        System.out.println("Inside EmailService.sendCancellationEmail()");
+        send(toEmail, "Ticket Cancellation", content);
+    }
+
+    private void send(String toEmail, String subject, String content) {
         System.out.println("Sending email to: " + toEmail);
 
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom("no-reply@flightapp.com");
         message.setTo(toEmail);
-        message.setSubject("Ticket Booking Confirmation");
+        message.setSubject(subject);
         message.setText(content);
 
         mailSender.send(message);
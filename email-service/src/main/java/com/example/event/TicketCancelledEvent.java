@@ -0,0 +1,34 @@
+package com.example.event;
+
+public class TicketCancelledEvent {
+
+    private String email;
+    private String pnr;
+    private int flightId;
+    private int seats;
+
+    public TicketCancelledEvent() {}
+
+    public TicketCancelledEvent(String email, String pnr, int flightId, int seats) {
+        this.email = email;
+        this.pnr = pnr;
+        this.flightId = flightId;
+        this.seats = seats;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPnr() {
+        return pnr;
+    }
+
+    public int getFlightId() {
+        return flightId;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+}
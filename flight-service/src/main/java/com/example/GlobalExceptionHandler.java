@@ -37,4 +37,18 @@ public class GlobalExceptionHandler {
 		resp.put("message", ex.getMessage());
 		return new ResponseEntity<>(resp, HttpStatus.NOT_FOUND);
 	}
+
+	@ExceptionHandler(IllegalArgumentException.class)
+	public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException ex) {
+		Map<String, String> resp = new HashMap<>();
+		resp.put("message", ex.getMessage());
+		return new ResponseEntity<>(resp, HttpStatus.BAD_REQUEST);
+	}
+
+	@ExceptionHandler(IllegalStateException.class)
+	public ResponseEntity<Map<String, String>> handleConflict(IllegalStateException ex) {
+		Map<String, String> resp = new HashMap<>();
+		resp.put("message", ex.getMessage());
+		return new ResponseEntity<>(resp, HttpStatus.CONFLICT);
+	}
 }
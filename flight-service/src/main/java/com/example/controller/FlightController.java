@@ -1,7 +1,12 @@
 package com.example.controller;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,23 +17,50 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.exception.ResourceNotFoundException;
 import com.example.model.Flight;
+import com.example.model.ScheduleTemplate;
+import com.example.request.ConnectionSearchRequest;
+import com.example.request.FareCalendarRequest;
 import com.example.request.FlightRequest;
+import com.example.request.ScheduleTemplateRequest;
 import com.example.request.SearchRequest;
+import com.example.request.SeatAdjustmentRequest;
+import com.example.response.FareCalendarDayResponse;
+import com.example.response.FlightImportResponse;
+import com.example.response.FlightPageResponse;
+import com.example.response.ItineraryResponse;
+import com.example.service.ConnectionSearchService;
+import com.example.service.FlightImportService;
 import com.example.service.FlightService;
+import com.example.service.ScheduleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("flight")
 class FlightController {
 
+	private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+	private static final int STREAM_FLUSH_ROWS = 500;
+
 	private final FlightService flightService;
+	private final ConnectionSearchService connectionSearchService;
+	private final FlightImportService flightImportService;
+	private final ScheduleService scheduleService;
+	private final ObjectMapper objectMapper;
 
-	public FlightController(FlightService flightService) {
+	public FlightController(FlightService flightService, ConnectionSearchService connectionSearchService,
+			FlightImportService flightImportService, ScheduleService scheduleService, ObjectMapper objectMapper) {
 		this.flightService = flightService;
+		this.connectionSearchService = connectionSearchService;
+		this.flightImportService = flightImportService;
+		this.scheduleService = scheduleService;
+		this.objectMapper = objectMapper;
 	}
 
 	@PostMapping("register")
@@ -37,22 +69,82 @@ class FlightController {
 
 	}
 
+	@PostMapping(value = "import", consumes = { FlightImportService.TEXT_CSV, FlightImportService.APPLICATION_NDJSON })
+	public ResponseEntity<FlightImportResponse> importFlights(HttpServletRequest request) throws IOException {
+		boolean csv = MediaType.parseMediaType(request.getContentType())
+				.isCompatibleWith(MediaType.parseMediaType(FlightImportService.TEXT_CSV));
+		return ResponseEntity.ok(flightImportService.importFlights(request.getInputStream(), csv));
+	}
+
+	@PostMapping("schedule/register")
+	public ResponseEntity<Integer> registerScheduleTemplate(@Valid @RequestBody ScheduleTemplateRequest req) {
+		return scheduleService.registerScheduleTemplateService(req);
+	}
+
+	@GetMapping("schedule/getAll")
+	public ResponseEntity<List<ScheduleTemplate>> getAllScheduleTemplates() {
+		return scheduleService.getAllScheduleTemplatesService();
+	}
+
 	@GetMapping("getFlightById/{id}")
 	public ResponseEntity<Flight> getByID(@PathVariable int id) throws ResourceNotFoundException {
 		return flightService.getByIDService(id);
 	}
 
+	@PostMapping("getFlightsByIds")
+	public ResponseEntity<List<Flight>> getFlightsByIds(@RequestBody List<Integer> ids) {
+		return flightService.getFlightsByIdsService(ids);
+	}
+
 	@GetMapping("getAllFlights")
 	public ResponseEntity<List<Flight>> getAllFlights() {
 		return ResponseEntity.ok(flightService.getAllFlights());
 	}
 
+	@GetMapping("getAllFlights/page")
+	public ResponseEntity<FlightPageResponse> getFlightsPage(@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "100") int size) {
+		return ResponseEntity.ok(flightService.getFlightsPage(cursor, size));
+	}
+
+	// one JSON document per line, written while the database cursor is being read
+	@GetMapping("getAllFlights/stream")
+	public ResponseEntity<StreamingResponseBody> streamAllFlights() {
+		StreamingResponseBody body = out -> {
+			OutputStream buffered = new BufferedOutputStream(out);
+			int[] rows = { 0 };
+			flightService.streamAllFlights(flight -> {
+				try {
+					buffered.write(objectMapper.writeValueAsBytes(flight));
+					buffered.write('\n');
+					if (++rows[0] % STREAM_FLUSH_ROWS == 0) {
+						buffered.flush();
+					}
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+			buffered.flush();
+		};
+		return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+	}
+
 	@PostMapping("getByOriginDestinationDateTime")
 	public ResponseEntity<List<Flight>> getByOriginAndDestination(@Valid @RequestBody SearchRequest req) {
 		return flightService.getByOriginAndDestinationAndDepartureDateTimeService(req);
 
 	}
 
+	@PostMapping("getFareCalendar")
+	public ResponseEntity<List<FareCalendarDayResponse>> getFareCalendar(@Valid @RequestBody FareCalendarRequest req) {
+		return flightService.getFareCalendarService(req);
+	}
+
+	@PostMapping("getConnections")
+	public ResponseEntity<List<ItineraryResponse>> getConnections(@Valid @RequestBody ConnectionSearchRequest req) {
+		return connectionSearchService.searchConnectionsService(req);
+	}
+
 	@DeleteMapping("delete/{id}")
 	public ResponseEntity<String> deleteById(@PathVariable int id) throws ResourceNotFoundException {
 		return flightService.deleteByIDService(id);
@@ -72,4 +164,18 @@ class FlightController {
 		return ResponseEntity.ok().build();
 	}
 
+	@PutMapping("/flights/reserve")
+	public ResponseEntity<Void> reserveSeats(@RequestBody List<SeatAdjustmentRequest> requests) {
+
+		flightService.reserveSeats(requests);
+		return ResponseEntity.ok().build();
+	}
+
+	@PutMapping("/flights/release")
+	public ResponseEntity<Void> releaseSeats(@RequestBody List<SeatAdjustmentRequest> requests) {
+
+		flightService.releaseSeats(requests);
+		return ResponseEntity.ok().build();
+	}
+
 }
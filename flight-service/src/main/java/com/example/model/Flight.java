@@ -6,11 +6,24 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
+@Table(indexes = {
+		@Index(name = "idx_flight_departure_id", columnList = "departure_time, flight_id"),
+		@Index(name = "idx_flight_route_departure", columnList = "origin, destination, departure_time")
+}, uniqueConstraints = {
+		// one dated flight per template departure, however many instances materialize it at once
+		@UniqueConstraint(name = "uk_flight_schedule_departure", columnNames = { "schedule_template_id", "departure_time" })
+})
 public class Flight {
+	// same sequence and increment Hibernate picked implicitly; the pooled optimizer hands out 50 ids per round trip
 	@Id
-	@GeneratedValue(strategy = GenerationType.SEQUENCE)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flight_seq")
+	@SequenceGenerator(name = "flight_seq", sequenceName = "flight_seq", allocationSize = 50)
 	private int flightId;
 	private Airline airline;
 	private String origin;
@@ -20,6 +33,8 @@ public class Flight {
 	private LocalDateTime arrivalTime;
 	private int totalSeats;
 	private int availableSeats;
+	// null for flights registered by hand
+	private Integer scheduleTemplateId;
 
 	public Flight() {}
 
@@ -64,4 +79,7 @@ public class Flight {
 
 	public int getAvailableSeats() { return availableSeats; }
 	public void setAvailableSeats(int availableSeats) { this.availableSeats = availableSeats; }
+
+	public Integer getScheduleTemplateId() { return scheduleTemplateId; }
+	public void setScheduleTemplateId(Integer scheduleTemplateId) { this.scheduleTemplateId = scheduleTemplateId; }
 }
@@ -0,0 +1,111 @@
+package com.example.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+/**
+ * A recurring flight, e.g. "AIRINDIA DEL-BOM at 06:00, Mon-Fri". Dated {@link Flight} rows are
+ * materialized from it on demand; {@code validTo} is open-ended when null.
+ */
+@Entity
+public class ScheduleTemplate {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private int scheduleTemplateId;
+	private Airline airline;
+	private String origin;
+	private String destination;
+	private double price;
+	private LocalTime departureTime;
+	private int durationMinutes;
+	private int totalSeats;
+	// bit (dayOfWeek - 1), Monday is bit 0
+	private int daysOfWeek;
+	private LocalDate validFrom;
+	private LocalDate validTo;
+
+	public ScheduleTemplate() {}
+
+	public boolean operatesOn(LocalDate date) {
+		return !date.isBefore(validFrom)
+				&& (validTo == null || !date.isAfter(validTo))
+				&& (daysOfWeek & bit(date.getDayOfWeek())) != 0;
+	}
+
+	public Flight toFlight(LocalDate date) {
+		Flight flight = new Flight();
+		flight.setScheduleTemplateId(scheduleTemplateId);
+		flight.setAirline(airline);
+		flight.setOrigin(origin);
+		flight.setDestination(destination);
+		flight.setPrice(price);
+		flight.setDepartureTime(date.atTime(departureTime));
+		flight.setArrivalTime(flight.getDepartureTime().plusMinutes(durationMinutes));
+		flight.setTotalSeats(totalSeats);
+		flight.setAvailableSeats(totalSeats);
+		return flight;
+	}
+
+	public static int toMask(Set<DayOfWeek> days) {
+		int mask = 0;
+		for (DayOfWeek day : days) {
+			mask |= bit(day);
+		}
+		return mask;
+	}
+
+	public static Set<DayOfWeek> fromMask(int mask) {
+		Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+		for (DayOfWeek day : DayOfWeek.values()) {
+			if ((mask & bit(day)) != 0) {
+				days.add(day);
+			}
+		}
+		return days;
+	}
+
+	private static int bit(DayOfWeek day) {
+		return 1 << (day.getValue() - 1);
+	}
+
+	public int getScheduleTemplateId() { return scheduleTemplateId; }
+	public void setScheduleTemplateId(int scheduleTemplateId) { this.scheduleTemplateId = scheduleTemplateId; }
+
+	public Airline getAirline() { return airline; }
+	public void setAirline(Airline airline) { this.airline = airline; }
+
+	public String getOrigin() { return origin; }
+	public void setOrigin(String origin) { this.origin = origin; }
+
+	public String getDestination() { return destination; }
+	public void setDestination(String destination) { this.destination = destination; }
+
+	public double getPrice() { return price; }
+	public void setPrice(double price) { this.price = price; }
+
+	public LocalTime getDepartureTime() { return departureTime; }
+	public void setDepartureTime(LocalTime departureTime) { this.departureTime = departureTime; }
+
+	public int getDurationMinutes() { return durationMinutes; }
+	public void setDurationMinutes(int durationMinutes) { this.durationMinutes = durationMinutes; }
+
+	public int getTotalSeats() { return totalSeats; }
+	public void setTotalSeats(int totalSeats) { this.totalSeats = totalSeats; }
+
+	public int getDaysOfWeek() { return daysOfWeek; }
+	public void setDaysOfWeek(int daysOfWeek) { this.daysOfWeek = daysOfWeek; }
+
+	public LocalDate getValidFrom() { return validFrom; }
+	public void setValidFrom(LocalDate validFrom) { this.validFrom = validFrom; }
+
+	public LocalDate getValidTo() { return validTo; }
+	public void setValidTo(LocalDate validTo) { this.validTo = validTo; }
+}
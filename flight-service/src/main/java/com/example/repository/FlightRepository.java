@@ -1,12 +1,24 @@
 package com.example.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.model.Flight;
+import com.example.response.FareCalendarDayResponse;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface FlightRepository extends JpaRepository<Flight, Integer> {
@@ -18,4 +30,55 @@ public interface FlightRepository extends JpaRepository<Flight, Integer> {
 
 	List<Flight> findByOriginAndDestinationAndDepartureTimeBetween(String origin, String destination,
 			LocalDateTime start, LocalDateTime end);
+
+	// one row per departure day that still has seats; days without any are left out
+	@Query("""
+			SELECT new com.example.response.FareCalendarDayResponse(
+			    cast(f.departureTime as LocalDate), min(f.price), sum(f.availableSeats), count(f))
+			FROM Flight f
+			WHERE f.origin = :origin AND f.destination = :destination
+			  AND f.departureTime >= :start AND f.departureTime < :end
+			  AND f.availableSeats > 0
+			GROUP BY cast(f.departureTime as LocalDate)
+			""")
+	List<FareCalendarDayResponse> findFareCalendar(@Param("origin") String origin,
+			@Param("destination") String destination, @Param("start") LocalDateTime start,
+			@Param("end") LocalDateTime end);
+
+	@Query("""
+			SELECT f FROM Flight f
+			WHERE f.scheduleTemplateId IS NOT NULL AND f.departureTime >= :start AND f.departureTime < :end
+			""")
+	List<Flight> findMaterializedBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+	List<Flight> findAllByOrderByDepartureTimeAscFlightIdAsc(Pageable pageable);
+
+	// keyset page: everything strictly after (departureTime, flightId) of the previous page's last row
+	@Query("""
+			SELECT f FROM Flight f
+			WHERE f.departureTime > :departureTime
+			   OR (f.departureTime = :departureTime AND f.flightId > :flightId)
+			ORDER BY f.departureTime, f.flightId
+			""")
+	List<Flight> findPageAfter(@Param("departureTime") LocalDateTime departureTime, @Param("flightId") int flightId,
+			Pageable pageable);
+
+	@QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true") })
+	@Query("SELECT f FROM Flight f ORDER BY f.departureTime, f.flightId")
+	Stream<Flight> streamAllOrdered();
+
+	// conditional updates: the row count says whether the seats were there, no read-modify-write needed
+	@Modifying
+	@Query("""
+			UPDATE Flight f SET f.availableSeats = f.availableSeats - :seats
+			WHERE f.flightId = :flightId AND f.availableSeats >= :seats
+			""")
+	int decrementAvailableSeats(@Param("flightId") int flightId, @Param("seats") int seats);
+
+	@Modifying
+	@Query("""
+			UPDATE Flight f SET f.availableSeats = f.availableSeats + :seats
+			WHERE f.flightId = :flightId AND f.availableSeats + :seats <= f.totalSeats
+			""")
+	int incrementAvailableSeats(@Param("flightId") int flightId, @Param("seats") int seats);
 }
@@ -0,0 +1,28 @@
+package com.example.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.ScheduleTemplate;
+
+@Repository
+public interface ScheduleTemplateRepository extends JpaRepository<ScheduleTemplate, Integer> {
+
+	// validity only; the day-of-week mask is checked by ScheduleTemplate.operatesOn
+	@Query("""
+			SELECT t FROM ScheduleTemplate t
+			WHERE t.validFrom <= :last AND (t.validTo IS NULL OR t.validTo >= :first)
+			""")
+	List<ScheduleTemplate> findValidBetween(@Param("first") LocalDate first, @Param("last") LocalDate last);
+
+	@Query("""
+			SELECT t FROM ScheduleTemplate t
+			WHERE t.validTo IS NULL OR t.validTo >= :first
+			""")
+	List<ScheduleTemplate> findValidFrom(@Param("first") LocalDate first);
+}
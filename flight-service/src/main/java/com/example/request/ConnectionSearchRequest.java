@@ -0,0 +1,57 @@
+package com.example.request;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class ConnectionSearchRequest {
+	@NotNull
+	private String origin;
+	@NotNull
+	private String destination;
+	@NotNull
+	private LocalDate departureDate;
+	@Min(0)
+	private int minConnectionMinutes = 45;
+	// bounds how far ahead the search walks; a day is longer than any sensible layover
+	@Positive
+	@Max(24 * 60)
+	private int maxLayoverMinutes = 360;
+	@Min(1)
+	@Max(2)
+	private int maxStops = 2;
+	@Positive
+	private int seats = 1;
+
+	public ConnectionSearchRequest() {}
+
+	public ConnectionSearchRequest(String origin, String destination, LocalDate departureDate) {
+		this.origin = origin;
+		this.destination = destination;
+		this.departureDate = departureDate;
+	}
+
+	public String getOrigin() { return origin; }
+	public void setOrigin(String origin) { this.origin = origin; }
+
+	public String getDestination() { return destination; }
+	public void setDestination(String destination) { this.destination = destination; }
+
+	public LocalDate getDepartureDate() { return departureDate; }
+	public void setDepartureDate(LocalDate departureDate) { this.departureDate = departureDate; }
+
+	public int getMinConnectionMinutes() { return minConnectionMinutes; }
+	public void setMinConnectionMinutes(int minConnectionMinutes) { this.minConnectionMinutes = minConnectionMinutes; }
+
+	public int getMaxLayoverMinutes() { return maxLayoverMinutes; }
+	public void setMaxLayoverMinutes(int maxLayoverMinutes) { this.maxLayoverMinutes = maxLayoverMinutes; }
+
+	public int getMaxStops() { return maxStops; }
+	public void setMaxStops(int maxStops) { this.maxStops = maxStops; }
+
+	public int getSeats() { return seats; }
+	public void setSeats(int seats) { this.seats = seats; }
+}
@@ -0,0 +1,40 @@
+package com.example.request;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class FareCalendarRequest {
+	@NotNull
+	private String origin;
+	@NotNull
+	private String destination;
+	@NotNull
+	private LocalDate departureDate;
+	@Min(0)
+	@Max(15)
+	private int flexDays = 3;
+
+	public FareCalendarRequest() {}
+
+	public FareCalendarRequest(String origin, String destination, LocalDate departureDate, int flexDays) {
+		this.origin = origin;
+		this.destination = destination;
+		this.departureDate = departureDate;
+		this.flexDays = flexDays;
+	}
+
+	public String getOrigin() { return origin; }
+	public void setOrigin(String origin) { this.origin = origin; }
+
+	public String getDestination() { return destination; }
+	public void setDestination(String destination) { this.destination = destination; }
+
+	public LocalDate getDepartureDate() { return departureDate; }
+	public void setDepartureDate(LocalDate departureDate) { this.departureDate = departureDate; }
+
+	public int getFlexDays() { return flexDays; }
+	public void setFlexDays(int flexDays) { this.flexDays = flexDays; }
+}
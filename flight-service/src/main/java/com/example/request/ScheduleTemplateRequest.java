@@ -0,0 +1,66 @@
+package com.example.request;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+import com.example.model.Airline;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class ScheduleTemplateRequest {
+	@NotNull
+	private Airline airline;
+	@NotNull
+	private String origin;
+	@NotNull
+	private String destination;
+	@Positive
+	private double price;
+	@NotNull
+	private LocalTime departureTime;
+	@Positive
+	private int durationMinutes;
+	@Positive
+	private int totalSeats;
+	@NotEmpty
+	private Set<DayOfWeek> daysOfWeek;
+	@NotNull
+	private LocalDate validFrom;
+	private LocalDate validTo;
+
+	public ScheduleTemplateRequest() {}
+
+	public Airline getAirline() { return airline; }
+	public void setAirline(Airline airline) { this.airline = airline; }
+
+	public String getOrigin() { return origin; }
+	public void setOrigin(String origin) { this.origin = origin; }
+
+	public String getDestination() { return destination; }
+	public void setDestination(String destination) { this.destination = destination; }
+
+	public double getPrice() { return price; }
+	public void setPrice(double price) { this.price = price; }
+
+	public LocalTime getDepartureTime() { return departureTime; }
+	public void setDepartureTime(LocalTime departureTime) { this.departureTime = departureTime; }
+
+	public int getDurationMinutes() { return durationMinutes; }
+	public void setDurationMinutes(int durationMinutes) { this.durationMinutes = durationMinutes; }
+
+	public int getTotalSeats() { return totalSeats; }
+	public void setTotalSeats(int totalSeats) { this.totalSeats = totalSeats; }
+
+	public Set<DayOfWeek> getDaysOfWeek() { return daysOfWeek; }
+	public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) { this.daysOfWeek = daysOfWeek; }
+
+	public LocalDate getValidFrom() { return validFrom; }
+	public void setValidFrom(LocalDate validFrom) { this.validFrom = validFrom; }
+
+	public LocalDate getValidTo() { return validTo; }
+	public void setValidTo(LocalDate validTo) { this.validTo = validTo; }
+}
@@ -0,0 +1,25 @@
+package com.example.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class SeatAdjustmentRequest {
+
+	@NotNull
+	private Integer flightId;
+	@Positive
+	private int seats;
+
+	public SeatAdjustmentRequest() {}
+
+	public SeatAdjustmentRequest(Integer flightId, int seats) {
+		this.flightId = flightId;
+		this.seats = seats;
+	}
+
+	public Integer getFlightId() { return flightId; }
+	public void setFlightId(Integer flightId) { this.flightId = flightId; }
+
+	public int getSeats() { return seats; }
+	public void setSeats(int seats) { this.seats = seats; }
+}
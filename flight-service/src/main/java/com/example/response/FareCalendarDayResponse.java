@@ -0,0 +1,29 @@
+package com.example.response;
+
+import java.time.LocalDate;
+
+public class FareCalendarDayResponse {
+
+	private LocalDate date;
+	private Double lowestPrice;
+	private long availableSeats;
+	private long flights;
+
+	public FareCalendarDayResponse() {}
+
+	public FareCalendarDayResponse(LocalDate date, Double lowestPrice, long availableSeats, long flights) {
+		this.date = date;
+		this.lowestPrice = lowestPrice;
+		this.availableSeats = availableSeats;
+		this.flights = flights;
+	}
+
+	public static FareCalendarDayResponse empty(LocalDate date) {
+		return new FareCalendarDayResponse(date, null, 0, 0);
+	}
+
+	public LocalDate getDate() { return date; }
+	public Double getLowestPrice() { return lowestPrice; }
+	public long getAvailableSeats() { return availableSeats; }
+	public long getFlights() { return flights; }
+}
@@ -0,0 +1,25 @@
+package com.example.response;
+
+import java.util.List;
+
+public class FlightImportResponse {
+
+	private int imported;
+	private int failed;
+	private List<RowError> errors;
+
+	public FlightImportResponse() {}
+
+	public FlightImportResponse(int imported, int failed, List<RowError> errors) {
+		this.imported = imported;
+		this.failed = failed;
+		this.errors = errors;
+	}
+
+	public int getImported() { return imported; }
+	public int getFailed() { return failed; }
+	public List<RowError> getErrors() { return errors; }
+
+	public record RowError(long line, String message) {
+	}
+}
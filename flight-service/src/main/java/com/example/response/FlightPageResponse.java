@@ -0,0 +1,24 @@
+package com.example.response;
+
+import java.util.List;
+
+import com.example.model.Flight;
+
+public class FlightPageResponse {
+
+	private List<Flight> flights;
+	private String nextCursor;
+
+	public FlightPageResponse() {}
+
+	public FlightPageResponse(List<Flight> flights, String nextCursor) {
+		this.flights = flights;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<Flight> getFlights() { return flights; }
+	public void setFlights(List<Flight> flights) { this.flights = flights; }
+
+	public String getNextCursor() { return nextCursor; }
+	public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,35 @@
+package com.example.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.example.model.Flight;
+
+public class ItineraryResponse {
+
+	private List<Flight> legs;
+	private int stops;
+	private double totalPrice;
+	private LocalDateTime departureTime;
+	private LocalDateTime arrivalTime;
+	private long totalDurationMinutes;
+
+	public ItineraryResponse() {}
+
+	public ItineraryResponse(List<Flight> legs, int stops, double totalPrice, LocalDateTime departureTime,
+			LocalDateTime arrivalTime, long totalDurationMinutes) {
+		this.legs = legs;
+		this.stops = stops;
+		this.totalPrice = totalPrice;
+		this.departureTime = departureTime;
+		this.arrivalTime = arrivalTime;
+		this.totalDurationMinutes = totalDurationMinutes;
+	}
+
+	public List<Flight> getLegs() { return legs; }
+	public int getStops() { return stops; }
+	public double getTotalPrice() { return totalPrice; }
+	public LocalDateTime getDepartureTime() { return departureTime; }
+	public LocalDateTime getArrivalTime() { return arrivalTime; }
+	public long getTotalDurationMinutes() { return totalDurationMinutes; }
+}
@@ -0,0 +1,153 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.example.model.Flight;
+import com.example.request.ConnectionSearchRequest;
+import com.example.response.ItineraryResponse;
+
+/**
+ * One- and two-stop itineraries found by walking the time-ordered departures held in
+ * {@link FlightSearchIndex}; each hop only looks at departures inside the layover window. Only
+ * written, bookable flights are walked, so itineraries end where the schedule horizon does. The walk
+ * stops after {@link #MAX_CANDIDATES} itineraries, taken in order of first departure, and the best
+ * {@link #MAX_ITINERARIES} of those are returned.
+ */
+@Service
+public class ConnectionSearchService {
+
+    public static final int MAX_ITINERARIES = 50;
+    static final int MAX_CANDIDATES = 10 * MAX_ITINERARIES;
+
+    private static final Comparator<ItineraryResponse> FASTEST_THEN_CHEAPEST =
+            Comparator.comparingLong(ItineraryResponse::getTotalDurationMinutes)
+                    .thenComparingDouble(ItineraryResponse::getTotalPrice)
+                    .thenComparing(ItineraryResponse::getDepartureTime);
+
+    private final FlightSearchIndex flightSearchIndex;
+
+    public ConnectionSearchService(FlightSearchIndex flightSearchIndex) {
+        this.flightSearchIndex = flightSearchIndex;
+    }
+
+    private record Search(String destination, Duration minConnection, Duration maxLayover, int maxLegs, int seats,
+            List<List<Flight>> results) {
+
+        boolean full() {
+            return results.size() >= MAX_CANDIDATES;
+        }
+    }
+
+    public ResponseEntity<List<ItineraryResponse>> searchConnectionsService(ConnectionSearchRequest req) {
+
+        if (!flightSearchIndex.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        if (req.getOrigin().equals(req.getDestination())) {
+            throw new IllegalArgumentException("Origin and destination must differ");
+        }
+
+        if (req.getMaxLayoverMinutes() < req.getMinConnectionMinutes()) {
+            throw new IllegalArgumentException("Maximum layover cannot be shorter than the minimum connection time");
+        }
+
+        Search search = new Search(req.getDestination(),
+                Duration.ofMinutes(req.getMinConnectionMinutes()),
+                Duration.ofMinutes(req.getMaxLayoverMinutes()),
+                req.getMaxStops() + 1,
+                req.getSeats(),
+                new ArrayList<>());
+
+        LocalDate day = req.getDepartureDate();
+        Set<String> visited = new HashSet<>();
+        visited.add(req.getOrigin());
+        List<Flight> legs = new ArrayList<>();
+
+        for (Flight first : flightSearchIndex.departuresBetween(req.getOrigin(),
+                day.atStartOfDay(), day.atTime(LocalTime.MAX))) {
+            // direct flights are what the route/day search is for
+            if (search.full()) {
+                break;
+            }
+            if (first.getDestination().equals(req.getDestination()) || !hasSeats(first, search)) {
+                continue;
+            }
+            visit(first, legs, visited, search);
+        }
+
+        List<ItineraryResponse> itineraries = search.results().stream()
+                .map(this::toItinerary)
+                .sorted(FASTEST_THEN_CHEAPEST)
+                .limit(MAX_ITINERARIES)
+                .toList();
+
+        return new ResponseEntity<>(itineraries, HttpStatus.OK);
+    }
+
+    private void visit(Flight leg, List<Flight> legs, Set<String> visited, Search search) {
+        legs.add(leg);
+        visited.add(leg.getDestination());
+        extend(legs, visited, search);
+        visited.remove(leg.getDestination());
+        legs.remove(legs.size() - 1);
+    }
+
+    private void extend(List<Flight> legs, Set<String> visited, Search search) {
+        Flight last = legs.get(legs.size() - 1);
+
+        if (last.getDestination().equals(search.destination())) {
+            search.results().add(List.copyOf(legs));
+            return;
+        }
+
+        if (legs.size() == search.maxLegs()) {
+            return;
+        }
+
+        boolean finalLeg = legs.size() == search.maxLegs() - 1;
+        LocalDateTime earliest = last.getArrivalTime().plus(search.minConnection());
+        LocalDateTime latest = last.getArrivalTime().plus(search.maxLayover());
+
+        for (Flight next : flightSearchIndex.departuresBetween(last.getDestination(), earliest, latest)) {
+            if (search.full()) {
+                return;
+            }
+            boolean arrives = next.getDestination().equals(search.destination());
+            if ((finalLeg && !arrives) || visited.contains(next.getDestination()) || !hasSeats(next, search)) {
+                continue;
+            }
+            visit(next, legs, visited, search);
+        }
+    }
+
+    private boolean hasSeats(Flight flight, Search search) {
+        return flightSearchIndex.availableSeats(flight) >= search.seats();
+    }
+
+    private ItineraryResponse toItinerary(List<Flight> legs) {
+        Flight first = legs.get(0);
+        Flight last = legs.get(legs.size() - 1);
+        double totalPrice = legs.stream().mapToDouble(Flight::getPrice).sum();
+
+        return new ItineraryResponse(
+                legs.stream().map(flightSearchIndex::withLiveSeats).toList(),
+                legs.size() - 1,
+                totalPrice,
+                first.getDepartureTime(),
+                last.getArrivalTime(),
+                Duration.between(first.getDepartureTime(), last.getArrivalTime()).toMinutes());
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+import com.example.request.FlightRequest;
+import com.example.response.FlightImportResponse;
+import com.example.response.FlightImportResponse.RowError;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+
+/**
+ * Imports a schedule from a streamed CSV or NDJSON body. Lines are read in chunks: each chunk is
+ * parsed and validated in parallel, then its valid rows are inserted in one transaction as JDBC
+ * batches. If the database rejects the chunk, its rows are inserted one by one so only the rows it
+ * rejects fail. Bad rows are reported by line number and never stop the rest of the file.
+ */
+@Service
+public class FlightImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightImportService.class);
+
+    public static final String TEXT_CSV = "text/csv";
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    static final int CHUNK_SIZE = 1_000;
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    static final String ROW_REJECTED = "Row rejected by database";
+
+    private static final String CSV_HEADER = "airline,";
+    private static final int CSV_COLUMNS = 7;
+
+    private record Row(long line, String text) {
+    }
+
+    private record ParsedRow(long line, FlightRequest request, String error) {
+    }
+
+    private static final class ImportResult {
+        private int imported;
+        private int failed;
+        private final List<RowError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    private final FlightRepository flightRepository;
+    private final FlightSearchIndex flightSearchIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @SuppressWarnings("java:S107")
+    public FlightImportService(FlightRepository flightRepository, FlightSearchIndex flightSearchIndex,
+            Validator validator, ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+            EntityManager entityManager) {
+        this.flightRepository = flightRepository;
+        this.flightSearchIndex = flightSearchIndex;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+    }
+
+    public FlightImportResponse importFlights(InputStream body, boolean csv) throws IOException {
+
+        ImportResult result = new ImportResult();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (csv && lineNumber == 1 && line.toLowerCase(Locale.ROOT).startsWith(CSV_HEADER))) {
+                    continue;
+                }
+                chunk.add(new Row(lineNumber, line));
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, csv, result);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, csv, result);
+            }
+        }
+
+        return new FlightImportResponse(result.imported, result.failed, result.errors);
+    }
+
+    private void importChunk(List<Row> chunk, boolean csv, ImportResult result) {
+
+        List<ParsedRow> parsed = chunk.parallelStream().map(row -> parse(row, csv)).toList();
+
+        List<ParsedRow> valid = new ArrayList<>(parsed.size());
+        for (ParsedRow row : parsed) {
+            if (row.error() != null) {
+                result.fail(row.line(), row.error());
+            } else {
+                valid.add(row);
+            }
+        }
+
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<Flight> flights = valid.stream().map(row -> FlightService.toFlight(row.request())).toList();
+
+        try {
+            insert(flights);
+        } catch (DataAccessException ex) {
+            // one bad row rolls back the whole chunk, so find it by inserting the rows one at a time
+            valid.forEach(row -> importRow(row, result));
+            return;
+        }
+
+        flights.forEach(flightSearchIndex::put);
+        result.imported += flights.size();
+    }
+
+    private void importRow(ParsedRow row, ImportResult result) {
+        // a fresh entity, since the rolled-back attempt already gave the old one an id
+        Flight flight = FlightService.toFlight(row.request());
+        try {
+            insert(List.of(flight));
+        } catch (DataAccessException ex) {
+            // the driver's message can carry SQL and constraint names, so the caller only gets the line
+            logger.warn("Flight import row rejected | line={} | {}", row.line(), ex.getMostSpecificCause().getMessage());
+            result.fail(row.line(), ROW_REJECTED);
+            return;
+        }
+        flightSearchIndex.put(flight);
+        result.imported++;
+    }
+
+    private void insert(List<Flight> flights) {
+        transactionTemplate.executeWithoutResult(status -> {
+            flightRepository.saveAll(flights);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private ParsedRow parse(Row row, boolean csv) {
+        try {
+            FlightRequest req = csv ? parseCsv(row.text()) : objectMapper.readValue(row.text(), FlightRequest.class);
+
+            String violations = validator.validate(req).stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+
+            return violations.isEmpty()
+                    ? new ParsedRow(row.line(), req, null)
+                    : new ParsedRow(row.line(), null, violations);
+
+        } catch (JsonProcessingException ex) {
+            return new ParsedRow(row.line(), null, ex.getOriginalMessage());
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            return new ParsedRow(row.line(), null, ex.getMessage());
+        }
+    }
+
+    // airline,origin,destination,price,departureTime,arrivalTime,totalSeats
+    private static FlightRequest parseCsv(String line) {
+        String[] cols = line.split(",", -1);
+        if (cols.length != CSV_COLUMNS) {
+            throw new IllegalArgumentException("Expected " + CSV_COLUMNS + " columns but found " + cols.length);
+        }
+        return new FlightRequest(
+                Airline.valueOf(cols[0].trim().toUpperCase(Locale.ROOT)),
+                cols[1].trim(),
+                cols[2].trim(),
+                Double.parseDouble(cols[3].trim()),
+                LocalDateTime.parse(cols[4].trim()),
+                LocalDateTime.parse(cols[5].trim()),
+                Integer.parseInt(cols[6].trim()));
+    }
+}
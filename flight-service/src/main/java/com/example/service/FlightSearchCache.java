@@ -0,0 +1,84 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+import com.example.service.FlightSearchIndex.RouteDay;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Route/day searches. Once {@link FlightSearchIndex} has loaded it answers them from memory
+ * directly and nothing is cached: a second copy in front of it would only cost memory. Until then
+ * searches fall back to the database, and only those results are cached, as static schedule data:
+ * every hit is copied with the live seat counts from the index, so bookings never evict an entry;
+ * only a flight being added, changed or removed on that route and day does. The entries are
+ * dropped once the index is ready.
+ */
+@Component
+public class FlightSearchCache {
+
+    static final String CACHE_NAME = "flightSearch";
+
+    private final FlightSearchIndex flightSearchIndex;
+    private final FlightRepository flightRepository;
+    private final Cache<RouteDay, List<Flight>> cache;
+
+    public FlightSearchCache(FlightSearchIndex flightSearchIndex, FlightRepository flightRepository,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${flight.search-cache.maximum-size:10000}") long maximumSize,
+            @Value("${flight.search-cache.expire-after-write:PT30M}") Duration expireAfterWrite) {
+        this.flightSearchIndex = flightSearchIndex;
+        this.flightRepository = flightRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        flightSearchIndex.onRouteDayChange(cache::invalidate);
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+    }
+
+    public List<Flight> search(String origin, String destination, LocalDate date) {
+        if (flightSearchIndex.isReady()) {
+            if (cache.estimatedSize() > 0) {
+                cache.invalidateAll();
+            }
+            return flightSearchIndex.search(origin, destination, date);
+        }
+
+        List<Flight> flights = cache.get(new RouteDay(origin, destination, date), this::loadFromDatabase);
+        List<Flight> result = new ArrayList<>(flights.size());
+        for (Flight flight : flights) {
+            result.add(flightSearchIndex.withLiveSeats(flight));
+        }
+        return result;
+    }
+
+    private List<Flight> loadFromDatabase(RouteDay key) {
+        LocalDateTime start = key.date().atStartOfDay();
+        LocalDateTime end = key.date().atTime(23, 59, 59);
+        List<Flight> flights = flightRepository.findByOriginAndDestinationAndDepartureTimeBetween(
+                key.origin(), key.destination(), start, end);
+        // bookings made before the index loads still have to show up on cached entries
+        flights.forEach(flight -> flightSearchIndex.trackAvailableSeats(flight.getFlightId(), flight.getAvailableSeats()));
+        return flights.stream().map(FlightSearchIndex::copyOf).toList();
+    }
+
+    long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * In-memory copy of the flights table keyed by (origin, destination, departure date),
+ * so route/day searches are answered without a database round trip. A second view keeps
+ * every airport's departures in time order; it is the route graph used for connections.
+ *
+ * The index owns its own copies of each flight; callers always get fresh copies back
+ * and must push changes through {@link #put(Flight)} and {@link #remove(int)}. Those copies
+ * hold the static schedule only: live seat counts sit in a separate counter per flight, so a
+ * booking never touches the ordered sets and never invalidates anything cached from them.
+ */
+@Component
+public class FlightSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightSearchIndex.class);
+
+    private static final Comparator<Flight> BY_DEPARTURE =
+            Comparator.comparing(Flight::getDepartureTime).thenComparingInt(Flight::getFlightId);
+
+    record RouteDay(String origin, String destination, LocalDate date) {
+
+        static RouteDay of(Flight flight) {
+            return new RouteDay(flight.getOrigin(), flight.getDestination(),
+                    flight.getDepartureTime().toLocalDate());
+        }
+    }
+
+    private final FlightRepository flightRepository;
+    private final EntityManager entityManager;
+
+    private final Map<Integer, Flight> flightsById = new ConcurrentHashMap<>();
+    private final Map<RouteDay, NavigableSet<Flight>> flightsByRouteDay = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Flight>> departuresByOrigin = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> seatsById = new ConcurrentHashMap<>();
+    private final List<Consumer<RouteDay>> changeListeners = new CopyOnWriteArrayList<>();
+
+    // seat changes for flights the startup scan has not reached yet; they commit after the scan's
+    // snapshot was taken, so they are applied on top of it once the scan is done
+    private final Object loadLock = new Object();
+    private Map<Integer, Integer> seatChangesWhileLoading;
+
+    private volatile boolean ready;
+
+    public FlightSearchIndex(FlightRepository flightRepository, EntityManager entityManager) {
+        this.flightRepository = flightRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        startLoading();
+        try (Stream<Flight> flights = flightRepository.streamAllOrdered()) {
+            flights.forEach(flight -> {
+                putIfAbsent(flight);
+                entityManager.detach(flight);
+            });
+        }
+        int replayed = finishLoading();
+        logger.info("Flight search index loaded | flights={} | routeDays={} | seatChangesReplayed={} | {} ms",
+                flightsById.size(), flightsByRouteDay.size(), replayed, System.currentTimeMillis() - start);
+    }
+
+    void loadAll(Collection<Flight> flights) {
+        startLoading();
+        flights.forEach(this::putIfAbsent);
+        finishLoading();
+    }
+
+    private void startLoading() {
+        synchronized (loadLock) {
+            seatChangesWhileLoading = new HashMap<>();
+        }
+    }
+
+    private int finishLoading() {
+        synchronized (loadLock) {
+            Map<Integer, Integer> changes = seatChangesWhileLoading;
+            changes.forEach((flightId, delta) -> {
+                AtomicInteger seats = seatsById.get(flightId);
+                if (seats != null) {
+                    seats.addAndGet(delta);
+                }
+            });
+            seatChangesWhileLoading = null;
+            ready = true;
+            return changes.size();
+        }
+    }
+
+    // anything written incrementally while loading is newer than the scan
+    private void putIfAbsent(Flight flight) {
+        if (!flightsById.containsKey(flight.getFlightId())) {
+            put(flight);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return flightsById.size();
+    }
+
+    /** Called with every route/day whose static flight data changed; seat count changes are not reported. */
+    void onRouteDayChange(Consumer<RouteDay> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Indexes the flight's static data. A live seat counter the flight already has is kept: it has
+     * seen every change committed since it started, while {@code flight} may be an older read.
+     */
+    public void put(Flight flight) {
+        Flight copy = copyOf(flight);
+        Flight[] replaced = new Flight[1];
+        flightsById.compute(copy.getFlightId(), (id, previous) -> {
+            if (previous != null) {
+                unlink(previous);
+            }
+            link(copy);
+            seatsById.computeIfAbsent(id, key -> new AtomicInteger(copy.getAvailableSeats()));
+            replaced[0] = previous;
+            return copy;
+        });
+        if (replaced[0] != null) {
+            changed(RouteDay.of(replaced[0]));
+        }
+        changed(RouteDay.of(copy));
+    }
+
+    public void remove(int flightId) {
+        Flight[] removed = new Flight[1];
+        flightsById.computeIfPresent(flightId, (id, previous) -> {
+            unlink(previous);
+            seatsById.remove(id);
+            removed[0] = previous;
+            return null;
+        });
+        if (removed[0] != null) {
+            changed(RouteDay.of(removed[0]));
+        }
+    }
+
+    private void changed(RouteDay routeDay) {
+        changeListeners.forEach(listener -> listener.accept(routeDay));
+    }
+
+    public void adjustAvailableSeats(int flightId, int delta) {
+        AtomicInteger seats = seatsById.get(flightId);
+        if (seats != null) {
+            seats.addAndGet(delta);
+            return;
+        }
+        synchronized (loadLock) {
+            seats = seatsById.get(flightId);
+            if (seats != null) {
+                seats.addAndGet(delta);
+            } else if (seatChangesWhileLoading != null) {
+                seatChangesWhileLoading.merge(flightId, delta, Integer::sum);
+            }
+        }
+    }
+
+    /** Starts a counter for a flight read from the database while it is not indexed yet. */
+    void trackAvailableSeats(int flightId, int availableSeats) {
+        seatsById.putIfAbsent(flightId, new AtomicInteger(availableSeats));
+    }
+
+    int availableSeats(Flight flight) {
+        AtomicInteger seats = seatsById.get(flight.getFlightId());
+        return seats == null ? flight.getAvailableSeats() : seats.get();
+    }
+
+    /** A fresh copy of {@code flight} carrying the live seat count. */
+    Flight withLiveSeats(Flight flight) {
+        Flight copy = copyOf(flight);
+        copy.setAvailableSeats(availableSeats(flight));
+        return copy;
+    }
+
+    public List<Flight> search(String origin, String destination, LocalDate date) {
+        NavigableSet<Flight> flights = flightsByRouteDay.get(new RouteDay(origin, destination, date));
+        if (flights == null) {
+            return List.of();
+        }
+        List<Flight> result = new ArrayList<>(flights.size());
+        for (Flight flight : flights) {
+            result.add(withLiveSeats(flight));
+        }
+        return result;
+    }
+
+    /**
+     * Live view of the index's own instances, for in-package graph searches only.
+     * Seats must be read through {@link #availableSeats(Flight)}, and results handed to callers
+     * outside the index must go through {@link #withLiveSeats(Flight)}.
+     */
+    NavigableSet<Flight> departuresBetween(String origin, LocalDateTime from, LocalDateTime to) {
+        NavigableSet<Flight> departures = departuresByOrigin.get(origin);
+        if (departures == null || from.isAfter(to)) {
+            return Collections.emptyNavigableSet();
+        }
+        return departures.subSet(bound(from, Integer.MIN_VALUE), true, bound(to, Integer.MAX_VALUE), true);
+    }
+
+    private static Flight bound(LocalDateTime departureTime, int flightId) {
+        Flight bound = new Flight();
+        bound.setDepartureTime(departureTime);
+        bound.setFlightId(flightId);
+        return bound;
+    }
+
+    private void link(Flight flight) {
+        flightsByRouteDay.compute(RouteDay.of(flight), (key, flights) -> add(flights, flight));
+        departuresByOrigin.compute(flight.getOrigin(), (key, flights) -> add(flights, flight));
+    }
+
+    private void unlink(Flight flight) {
+        flightsByRouteDay.computeIfPresent(RouteDay.of(flight), (key, flights) -> remove(flights, flight));
+        departuresByOrigin.computeIfPresent(flight.getOrigin(), (key, flights) -> remove(flights, flight));
+    }
+
+    private static NavigableSet<Flight> add(NavigableSet<Flight> flights, Flight flight) {
+        NavigableSet<Flight> target = flights == null ? new ConcurrentSkipListSet<>(BY_DEPARTURE) : flights;
+        target.add(flight);
+        return target;
+    }
+
+    private static NavigableSet<Flight> remove(NavigableSet<Flight> flights, Flight flight) {
+        flights.remove(flight);
+        return flights.isEmpty() ? null : flights;
+    }
+
+    static Flight copyOf(Flight flight) {
+        Flight copy = new Flight(flight.getFlightId(), flight.getAirline(), flight.getOrigin(), flight.getDestination(),
+                flight.getPrice(), flight.getDepartureTime(), flight.getArrivalTime(),
+                flight.getTotalSeats(), flight.getAvailableSeats());
+        copy.setScheduleTemplateId(flight.getScheduleTemplateId());
+        return copy;
+    }
+}
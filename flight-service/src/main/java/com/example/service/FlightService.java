@@ -1,51 +1,125 @@
 package com.example.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.example.exception.ResourceNotFoundException;
 import com.example.model.Flight;
 import com.example.repository.FlightRepository;
+import com.example.request.FareCalendarRequest;
 import com.example.request.FlightRequest;
 import com.example.request.SearchRequest;
+import com.example.request.SeatAdjustmentRequest;
+import com.example.response.FareCalendarDayResponse;
+import com.example.response.FlightPageResponse;
+
+import jakarta.persistence.EntityManager;
 
 @Service
 public class FlightService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_IDS = 500;
+
     private final FlightRepository flightRepository;
+    private final FlightSearchIndex flightSearchIndex;
+    private final FlightSearchCache flightSearchCache;
+    private final ScheduleService scheduleService;
+    private final EntityManager entityManager;
 
-    public FlightService(FlightRepository flightRepository) {
+    public FlightService(FlightRepository flightRepository, FlightSearchIndex flightSearchIndex,
+            FlightSearchCache flightSearchCache, ScheduleService scheduleService, EntityManager entityManager) {
         this.flightRepository = flightRepository;
+        this.flightSearchIndex = flightSearchIndex;
+        this.flightSearchCache = flightSearchCache;
+        this.scheduleService = scheduleService;
+        this.entityManager = entityManager;
     }
 
     @Transactional
     public void reserveSeats(int flightId, int seats) {
-        Flight flight = flightRepository.findById(flightId)
-                .orElseThrow(() -> new IllegalStateException("Flight not found"));
+        requirePositive(seats);
 
-        if (flight.getAvailableSeats() < seats) {
-            throw new IllegalStateException("Not enough seats available");
+        if (flightRepository.decrementAvailableSeats(flightId, seats) == 0) {
+            throw new IllegalStateException(
+                    flightRepository.existsById(flightId) ? "Not enough seats available" : "Flight not found");
         }
-
-        flight.setAvailableSeats(flight.getAvailableSeats() - seats);
-        flightRepository.save(flight);
+        afterCommit(() -> flightSearchIndex.adjustAvailableSeats(flightId, -seats));
     }
 
     @Transactional
     public void releaseSeats(int flightId, int seats) {
-        Flight flight = flightRepository.findById(flightId)
-                .orElseThrow(() -> new IllegalStateException("Flight not found"));
+        requirePositive(seats);
+
+        if (flightRepository.incrementAvailableSeats(flightId, seats) == 0) {
+            throw new IllegalStateException(
+                    flightRepository.existsById(flightId) ? "Cannot release more seats than were booked" : "Flight not found");
+        }
+        afterCommit(() -> flightSearchIndex.adjustAvailableSeats(flightId, seats));
+    }
+
+    // all-or-nothing: any flight that cannot be updated rolls back the whole batch
+    @Transactional
+    public void reserveSeats(List<SeatAdjustmentRequest> requests) {
+        mergeByFlight(requests).forEach(this::reserveSeats);
+    }
+
+    @Transactional
+    public void releaseSeats(List<SeatAdjustmentRequest> requests) {
+        mergeByFlight(requests).forEach(this::releaseSeats);
+    }
+
+    // sorted by flight id so concurrent batches lock rows in the same order and cannot deadlock
+    private static Map<Integer, Integer> mergeByFlight(List<SeatAdjustmentRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one flight is required");
+        }
+        Map<Integer, Integer> seatsByFlight = new TreeMap<>();
+        for (SeatAdjustmentRequest req : requests) {
+            if (req.getFlightId() == null) {
+                throw new IllegalArgumentException("Flight id is required");
+            }
+            requirePositive(req.getSeats());
+            seatsByFlight.merge(req.getFlightId(), req.getSeats(), Integer::sum);
+        }
+        return seatsByFlight;
+    }
 
-        flight.setAvailableSeats(flight.getAvailableSeats() + seats);
-        flightRepository.save(flight);
+    private static void requirePositive(int seats) {
+        if (seats <= 0) {
+            throw new IllegalArgumentException("Seats must be positive");
+        }
     }
 
     public ResponseEntity<Integer> registerFlightByIDService(FlightRequest req) {
+        Flight savedFlight = flightRepository.save(toFlight(req));
+        afterCommit(() -> flightSearchIndex.put(savedFlight));
+        return new ResponseEntity<>(savedFlight.getFlightId(), HttpStatus.CREATED);
+    }
+
+    static Flight toFlight(FlightRequest req) {
         Flight flight = new Flight();
         flight.setAirline(req.getAirline());
         flight.setOrigin(req.getOrigin());
@@ -55,9 +129,7 @@ public class FlightService {
         flight.setArrivalTime(req.getArrivalTime());
         flight.setTotalSeats(req.getTotalSeats());
         flight.setAvailableSeats(req.getTotalSeats());
-
-        Flight savedFlight = flightRepository.save(flight);
-        return new ResponseEntity<>(savedFlight.getFlightId(), HttpStatus.CREATED);
+        return flight;
     }
 
     public ResponseEntity<Flight> getByIDService(int id) throws ResourceNotFoundException {
@@ -66,6 +138,21 @@ public class FlightService {
         return new ResponseEntity<>(flight, HttpStatus.OK);
     }
 
+    // ids that do not exist are simply missing from the result
+    public ResponseEntity<List<Flight>> getFlightsByIdsService(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one flight id is required");
+        }
+        Set<Integer> distinct = new LinkedHashSet<>(ids);
+        if (distinct.contains(null)) {
+            throw new IllegalArgumentException("Flight id is required");
+        }
+        if (distinct.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " flight ids per request");
+        }
+        return new ResponseEntity<>(flightRepository.findAllById(distinct), HttpStatus.OK);
+    }
+
     public ResponseEntity<List<Flight>> getByOriginAndDestinationService(SearchRequest req) {
         List<Flight> listOfFlights =
                 flightRepository.findByOriginAndDestination(req.getOrigin(), req.getDestination());
@@ -74,14 +161,59 @@ public class FlightService {
 
     public ResponseEntity<List<Flight>> getByOriginAndDestinationAndDepartureDateTimeService(SearchRequest req) {
 
-        LocalDateTime start = req.getDepartureDateTime().toLocalDate().atStartOfDay();
-        LocalDateTime end = req.getDepartureDateTime().toLocalDate().atTime(23, 59, 59);
+        LocalDate date = req.getDepartureDateTime().toLocalDate();
+        List<Flight> flights = flightSearchCache.search(req.getOrigin(), req.getDestination(), date);
 
-        List<Flight> listOfFlights =
-                flightRepository.findByOriginAndDestinationAndDepartureTimeBetween(
-                        req.getOrigin(), req.getDestination(), start, end);
+        return new ResponseEntity<>(
+                scheduleService.withScheduled(flights, req.getOrigin(), req.getDestination(), date), HttpStatus.OK);
+    }
 
-        return new ResponseEntity<>(listOfFlights, HttpStatus.OK);
+    public ResponseEntity<List<FareCalendarDayResponse>> getFareCalendarService(FareCalendarRequest req) {
+
+        LocalDate first = req.getDepartureDate().minusDays(req.getFlexDays());
+        LocalDate last = req.getDepartureDate().plusDays(req.getFlexDays());
+
+        List<FareCalendarDayResponse> calendar = new ArrayList<>();
+
+        if (flightSearchIndex.isReady()) {
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                calendar.add(summarize(day, scheduledOn(req, day)));
+            }
+            return new ResponseEntity<>(calendar, HttpStatus.OK);
+        }
+
+        Map<LocalDate, FareCalendarDayResponse> byDay = flightRepository.findFareCalendar(req.getOrigin(),
+                        req.getDestination(), first.atStartOfDay(), last.plusDays(1).atStartOfDay())
+                .stream()
+                .collect(Collectors.toMap(FareCalendarDayResponse::getDate, Function.identity()));
+
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            FareCalendarDayResponse written = byDay.getOrDefault(day, FareCalendarDayResponse.empty(day));
+            // past the horizon the day also has departures only the templates know about
+            List<Flight> scheduled = scheduleService.withScheduled(List.of(), req.getOrigin(), req.getDestination(), day);
+            calendar.add(scheduled.isEmpty() ? written : summarize(day, scheduledOn(req, day)));
+        }
+        return new ResponseEntity<>(calendar, HttpStatus.OK);
+    }
+
+    private List<Flight> scheduledOn(FareCalendarRequest req, LocalDate day) {
+        return scheduleService.withScheduled(flightSearchCache.search(req.getOrigin(), req.getDestination(), day),
+                req.getOrigin(), req.getDestination(), day);
+    }
+
+    private static FareCalendarDayResponse summarize(LocalDate day, List<Flight> flights) {
+        Double lowestPrice = null;
+        long seats = 0;
+        long bookable = 0;
+        for (Flight flight : flights) {
+            if (flight.getAvailableSeats() <= 0) {
+                continue;
+            }
+            lowestPrice = lowestPrice == null ? flight.getPrice() : Math.min(lowestPrice, flight.getPrice());
+            seats += flight.getAvailableSeats();
+            bookable++;
+        }
+        return new FareCalendarDayResponse(day, lowestPrice, seats, bookable);
     }
 
     public ResponseEntity<String> deleteByIDService(int id) throws ResourceNotFoundException {
@@ -89,10 +221,75 @@ public class FlightService {
                 .orElseThrow(() -> new ResourceNotFoundException("flight by this id not found"));
 
         flightRepository.deleteById(id);
+        afterCommit(() -> flightSearchIndex.remove(id));
         return new ResponseEntity<>("deleted", HttpStatus.OK);
     }
 
     public List<Flight> getAllFlights() {
         return flightRepository.findAll();
     }
+
+    public FlightPageResponse getFlightsPage(String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Pageable limit = PageRequest.of(0, size);
+        List<Flight> flights;
+
+        if (cursor == null || cursor.isBlank()) {
+            flights = flightRepository.findAllByOrderByDepartureTimeAscFlightIdAsc(limit);
+        } else {
+            String[] position = decodeCursor(cursor);
+            flights = flightRepository.findPageAfter(
+                    LocalDateTime.parse(position[0]), Integer.parseInt(position[1]), limit);
+        }
+
+        String nextCursor = flights.size() < size ? null : encodeCursor(flights.get(flights.size() - 1));
+        return new FlightPageResponse(flights, nextCursor);
+    }
+
+    // rows are detached as soon as the sink has consumed them so the persistence context stays empty
+    @Transactional(readOnly = true)
+    public void streamAllFlights(Consumer<Flight> sink) {
+        try (Stream<Flight> flights = flightRepository.streamAllOrdered()) {
+            flights.forEach(flight -> {
+                sink.accept(flight);
+                entityManager.detach(flight);
+            });
+        }
+    }
+
+    private static String encodeCursor(Flight last) {
+        String position = last.getDepartureTime() + "|" + last.getFlightId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            Integer.parseInt(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    // index updates must not run for a transaction that later rolls back
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
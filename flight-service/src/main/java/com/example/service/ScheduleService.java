@@ -0,0 +1,186 @@
+package com.example.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.model.Flight;
+import com.example.model.ScheduleTemplate;
+import com.example.repository.FlightRepository;
+import com.example.repository.ScheduleTemplateRepository;
+import com.example.request.ScheduleTemplateRequest;
+
+/**
+ * Recurring schedules. Dated flights are written only for a rolling horizon from today, by a nightly
+ * job that also runs at startup and when a template is registered, so the flights table does not grow
+ * with every day of schedule published ahead. Searches never write: days past what the job has written
+ * are answered by projecting the templates in memory, as flights without an id that become bookable
+ * once the horizon reaches them. The unique (template, departure) constraint settles instances running
+ * the job at the same time.
+ */
+@Service
+public class ScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleService.class);
+
+    private static final Comparator<Flight> BY_DEPARTURE = Comparator.comparing(Flight::getDepartureTime);
+
+    private final ScheduleTemplateRepository scheduleTemplateRepository;
+    private final FlightRepository flightRepository;
+    private final FlightSearchIndex flightSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+
+    // templates still operating, and the last day this instance has written their flights for
+    private volatile List<ScheduleTemplate> templates = List.of();
+    private volatile LocalDate materializedThrough;
+
+    // replaced in tests
+    private Clock clock = Clock.systemDefaultZone();
+
+    public ScheduleService(ScheduleTemplateRepository scheduleTemplateRepository, FlightRepository flightRepository,
+            FlightSearchIndex flightSearchIndex, TransactionTemplate transactionTemplate,
+            @Value("${flight.schedule.horizon-days:14}") int horizonDays) {
+        this.scheduleTemplateRepository = scheduleTemplateRepository;
+        this.flightRepository = flightRepository;
+        this.flightSearchIndex = flightSearchIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.horizonDays = horizonDays;
+    }
+
+    public ResponseEntity<Integer> registerScheduleTemplateService(ScheduleTemplateRequest req) {
+
+        if (req.getOrigin().equals(req.getDestination())) {
+            throw new IllegalArgumentException("Origin and destination must differ");
+        }
+        if (req.getValidTo() != null && req.getValidTo().isBefore(req.getValidFrom())) {
+            throw new IllegalArgumentException("validTo cannot be before validFrom");
+        }
+
+        ScheduleTemplate template = new ScheduleTemplate();
+        template.setAirline(req.getAirline());
+        template.setOrigin(req.getOrigin());
+        template.setDestination(req.getDestination());
+        template.setPrice(req.getPrice());
+        template.setDepartureTime(req.getDepartureTime());
+        template.setDurationMinutes(req.getDurationMinutes());
+        template.setTotalSeats(req.getTotalSeats());
+        template.setDaysOfWeek(ScheduleTemplate.toMask(req.getDaysOfWeek()));
+        template.setValidFrom(req.getValidFrom());
+        template.setValidTo(req.getValidTo());
+
+        ScheduleTemplate saved = scheduleTemplateRepository.save(template);
+
+        // its days inside the horizon become bookable now rather than at the next nightly run
+        materializeHorizon();
+        return new ResponseEntity<>(saved.getScheduleTemplateId(), HttpStatus.CREATED);
+    }
+
+    public ResponseEntity<List<ScheduleTemplate>> getAllScheduleTemplatesService() {
+        return new ResponseEntity<>(scheduleTemplateRepository.findAll(), HttpStatus.OK);
+    }
+
+    /**
+     * Writes the dated flight of every template operating from today to the end of the horizon.
+     * Only the job, startup and template registration get here; searches never do.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${flight.schedule.materialize-cron:0 30 2 * * *}")
+    public synchronized void materializeHorizon() {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate last = today.plusDays(horizonDays);
+        templates = List.copyOf(scheduleTemplateRepository.findValidFrom(today));
+
+        List<Flight> flights;
+        try {
+            flights = materializeBetween(today, last);
+        } catch (DataIntegrityViolationException ex) {
+            // another instance wrote the same departures first; what it wrote is read back instead
+            logger.debug("Schedule materialization raced for {} to {} | retrying", today, last);
+            flights = materializeBetween(today, last);
+        }
+        flights.forEach(flightSearchIndex::put);
+        materializedThrough = last;
+    }
+
+    /**
+     * {@code found}, the written flights for the route and day, plus the scheduled departures not
+     * written yet because the day lies past the horizon. Nothing is persisted.
+     */
+    public List<Flight> withScheduled(List<Flight> found, String origin, String destination, LocalDate date) {
+        LocalDate written = materializedThrough;
+        if (date.isBefore(LocalDate.now(clock)) || (written != null && !date.isAfter(written))) {
+            return found;
+        }
+
+        Set<Integer> templateIds = new HashSet<>();
+        found.forEach(flight -> templateIds.add(flight.getScheduleTemplateId()));
+
+        List<Flight> flights = new ArrayList<>(found);
+        for (ScheduleTemplate template : templates) {
+            if (template.getOrigin().equals(origin) && template.getDestination().equals(destination)
+                    && template.operatesOn(date) && !templateIds.contains(template.getScheduleTemplateId())) {
+                flights.add(template.toFlight(date));
+            }
+        }
+        if (flights.size() == found.size()) {
+            return found;
+        }
+        flights.sort(BY_DEPARTURE);
+        return flights;
+    }
+
+    // returns the created rows together with the ones already there, all of which belong in the index
+    private List<Flight> materializeBetween(LocalDate first, LocalDate last) {
+        return transactionTemplate.execute(status -> {
+            List<ScheduleTemplate> valid = scheduleTemplateRepository.findValidBetween(first, last);
+            if (valid.isEmpty()) {
+                return List.<Flight>of();
+            }
+
+            List<Flight> existing = flightRepository.findMaterializedBetween(first.atStartOfDay(),
+                    last.plusDays(1).atStartOfDay());
+            Set<String> existingKeys = new HashSet<>();
+            existing.forEach(flight -> existingKeys.add(key(flight)));
+
+            List<Flight> created = new ArrayList<>();
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                for (ScheduleTemplate template : valid) {
+                    if (template.operatesOn(day)) {
+                        Flight flight = template.toFlight(day);
+                        if (!existingKeys.contains(key(flight))) {
+                            created.add(flight);
+                        }
+                    }
+                }
+            }
+
+            List<Flight> flights = new ArrayList<>(existing);
+            flights.addAll(flightRepository.saveAllAndFlush(created));
+            if (!created.isEmpty()) {
+                logger.info("Materialized {} scheduled flights for {} to {}", created.size(), first, last);
+            }
+            return flights;
+        });
+    }
+
+    private static String key(Flight flight) {
+        return flight.getScheduleTemplateId() + "|" + flight.getDepartureTime();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.response.FareCalendarDayResponse;
+
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+class FlightRepositoryTest {
+
+	private static final LocalDate DAY = LocalDate.of(2030, 6, 1);
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	private Flight save(String destination, LocalDateTime departure, double price, int availableSeats) {
+		return flightRepository.save(new Flight(0, Airline.INDIGO, "DEL", destination, price, departure,
+				departure.plusHours(2), 180, availableSeats));
+	}
+
+	@Test
+	void testFindFareCalendar_groupsByDepartureDay() {
+		save("BOM", DAY.atTime(6, 0), 5000, 10);
+		save("BOM", DAY.atTime(21, 0), 4000, 5);
+		save("BOM", DAY.atTime(22, 0), 1000, 0);
+		save("BOM", DAY.plusDays(2).atTime(0, 0), 6000, 7);
+		save("BOM", DAY.plusDays(3).atTime(0, 0), 100, 7);
+		save("HYD", DAY.atTime(6, 0), 100, 7);
+
+		List<FareCalendarDayResponse> rows = flightRepository.findFareCalendar("DEL", "BOM", DAY.atStartOfDay(),
+				DAY.plusDays(3).atStartOfDay());
+
+		assertEquals(2, rows.size());
+		FareCalendarDayResponse first = rows.stream().filter(r -> r.getDate().equals(DAY)).findFirst().orElseThrow();
+		assertEquals(4000, first.getLowestPrice());
+		assertEquals(15, first.getAvailableSeats());
+		assertEquals(2, first.getFlights());
+	}
+
+	@Test
+	void testFindPageAfter_continuesFromKeyset() {
+		Flight a = save("BOM", DAY.atTime(6, 0), 5000, 10);
+		Flight b = save("BOM", DAY.atTime(6, 0), 5000, 10);
+		Flight c = save("BOM", DAY.atTime(7, 0), 5000, 10);
+
+		List<Flight> firstPage = flightRepository.findAllByOrderByDepartureTimeAscFlightIdAsc(PageRequest.of(0, 2));
+		assertEquals(List.of(a.getFlightId(), b.getFlightId()), firstPage.stream().map(Flight::getFlightId).toList());
+
+		List<Flight> secondPage = flightRepository.findPageAfter(b.getDepartureTime(), b.getFlightId(),
+				PageRequest.of(0, 2));
+		assertEquals(List.of(c.getFlightId()), secondPage.stream().map(Flight::getFlightId).toList());
+	}
+}
@@ -0,0 +1,154 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+import com.example.request.ConnectionSearchRequest;
+import com.example.response.ItineraryResponse;
+
+import jakarta.persistence.EntityManager;
+
+class ConnectionSearchServiceTest {
+
+	private static final LocalDate DAY = LocalDate.of(2030, 3, 1);
+
+	private FlightSearchIndex index;
+	private ConnectionSearchService service;
+	private final List<Flight> flights = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		index = spy(new FlightSearchIndex(mock(FlightRepository.class), mock(EntityManager.class)));
+		service = new ConnectionSearchService(index);
+	}
+
+	private void flight(int id, String origin, String destination, LocalDateTime departure, int minutes) {
+		flights.add(new Flight(id, Airline.INDIGO, origin, destination, 1000 * id, departure,
+				departure.plusMinutes(minutes), 180, 180));
+	}
+
+	private List<ItineraryResponse> search(ConnectionSearchRequest req) {
+		index.loadAll(flights);
+		return service.searchConnectionsService(req).getBody();
+	}
+
+	@Test
+	void testOneStop_respectsMinimumConnectionAndMaximumLayover() {
+		flight(1, "DEL", "BOM", DAY.atTime(6, 0), 120);      // arrives 08:00
+		flight(2, "BOM", "GOI", DAY.atTime(8, 30), 60);      // 30 min: too tight
+		flight(3, "BOM", "GOI", DAY.atTime(9, 0), 60);       // 60 min: ok
+		flight(4, "BOM", "GOI", DAY.atTime(20, 0), 60);      // 12 h: too long
+		flight(5, "DEL", "GOI", DAY.atTime(7, 0), 150);      // direct, not a connection
+
+		List<ItineraryResponse> result = search(new ConnectionSearchRequest("DEL", "GOI", DAY));
+
+		assertEquals(1, result.size());
+		assertEquals(1, result.get(0).getStops());
+		assertEquals(List.of(1, 3), result.get(0).getLegs().stream().map(Flight::getFlightId).toList());
+		assertEquals(4000, result.get(0).getTotalPrice());
+		assertEquals(240, result.get(0).getTotalDurationMinutes());
+	}
+
+	@Test
+	void testTwoStop_andNoAirportVisitedTwice() {
+		flight(1, "DEL", "BOM", DAY.atTime(6, 0), 120);
+		flight(2, "BOM", "BLR", DAY.atTime(9, 0), 90);
+		flight(3, "BLR", "COK", DAY.atTime(12, 0), 60);
+		flight(4, "BOM", "DEL", DAY.atTime(9, 0), 120);      // back to origin
+		flight(5, "DEL", "COK", DAY.atTime(13, 0), 180);
+
+		List<ItineraryResponse> result = search(new ConnectionSearchRequest("DEL", "COK", DAY));
+
+		assertEquals(1, result.size());
+		assertEquals(2, result.get(0).getStops());
+		assertEquals(List.of(1, 2, 3), result.get(0).getLegs().stream().map(Flight::getFlightId).toList());
+	}
+
+	@Test
+	void testMaxStopsAndSeatsFilter() {
+		flight(1, "DEL", "BOM", DAY.atTime(6, 0), 120);
+		flight(2, "BOM", "BLR", DAY.atTime(9, 0), 90);
+		flight(3, "BLR", "COK", DAY.atTime(12, 0), 60);
+		flight(4, "BOM", "COK", DAY.atTime(10, 0), 90);
+		flights.get(3).setAvailableSeats(1);
+
+		ConnectionSearchRequest oneStop = new ConnectionSearchRequest("DEL", "COK", DAY);
+		oneStop.setMaxStops(1);
+		assertEquals(1, search(oneStop).size());
+
+		ConnectionSearchRequest group = new ConnectionSearchRequest("DEL", "COK", DAY);
+		group.setSeats(2);
+		List<ItineraryResponse> result = search(group);
+		assertEquals(1, result.size());
+		assertEquals(2, result.get(0).getStops());
+	}
+
+	@Test
+	void testLongLayovers_walkAcrossDays() {
+		flight(1, "DEL", "BOM", DAY.atTime(20, 0), 120);                 // arrives 22:00
+		flight(2, "BOM", "BLR", DAY.plusDays(1).atTime(20, 0), 120);     // 22 h later, arrives 22:00
+		flight(3, "BLR", "COK", DAY.plusDays(2).atTime(10, 0), 60);      // 12 h later
+
+		ConnectionSearchRequest req = new ConnectionSearchRequest("DEL", "COK", DAY);
+		req.setMaxLayoverMinutes(24 * 60);
+		List<ItineraryResponse> result = search(req);
+
+		assertEquals(List.of(1, 2, 3), result.get(0).getLegs().stream().map(Flight::getFlightId).toList());
+	}
+
+	@Test
+	void testWalkStopsOnceEnoughItinerariesAreFound() {
+		int perFirstLeg = ConnectionSearchService.MAX_CANDIDATES / 10;
+		for (int i = 0; i < 20; i++) {
+			flight(1 + i, "DEL", "BOM", DAY.atStartOfDay().plusMinutes(10 * i), 60);
+		}
+		for (int k = 0; k < perFirstLeg; k++) {
+			flight(100 + k, "BOM", "GOI", DAY.atTime(5, 0).plusMinutes(2 * k), 60);
+		}
+
+		ConnectionSearchRequest req = new ConnectionSearchRequest("DEL", "GOI", DAY);
+		req.setMaxStops(1);
+		List<ItineraryResponse> result = search(req);
+
+		assertEquals(ConnectionSearchService.MAX_ITINERARIES, result.size());
+		// one onward lookup per first leg walked: the cap was reached after ten of the twenty
+		verify(index, times(10)).departuresBetween(eq("BOM"), any(LocalDateTime.class), any(LocalDateTime.class));
+	}
+
+	@Test
+	void testInvalidRequests() {
+		index.loadAll(flights);
+		ConnectionSearchRequest sameAirport = new ConnectionSearchRequest("DEL", "DEL", DAY);
+		assertThrows(IllegalArgumentException.class, () -> service.searchConnectionsService(sameAirport));
+
+		ConnectionSearchRequest inverted = new ConnectionSearchRequest("DEL", "GOI", DAY);
+		inverted.setMinConnectionMinutes(120);
+		inverted.setMaxLayoverMinutes(60);
+		assertThrows(IllegalArgumentException.class, () -> service.searchConnectionsService(inverted));
+	}
+
+	@Test
+	void testUnavailableUntilIndexLoaded() {
+		var response = service.searchConnectionsService(new ConnectionSearchRequest("DEL", "GOI", DAY));
+		assertEquals(503, response.getStatusCode().value());
+		assertNull(response.getBody());
+	}
+}
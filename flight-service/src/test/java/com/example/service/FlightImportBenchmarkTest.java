@@ -0,0 +1,61 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.repository.FlightRepository;
+import com.example.response.FlightImportResponse;
+
+/**
+ * Times a CSV import through the real service and H2. Disabled by default; run with
+ * {@code mvn test -Dtest=FlightImportBenchmarkTest -Dbenchmark=true [-Dbenchmark.flights=100000]}.
+ */
+@DataJpaTest(properties = { "spring.cloud.config.enabled=false",
+		"spring.jpa.properties.hibernate.jdbc.batch_size=500", "spring.jpa.properties.hibernate.order_inserts=true" })
+@ImportAutoConfiguration({ JacksonAutoConfiguration.class, ValidationAutoConfiguration.class })
+@Import({ FlightImportService.class, FlightSearchIndex.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FlightImportBenchmarkTest {
+
+	private static final int FLIGHTS = Integer.getInteger("benchmark.flights", 100_000);
+
+	@Autowired
+	private FlightImportService importService;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Test
+	void benchmarkCsvImport() throws Exception {
+		LocalDateTime departure = LocalDateTime.now().plusDays(30).withNano(0);
+		StringBuilder csv = new StringBuilder("airline,origin,destination,price,departureTime,arrivalTime,totalSeats\n");
+		for (int i = 0; i < FLIGHTS; i++) {
+			LocalDateTime at = departure.plusMinutes(i);
+			csv.append("INDIGO,DEL,BOM,4500,").append(at).append(',').append(at.plusHours(2)).append(",180\n");
+		}
+		byte[] body = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+		long start = System.nanoTime();
+		FlightImportResponse response = importService.importFlights(new ByteArrayInputStream(body), true);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+
+		assertEquals(FLIGHTS, response.getImported());
+		assertEquals(FLIGHTS, flightRepository.count());
+		System.out.printf("imported %d flights in %d ms (%.0f rows/s)%n", FLIGHTS, millis, FLIGHTS * 1000.0 / millis);
+	}
+}
@@ -0,0 +1,138 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+import com.example.response.FlightImportResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+
+class FlightImportServiceTest {
+
+	private static final LocalDateTime DEPARTURE = LocalDateTime.now().plusDays(30).withNano(0);
+
+	private FlightRepository flightRepository;
+	private FlightSearchIndex flightSearchIndex;
+	private FlightImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		flightRepository = mock(FlightRepository.class);
+		flightSearchIndex = mock(FlightSearchIndex.class);
+		importService = new FlightImportService(flightRepository, flightSearchIndex,
+				Validation.buildDefaultValidatorFactory().getValidator(),
+				new ObjectMapper().registerModule(new JavaTimeModule()),
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(EntityManager.class));
+		when(flightRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	private static String csvRow(String airline, String seats) {
+		return String.join(",", airline, "DEL", "BOM", "4500", DEPARTURE.toString(),
+				DEPARTURE.plusHours(2).toString(), seats);
+	}
+
+	private FlightImportResponse run(String body, boolean csv) throws Exception {
+		return importService.importFlights(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), csv);
+	}
+
+	@Test
+	void testCsv_reportsBadRowsByLineAndImportsTheRest() throws Exception {
+		String body = String.join("\n",
+				"airline,origin,destination,price,departureTime,arrivalTime,totalSeats",
+				csvRow("indigo", "180"),
+				csvRow("NOSUCHAIR", "180"),
+				"",
+				csvRow("AIRINDIA", "0"),
+				"AIRINDIA,DEL",
+				csvRow("SPICEJET", "150"));
+
+		FlightImportResponse response = run(body, true);
+
+		assertEquals(2, response.getImported());
+		assertEquals(3, response.getFailed());
+		assertEquals(List.of(3L, 5L, 6L), response.getErrors().stream().map(e -> e.line()).toList());
+		assertTrue(response.getErrors().get(1).message().startsWith("totalSeats"));
+		verify(flightSearchIndex, times(2)).put(any(Flight.class));
+	}
+
+	@Test
+	void testNdjson() throws Exception {
+		String row = """
+				{"airline":"EMIRATES","origin":"DEL","destination":"DXB","price":21000,\
+				"departureTime":"%s","arrivalTime":"%s","totalSeats":300}"""
+				.formatted(DEPARTURE, DEPARTURE.plusHours(4));
+
+		FlightImportResponse response = run(row + "\n{not json}\n", false);
+
+		assertEquals(1, response.getImported());
+		assertEquals(1, response.getFailed());
+		assertEquals(2L, response.getErrors().get(0).line());
+	}
+
+	@Test
+	void testChunksAreInsertedSeparately() throws Exception {
+		String body = IntStream.range(0, FlightImportService.CHUNK_SIZE + 10)
+				.mapToObj(i -> csvRow("INDIGO", "180"))
+				.collect(Collectors.joining("\n"));
+
+		FlightImportResponse response = run(body, true);
+
+		assertEquals(FlightImportService.CHUNK_SIZE + 10, response.getImported());
+		verify(flightRepository, times(2)).saveAll(anyList());
+	}
+
+	@Test
+	void testRowRejectedByTheDatabaseFailsAloneInItsChunk() throws Exception {
+		// stands in for a row the batch insert rejects, such as one breaking a check constraint
+		when(flightRepository.saveAll(argThat((List<Flight> flights) ->
+				flights.stream().anyMatch(flight -> flight.getTotalSeats() == 90))))
+				.thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+		FlightImportResponse response = run(String.join("\n",
+				csvRow("INDIGO", "180"), csvRow("INDIGO", "90"), csvRow("INDIGO", "150")), true);
+
+		assertEquals(2, response.getImported());
+		assertEquals(1, response.getFailed());
+		assertEquals(List.of(2L), response.getErrors().stream().map(e -> e.line()).toList());
+		// the driver's message stays in the server log
+		assertEquals(FlightImportService.ROW_REJECTED, response.getErrors().get(0).message());
+		verify(flightSearchIndex, times(2)).put(any(Flight.class));
+	}
+
+	@Test
+	void testFailedChunkMarksItsRowsAsFailed() throws Exception {
+		when(flightRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("boom"));
+
+		FlightImportResponse response = run(csvRow("INDIGO", "180") + "\n" + csvRow("INDIGO", "90"), true);
+
+		assertEquals(0, response.getImported());
+		assertEquals(2, response.getFailed());
+		verify(flightSearchIndex, never()).put(any(Flight.class));
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+class FlightSearchCacheTest {
+
+	private static final LocalDate DAY = LocalDate.of(2030, 1, 15);
+
+	private FlightRepository flightRepository;
+	private FlightSearchIndex index;
+	private MeterRegistry meterRegistry;
+	private FlightSearchCache cache;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		flightRepository = mock(FlightRepository.class);
+		index = new FlightSearchIndex(flightRepository, mock(EntityManager.class));
+		meterRegistry = new SimpleMeterRegistry();
+		ObjectProvider<MeterRegistry> registryProvider = mock(ObjectProvider.class);
+		doAnswer(invocation -> {
+			invocation.<Consumer<MeterRegistry>>getArgument(0).accept(meterRegistry);
+			return null;
+		}).when(registryProvider).ifAvailable(any());
+		cache = new FlightSearchCache(index, flightRepository, registryProvider, 100, Duration.ofMinutes(30));
+	}
+
+	private Flight flight(int id, LocalDateTime departure) {
+		return new Flight(id, Airline.INDIGO, "DEL", "BOM", 4500, departure, departure.plusHours(2), 180, 180);
+	}
+
+	@Test
+	void testIndexReady_answersFromTheIndexWithoutCaching() {
+		index.loadAll(List.of(flight(1, DAY.atTime(6, 0))));
+		assertEquals(180, cache.search("DEL", "BOM", DAY).get(0).getAvailableSeats());
+
+		index.adjustAvailableSeats(1, -5);
+
+		assertEquals(175, cache.search("DEL", "BOM", DAY).get(0).getAvailableSeats());
+		assertEquals(0, cache.size());
+		assertEquals(0.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+		verifyNoInteractions(flightRepository);
+	}
+
+	@Test
+	void testScheduleChange_evictsRouteDay() {
+		Flight first = flight(1, DAY.atTime(6, 0));
+		Flight second = flight(2, DAY.atTime(9, 0));
+		when(flightRepository.findByOriginAndDestinationAndDepartureTimeBetween(anyString(), anyString(),
+				any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of(first), List.of(first, second));
+		assertEquals(1, cache.search("DEL", "BOM", DAY).size());
+		assertEquals(1, cache.search("DEL", "BOM", DAY).size());
+
+		// a flight registered while the index is still loading
+		index.put(second);
+
+		assertEquals(2, cache.search("DEL", "BOM", DAY).size());
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+		assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+	}
+
+	@Test
+	void testBeforeIndexLoads_readsDatabaseOnceAndTracksSeats() {
+		when(flightRepository.findByOriginAndDestinationAndDepartureTimeBetween(anyString(), anyString(),
+				any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of(flight(7, DAY.atTime(6, 0))));
+
+		cache.search("DEL", "BOM", DAY);
+		index.adjustAvailableSeats(7, -1);
+		List<Flight> result = cache.search("DEL", "BOM", DAY);
+
+		assertEquals(179, result.get(0).getAvailableSeats());
+		verify(flightRepository, times(1)).findByOriginAndDestinationAndDepartureTimeBetween(anyString(), anyString(),
+				any(LocalDateTime.class), any(LocalDateTime.class));
+
+		// once the index has loaded, the entries it replaces are dropped
+		index.loadAll(List.of(flight(7, DAY.atTime(6, 0))));
+		assertEquals(179, cache.search("DEL", "BOM", DAY).get(0).getAvailableSeats());
+		assertEquals(0, cache.size());
+	}
+}
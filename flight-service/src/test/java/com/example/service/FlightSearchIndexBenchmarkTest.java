@@ -0,0 +1,135 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compares route/day search through {@link FlightSearchIndex} with the repository query it replaces.
+ * Disabled by default; run with
+ * {@code mvn test -Dtest=FlightSearchIndexBenchmarkTest -Dbenchmark=true [-Dbenchmark.flights=1000000]}.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FlightSearchIndexBenchmarkTest {
+
+	private static final int FLIGHTS = Integer.getInteger("benchmark.flights", 1_000_000);
+	private static final int QUERIES = 5_000;
+	private static final String[] AIRPORTS = { "DEL", "BOM", "BLR", "HYD", "MAA", "CCU", "GOI", "PNQ", "AMD", "COK",
+			"JAI", "LKO", "IXC", "GAU", "PAT", "BBI", "IXB", "SXR", "TRV", "VNS" };
+	private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(1);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void benchmarkRouteDaySearch() {
+		List<Flight> flights = generate(FLIGHTS);
+		insert(flights);
+
+		FlightSearchIndex index = new FlightSearchIndex(flightRepository, entityManager);
+		long loadStart = System.nanoTime();
+		index.loadAll(flights);
+		long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+
+		Random random = new Random(7);
+		List<Flight> probes = new ArrayList<>(QUERIES);
+		for (int i = 0; i < QUERIES; i++) {
+			probes.add(flights.get(random.nextInt(flights.size())));
+		}
+
+		runRepository(probes.subList(0, 500));
+		runIndex(index, probes.subList(0, 500));
+
+		long repoNanos = runRepository(probes);
+		long indexNanos = runIndex(index, probes);
+
+		for (Flight probe : probes.subList(0, 100)) {
+			LocalDate day = probe.getDepartureTime().toLocalDate();
+			assertEquals(
+					flightRepository.findByOriginAndDestinationAndDepartureTimeBetween(probe.getOrigin(),
+							probe.getDestination(), day.atStartOfDay(), day.atTime(23, 59, 59)).size(),
+					index.search(probe.getOrigin(), probe.getDestination(), day).size());
+		}
+
+		System.out.printf("flights=%d indexLoad=%d ms%n", FLIGHTS, loadMillis);
+		System.out.printf("repository: %.1f us/query, %.0f queries/s%n", repoNanos / 1_000.0 / QUERIES,
+				QUERIES * 1e9 / repoNanos);
+		System.out.printf("index     : %.1f us/query, %.0f queries/s%n", indexNanos / 1_000.0 / QUERIES,
+				QUERIES * 1e9 / indexNanos);
+	}
+
+	private long runRepository(List<Flight> probes) {
+		long start = System.nanoTime();
+		for (Flight probe : probes) {
+			LocalDate day = probe.getDepartureTime().toLocalDate();
+			flightRepository.findByOriginAndDestinationAndDepartureTimeBetween(probe.getOrigin(),
+					probe.getDestination(), day.atStartOfDay(), day.atTime(23, 59, 59));
+		}
+		return System.nanoTime() - start;
+	}
+
+	private long runIndex(FlightSearchIndex index, List<Flight> probes) {
+		long start = System.nanoTime();
+		for (Flight probe : probes) {
+			index.search(probe.getOrigin(), probe.getDestination(), probe.getDepartureTime().toLocalDate());
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static List<Flight> generate(int count) {
+		Random random = new Random(42);
+		Airline[] airlines = Airline.values();
+		List<Flight> flights = new ArrayList<>(count);
+		for (int id = 1; id <= count; id++) {
+			int from = random.nextInt(AIRPORTS.length);
+			int to = (from + 1 + random.nextInt(AIRPORTS.length - 1)) % AIRPORTS.length;
+			LocalDateTime departure = FIRST_DAY.plusDays(random.nextInt(365)).atTime(random.nextInt(24),
+					random.nextInt(12) * 5);
+			flights.add(new Flight(id, airlines[random.nextInt(airlines.length)], AIRPORTS[from], AIRPORTS[to],
+					2000 + random.nextInt(8000), departure, departure.plusMinutes(60 + random.nextInt(180)), 180, 180));
+		}
+		return flights;
+	}
+
+	private void insert(List<Flight> flights) {
+		jdbcTemplate.batchUpdate("""
+				insert into flight (flight_id, airline, origin, destination, price, departure_time, arrival_time,
+				                    total_seats, available_seats)
+				values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+				""", flights, 5_000, (ps, flight) -> {
+			ps.setInt(1, flight.getFlightId());
+			ps.setInt(2, flight.getAirline().ordinal());
+			ps.setString(3, flight.getOrigin());
+			ps.setString(4, flight.getDestination());
+			ps.setDouble(5, flight.getPrice());
+			ps.setTimestamp(6, Timestamp.valueOf(flight.getDepartureTime()));
+			ps.setTimestamp(7, Timestamp.valueOf(flight.getArrivalTime()));
+			ps.setInt(8, flight.getTotalSeats());
+			ps.setInt(9, flight.getAvailableSeats());
+		});
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+
+import jakarta.persistence.EntityManager;
+
+class FlightSearchIndexTest {
+
+	private static final LocalDate DAY = LocalDate.of(2030, 1, 15);
+
+	private FlightRepository flightRepository;
+	private FlightSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		flightRepository = mock(FlightRepository.class);
+		index = new FlightSearchIndex(flightRepository, mock(EntityManager.class));
+	}
+
+	private Flight flight(int id, String origin, String destination, LocalDateTime departure) {
+		return new Flight(id, Airline.INDIGO, origin, destination, 4500, departure, departure.plusHours(2), 180, 180);
+	}
+
+	@Test
+	void testSearch_returnsRouteDaySortedByDeparture() {
+		index.loadAll(List.of(
+				flight(1, "DEL", "BOM", DAY.atTime(18, 0)),
+				flight(2, "DEL", "BOM", DAY.atTime(6, 0)),
+				flight(3, "DEL", "BOM", DAY.plusDays(1).atTime(6, 0)),
+				flight(4, "DEL", "HYD", DAY.atTime(9, 0))));
+
+		List<Flight> result = index.search("DEL", "BOM", DAY);
+
+		assertTrue(index.isReady());
+		assertEquals(2, result.size());
+		assertEquals(2, result.get(0).getFlightId());
+		assertEquals(1, result.get(1).getFlightId());
+	}
+
+	@Test
+	void testPut_movesFlightWhenDepartureChanges() {
+		Flight flight = flight(1, "DEL", "BOM", DAY.atTime(6, 0));
+		index.put(flight);
+
+		flight.setDepartureTime(DAY.plusDays(2).atTime(6, 0));
+		index.put(flight);
+
+		assertTrue(index.search("DEL", "BOM", DAY).isEmpty());
+		assertEquals(1, index.search("DEL", "BOM", DAY.plusDays(2)).size());
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void testSearch_returnsCopies() {
+		Flight flight = flight(1, "DEL", "BOM", DAY.atTime(6, 0));
+		index.put(flight);
+
+		Flight found = index.search("DEL", "BOM", DAY).get(0);
+		found.setAvailableSeats(0);
+
+		assertNotSame(flight, found);
+		assertEquals(180, index.search("DEL", "BOM", DAY).get(0).getAvailableSeats());
+	}
+
+	@Test
+	void testRemove() {
+		index.put(flight(1, "DEL", "BOM", DAY.atTime(6, 0)));
+
+		index.remove(1);
+		index.remove(42);
+
+		assertTrue(index.search("DEL", "BOM", DAY).isEmpty());
+		assertEquals(0, index.size());
+		assertFalse(index.isReady());
+	}
+
+	@Test
+	void testPut_keepsTheLiveSeatCount() {
+		Flight flight = flight(1, "DEL", "BOM", DAY.atTime(6, 0));
+		index.put(flight);
+		index.adjustAvailableSeats(1, -3);
+
+		// an older read of the same row, as a re-materialized schedule would hand back
+		index.put(flight);
+
+		assertEquals(177, index.search("DEL", "BOM", DAY).get(0).getAvailableSeats());
+	}
+
+	@Test
+	void testLoad_keepsSeatChangesCommittedDuringTheScan() {
+		Flight first = flight(1, "DEL", "BOM", DAY.atTime(6, 0));
+		Flight second = flight(2, "DEL", "BOM", DAY.atTime(9, 0));
+		when(flightRepository.streamAllOrdered()).thenAnswer(invocation -> {
+			// a booking on a flight the scan has not reached yet
+			index.adjustAvailableSeats(2, -4);
+			return Stream.of(first, second).peek(flight -> {
+				if (flight.getFlightId() == 2) {
+					// and one on a flight it has already indexed
+					index.adjustAvailableSeats(1, -1);
+				}
+			});
+		});
+
+		index.load();
+
+		List<Flight> result = index.search("DEL", "BOM", DAY);
+		assertTrue(index.isReady());
+		assertEquals(179, result.get(0).getAvailableSeats());
+		assertEquals(176, result.get(1).getAvailableSeats());
+
+		// once loaded, changes to flights that are not indexed are not kept around
+		index.adjustAvailableSeats(99, -1);
+		index.put(flight(99, "DEL", "BOM", DAY.atTime(12, 0)));
+		assertEquals(180, index.search("DEL", "BOM", DAY).get(2).getAvailableSeats());
+	}
+}
@@ -0,0 +1,122 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+
+/**
+ * 200 concurrent bookers against one flight through the real transactional service and database.
+ * Every booker runs in its own transaction, so the test itself must not hold one.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Import({ FlightService.class, FlightSearchIndex.class, FlightSearchCache.class, ScheduleService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlightSeatContentionTest {
+
+	private static final int BOOKERS = 200;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@AfterEach
+	void tearDown() {
+		flightRepository.deleteAll();
+	}
+
+	private int createFlight(int seats) {
+		LocalDateTime departure = LocalDateTime.now().plusDays(10);
+		Flight flight = new Flight(0, Airline.INDIGO, "DEL", "BOM", 4500, departure, departure.plusHours(2), seats,
+				seats);
+		return flightRepository.save(flight).getFlightId();
+	}
+
+	@Test
+	void testFlashSale_neverOversells() throws Exception {
+		int flightId = createFlight(150);
+
+		AtomicInteger booked = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		long nanos = runConcurrently(BOOKERS, 1, () -> {
+			try {
+				flightService.reserveSeats(flightId, 1);
+				booked.incrementAndGet();
+			} catch (IllegalStateException ex) {
+				rejected.incrementAndGet();
+			}
+		});
+
+		assertEquals(150, booked.get());
+		assertEquals(50, rejected.get());
+		assertEquals(0, flightRepository.findById(flightId).orElseThrow().getAvailableSeats());
+		System.out.printf("flash sale: %d bookers, %d booked, %d rejected in %d ms%n", BOOKERS, booked.get(),
+				rejected.get(), TimeUnit.NANOSECONDS.toMillis(nanos));
+	}
+
+	@Test
+	void testSustainedContention_seatCountMatchesSuccessfulBookings() throws Exception {
+		int seats = 1_500;
+		int perBooker = 10;
+		int flightId = createFlight(seats);
+
+		AtomicInteger booked = new AtomicInteger();
+		long nanos = runConcurrently(BOOKERS, perBooker, () -> {
+			try {
+				flightService.reserveSeats(flightId, 1);
+				booked.incrementAndGet();
+			} catch (IllegalStateException ex) {
+				// sold out
+			}
+		});
+
+		assertEquals(seats, booked.get());
+		assertEquals(0, flightRepository.findById(flightId).orElseThrow().getAvailableSeats());
+		System.out.printf("sustained: %d attempts on one flight, %.0f reservations/s%n", BOOKERS * perBooker,
+				BOOKERS * perBooker * 1e9 / nanos);
+	}
+
+	private static long runConcurrently(int threads, int iterations, Runnable booking) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int j = 0; j < iterations; j++) {
+					booking.run();
+				}
+				return null;
+			}));
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(2, TimeUnit.MINUTES);
+		}
+		long elapsed = System.nanoTime() - begin;
+		pool.shutdown();
+		return elapsed;
+	}
+}
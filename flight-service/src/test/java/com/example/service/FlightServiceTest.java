@@ -1,28 +1,48 @@
 package com.example.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import com.example.exception.ResourceNotFoundException;
 import com.example.model.Airline;
 import com.example.model.Flight;
 import com.example.repository.FlightRepository;
+import com.example.request.FareCalendarRequest;
 import com.example.request.FlightRequest;
 import com.example.request.SearchRequest;
+import com.example.request.SeatAdjustmentRequest;
+import com.example.response.FareCalendarDayResponse;
+import com.example.response.FlightPageResponse;
+
+import jakarta.persistence.EntityManager;
 
 @ExtendWith(MockitoExtension.class)
 class FlightServiceTest {
@@ -30,6 +50,18 @@ class FlightServiceTest {
 	@Mock
 	private FlightRepository flightRepository;
 
+	@Mock
+	private FlightSearchIndex flightSearchIndex;
+
+	@Mock
+	private FlightSearchCache flightSearchCache;
+
+	@Mock
+	private ScheduleService scheduleService;
+
+	@Mock
+	private EntityManager entityManager;
+
 	@InjectMocks
 	private FlightService flightService;
 
@@ -69,6 +101,7 @@ class FlightServiceTest {
 		var response = flightService.registerFlightByIDService(req);
 		assertEquals(201, response.getStatusCode().value());
 		assertEquals(1, response.getBody());
+		verify(flightSearchIndex).put(flight);
 	}
 
 	@Test
@@ -104,6 +137,26 @@ class FlightServiceTest {
 		assertEquals(flight2.getFlightId(), flights.get(1).getFlightId());
 	}
 
+	@Test
+	void testGetFlightsByIds_singleLookupForDistinctIds() {
+		Flight flight = createFlight();
+		when(flightRepository.findAllById(new LinkedHashSet<>(List.of(1, 2)))).thenReturn(List.of(flight));
+
+		var response = flightService.getFlightsByIdsService(List.of(1, 2, 1));
+
+		assertEquals(List.of(flight), response.getBody());
+		verify(flightRepository).findAllById(new LinkedHashSet<>(List.of(1, 2)));
+	}
+
+	@Test
+	void testGetFlightsByIds_rejectsEmptyAndOversized() {
+		List<Integer> tooMany = IntStream.rangeClosed(1, FlightService.MAX_BATCH_IDS + 1).boxed().toList();
+
+		assertThrows(IllegalArgumentException.class, () -> flightService.getFlightsByIdsService(List.of()));
+		assertThrows(IllegalArgumentException.class, () -> flightService.getFlightsByIdsService(tooMany));
+		verify(flightRepository, never()).findAllById(any());
+	}
+
 	@Test
 	void testGetByOriginAndDestination() {
 		Flight flight = createFlight();
@@ -118,6 +171,180 @@ class FlightServiceTest {
 		assertEquals(1, response.getBody().size());
 		assertEquals("DEL", response.getBody().get(0).getOrigin());
 	}
+
+	@Test
+	void testGetByOriginDestinationDateTime_servedFromSearchCache() {
+		Flight flight = createFlight();
+		SearchRequest req = new SearchRequest("DEL", "HYD", flight.getDepartureTime());
+		LocalDate day = flight.getDepartureTime().toLocalDate();
+
+		when(flightSearchCache.search("DEL", "HYD", day)).thenReturn(List.of(flight));
+		when(scheduleService.withScheduled(List.of(flight), "DEL", "HYD", day)).thenReturn(List.of(flight));
+
+		var response = flightService.getByOriginAndDestinationAndDepartureDateTimeService(req);
+		assertEquals(200, response.getStatusCode().value());
+		assertEquals(1, response.getBody().size());
+		verify(flightRepository, never()).findByOriginAndDestinationAndDepartureTimeBetween(anyString(), anyString(),
+				any(LocalDateTime.class), any(LocalDateTime.class));
+	}
+
+	@Test
+	void testReserveSeats_conditionalUpdateAdjustsIndex() {
+		when(flightRepository.decrementAvailableSeats(1, 2)).thenReturn(1);
+
+		flightService.reserveSeats(1, 2);
+
+		verify(flightRepository, never()).save(any(Flight.class));
+		verify(flightSearchIndex).adjustAvailableSeats(1, -2);
+	}
+
+	@Test
+	void testReserveSeats_notEnoughSeats() {
+		when(flightRepository.decrementAvailableSeats(1, 5)).thenReturn(0);
+		when(flightRepository.existsById(1)).thenReturn(true);
+
+		IllegalStateException ex = assertThrows(IllegalStateException.class, () -> flightService.reserveSeats(1, 5));
+		assertEquals("Not enough seats available", ex.getMessage());
+		verify(flightSearchIndex, never()).adjustAvailableSeats(anyInt(), anyInt());
+	}
+
+	@Test
+	void testReserveSeats_flightNotFound() {
+		when(flightRepository.decrementAvailableSeats(9, 1)).thenReturn(0);
+		when(flightRepository.existsById(9)).thenReturn(false);
+
+		IllegalStateException ex = assertThrows(IllegalStateException.class, () -> flightService.reserveSeats(9, 1));
+		assertEquals("Flight not found", ex.getMessage());
+	}
+
+	@Test
+	void testReleaseSeats_cannotExceedTotal() {
+		when(flightRepository.incrementAvailableSeats(1, 3)).thenReturn(0);
+		when(flightRepository.existsById(1)).thenReturn(true);
+
+		assertThrows(IllegalStateException.class, () -> flightService.releaseSeats(1, 3));
+		assertThrows(IllegalArgumentException.class, () -> flightService.releaseSeats(1, -3));
+	}
+
+	@Test
+	void testReserveSeatsBatch_mergesAndLocksInFlightOrder() {
+		when(flightRepository.decrementAvailableSeats(anyInt(), anyInt())).thenReturn(1);
+
+		flightService.reserveSeats(List.of(new SeatAdjustmentRequest(7, 1), new SeatAdjustmentRequest(3, 2),
+				new SeatAdjustmentRequest(7, 2)));
+
+		InOrder order = inOrder(flightRepository);
+		order.verify(flightRepository).decrementAvailableSeats(3, 2);
+		order.verify(flightRepository).decrementAvailableSeats(7, 3);
+	}
+
+	@Test
+	void testReserveSeatsBatch_failsWhenAnyFlightIsShort() {
+		when(flightRepository.decrementAvailableSeats(3, 2)).thenReturn(1);
+		when(flightRepository.decrementAvailableSeats(7, 1)).thenReturn(0);
+		when(flightRepository.existsById(7)).thenReturn(true);
+
+		List<SeatAdjustmentRequest> batch = List.of(new SeatAdjustmentRequest(3, 2), new SeatAdjustmentRequest(7, 1));
+		assertThrows(IllegalStateException.class, () -> flightService.reserveSeats(batch));
+		assertThrows(IllegalArgumentException.class, () -> flightService.reserveSeats(List.of()));
+	}
+
+	@Test
+	void testGetFlightsPage_cursorContinuesAfterLastRow() {
+		Flight flight1 = createFlight();
+		Flight flight2 = createFlight();
+		flight2.setFlightId(2);
+
+		when(flightRepository.findAllByOrderByDepartureTimeAscFlightIdAsc(PageRequest.of(0, 2)))
+				.thenReturn(List.of(flight1, flight2));
+
+		FlightPageResponse first = flightService.getFlightsPage(null, 2);
+		assertEquals(2, first.getFlights().size());
+		assertNotNull(first.getNextCursor());
+
+		when(flightRepository.findPageAfter(flight2.getDepartureTime(), 2, PageRequest.of(0, 2)))
+				.thenReturn(List.of());
+
+		FlightPageResponse second = flightService.getFlightsPage(first.getNextCursor(), 2);
+		assertEquals(0, second.getFlights().size());
+		assertNull(second.getNextCursor());
+	}
+
+	@Test
+	void testGetFlightsPage_rejectsBadInput() {
+		assertThrows(IllegalArgumentException.class, () -> flightService.getFlightsPage("not-a-cursor", 10));
+		assertThrows(IllegalArgumentException.class, () -> flightService.getFlightsPage(null, 0));
+		assertThrows(IllegalArgumentException.class,
+				() -> flightService.getFlightsPage(null, FlightService.MAX_PAGE_SIZE + 1));
+	}
+
+	@Test
+	void testStreamAllFlights_detachesEachRow() {
+		Flight flight1 = createFlight();
+		Flight flight2 = createFlight();
+		when(flightRepository.streamAllOrdered()).thenReturn(Stream.of(flight1, flight2));
+
+		List<Flight> seen = new ArrayList<>();
+		flightService.streamAllFlights(seen::add);
+
+		assertEquals(2, seen.size());
+		verify(entityManager).detach(flight1);
+		verify(entityManager).detach(flight2);
+	}
+
+	@Test
+	void testGetFareCalendar_fromIndexCoversEveryDay() {
+		LocalDate day = LocalDate.of(2030, 5, 10);
+		Flight cheap = createFlight();
+		cheap.setPrice(3000);
+		Flight soldOut = createFlight();
+		soldOut.setPrice(1000);
+		soldOut.setAvailableSeats(0);
+
+		when(flightSearchIndex.isReady()).thenReturn(true);
+		when(flightSearchCache.search(anyString(), anyString(), any(LocalDate.class))).thenReturn(List.of());
+		when(flightSearchCache.search("DEL", "HYD", day)).thenReturn(List.of(cheap, soldOut, createFlight()));
+		when(scheduleService.withScheduled(any(), anyString(), anyString(), any(LocalDate.class)))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+
+		List<FareCalendarDayResponse> calendar = flightService
+				.getFareCalendarService(new FareCalendarRequest("DEL", "HYD", day, 2)).getBody();
+
+		assertEquals(5, calendar.size());
+		assertEquals(day.minusDays(2), calendar.get(0).getDate());
+		assertNull(calendar.get(0).getLowestPrice());
+		assertEquals(3000, calendar.get(2).getLowestPrice());
+		assertEquals(200, calendar.get(2).getAvailableSeats());
+		assertEquals(2, calendar.get(2).getFlights());
+		verify(flightRepository, never()).findFareCalendar(anyString(), anyString(), any(LocalDateTime.class),
+				any(LocalDateTime.class));
+	}
+
+	@Test
+	void testGetFareCalendar_singleGroupedQueryBeforeIndexLoads() {
+		LocalDate day = LocalDate.of(2030, 5, 10);
+		when(flightSearchIndex.isReady()).thenReturn(false);
+		when(flightRepository.findFareCalendar("DEL", "HYD", day.minusDays(1).atStartOfDay(),
+				day.plusDays(2).atStartOfDay()))
+				.thenReturn(List.of(new FareCalendarDayResponse(day, 4200.0, 12, 1)));
+		when(scheduleService.withScheduled(any(), anyString(), anyString(), any(LocalDate.class)))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+		// the last day lies past the schedule horizon: its departure comes from a template
+		Flight scheduled = createFlight();
+		scheduled.setPrice(3900);
+		when(flightSearchCache.search("DEL", "HYD", day.plusDays(1))).thenReturn(List.of());
+		when(scheduleService.withScheduled(List.of(), "DEL", "HYD", day.plusDays(1))).thenReturn(List.of(scheduled));
+
+		List<FareCalendarDayResponse> calendar = flightService
+				.getFareCalendarService(new FareCalendarRequest("DEL", "HYD", day, 1)).getBody();
+
+		assertEquals(3, calendar.size());
+		assertEquals(4200.0, calendar.get(1).getLowestPrice());
+		assertEquals(0, calendar.get(0).getFlights());
+		assertEquals(3900.0, calendar.get(2).getLowestPrice());
+		assertEquals(1, calendar.get(2).getFlights());
+	}
+
 	void testDelete_Success() throws Exception {
 		Flight flight = createFlight();
 
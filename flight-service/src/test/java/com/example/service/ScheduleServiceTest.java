@@ -0,0 +1,145 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.model.Airline;
+import com.example.model.Flight;
+import com.example.repository.FlightRepository;
+import com.example.repository.ScheduleTemplateRepository;
+import com.example.request.ScheduleTemplateRequest;
+
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Import({ ScheduleService.class, FlightSearchIndex.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScheduleServiceTest {
+
+	// a Monday
+	private static final LocalDate MONDAY = LocalDate.of(2030, 6, 3);
+
+	@Autowired
+	private ScheduleService scheduleService;
+
+	@Autowired
+	private FlightSearchIndex flightSearchIndex;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private ScheduleTemplateRepository scheduleTemplateRepository;
+
+	@BeforeEach
+	void setUp() {
+		// the day before MONDAY, so the default 14-day horizon runs to the second Sunday after it
+		ReflectionTestUtils.setField(scheduleService, "clock",
+				Clock.fixed(MONDAY.minusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+	}
+
+	@AfterEach
+	void tearDown() {
+		// the index and the service are shared by every test in this context
+		flightRepository.findAll().forEach(flight -> flightSearchIndex.remove(flight.getFlightId()));
+		flightRepository.deleteAll();
+		scheduleTemplateRepository.deleteAll();
+	}
+
+	private int weekdayMorningFlight(LocalDate validTo) {
+		ScheduleTemplateRequest req = new ScheduleTemplateRequest();
+		req.setAirline(Airline.AIRINDIA);
+		req.setOrigin("DEL");
+		req.setDestination("BOM");
+		req.setPrice(5200);
+		req.setDepartureTime(LocalTime.of(6, 0));
+		req.setDurationMinutes(130);
+		req.setTotalSeats(180);
+		req.setDaysOfWeek(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+		req.setValidFrom(MONDAY);
+		req.setValidTo(validTo);
+		return scheduleService.registerScheduleTemplateService(req).getBody();
+	}
+
+	@Test
+	void testRegister_writesTheHorizonOnly() {
+		weekdayMorningFlight(null);
+
+		// Mon-Fri of the two weeks the horizon covers, nothing for the years the template runs on
+		List<Flight> flights = flightRepository.findAll();
+		assertEquals(10, flights.size());
+		assertTrue(flights.stream().allMatch(f -> !f.getDepartureTime().toLocalDate().isAfter(MONDAY.plusDays(13))));
+	}
+
+	@Test
+	void testMaterializeHorizon_onlyOperatingDays() {
+		int templateId = weekdayMorningFlight(MONDAY.plusDays(8));
+
+		// Mon-Fri of the first week, then Mon-Tue of the second before validTo
+		List<Flight> flights = flightRepository.findAll();
+		assertEquals(7, flights.size());
+		assertTrue(flights.stream().allMatch(f -> f.getScheduleTemplateId() == templateId));
+		assertTrue(flights.stream().noneMatch(f -> f.getDepartureTime().getDayOfWeek() == DayOfWeek.SATURDAY));
+
+		List<Flight> monday = flightSearchIndex.search("DEL", "BOM", MONDAY);
+		assertEquals(1, monday.size());
+		assertEquals(MONDAY.atTime(6, 0), monday.get(0).getDepartureTime());
+		assertEquals(MONDAY.atTime(8, 10), monday.get(0).getArrivalTime());
+		assertEquals(180, monday.get(0).getAvailableSeats());
+	}
+
+	@Test
+	void testMaterializeHorizon_isIdempotent() {
+		weekdayMorningFlight(null);
+
+		scheduleService.materializeHorizon();
+		scheduleService.materializeHorizon();
+		// a second template gets its own flights, and the existing rows are not written again
+		weekdayMorningFlight(null);
+
+		assertEquals(20, flightRepository.count());
+	}
+
+	@Test
+	void testWithScheduled_projectsPastTheHorizonWithoutWriting() {
+		weekdayMorningFlight(null);
+		long written = flightRepository.count();
+
+		// a Monday a year ahead is answered from the template alone
+		LocalDate farMonday = MONDAY.plusWeeks(52);
+		List<Flight> projected = scheduleService.withScheduled(List.of(), "DEL", "BOM", farMonday);
+		assertEquals(1, projected.size());
+		// never saved, so it has no flight id to book against yet
+		assertEquals(0, projected.get(0).getFlightId());
+		assertEquals(farMonday.atTime(6, 0), projected.get(0).getDepartureTime());
+		assertEquals(written, flightRepository.count());
+
+		// inside the horizon the written flights are the whole answer; nothing for past days or other routes
+		assertTrue(scheduleService.withScheduled(List.of(), "DEL", "BOM", MONDAY).isEmpty());
+		assertTrue(scheduleService.withScheduled(List.of(), "DEL", "BOM", MONDAY.minusDays(7)).isEmpty());
+		assertTrue(scheduleService.withScheduled(List.of(), "DEL", "BOM", farMonday.plusDays(5)).isEmpty());
+		assertTrue(scheduleService.withScheduled(List.of(), "BOM", "DEL", farMonday).isEmpty());
+	}
+
+	@Test
+	void testRegister_rejectsInvertedValidity() {
+		assertThrows(IllegalArgumentException.class, () -> weekdayMorningFlight(MONDAY.minusDays(1)));
+	}
+}
@@ -20,6 +20,11 @@ public class GlobalExceptionHandler {
 		return error(HttpStatus.NOT_FOUND, ex.getMessage());
 	}
 
+	@ExceptionHandler(IllegalArgumentException.class)
+	public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException ex) {
+		return error(HttpStatus.BAD_REQUEST, ex.getMessage());
+	}
+
 	@ExceptionHandler(MethodArgumentNotValidException.class)
 	public ResponseEntity<Map<String, String>> validation(MethodArgumentNotValidException ex) {
 
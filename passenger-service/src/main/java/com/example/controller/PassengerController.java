@@ -1,5 +1,8 @@
 package com.example.controller;
 
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -48,6 +51,13 @@ public class PassengerController {
 		return passengerService.getPassengerDetailsService(id);
 	}
 
+	// batch lookup for internal callers
+	@PostMapping("getByPassengerIds")
+	public ResponseEntity<Map<Integer, PassengerDetailsResponse>> getPassengerDetailsByIds(
+			@RequestBody List<Integer> ids) {
+		return passengerService.getPassengerDetailsByIdsService(ids);
+	}
+
 	// get id by email
 	@GetMapping("getPassengerIdByEmail/{email}")
 	public ResponseEntity<Integer> getIdByEmail(@PathVariable String email) throws ResourceNotFoundException {
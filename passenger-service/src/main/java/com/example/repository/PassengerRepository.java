@@ -1,8 +1,12 @@
 package com.example.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.model.Passenger;
@@ -11,4 +15,8 @@ import com.example.model.Passenger;
 public interface PassengerRepository extends JpaRepository<Passenger, Integer> {
 	Optional<Passenger> findByEmail(String email);
 
+	// addresses come back in the same query instead of one select per passenger
+	@Query("SELECT p FROM Passenger p LEFT JOIN FETCH p.address WHERE p.passengerId IN :ids")
+	List<Passenger> findAllWithAddressByIdIn(@Param("ids") Collection<Integer> ids);
+
 }
@@ -1,5 +1,11 @@
 package com.example.service;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -16,6 +22,8 @@ public class PassengerService {
 
 	private final PassengerRepository passengerRepository;
 
+	public static final int MAX_BATCH_IDS = 500;
+
 	PassengerService(PassengerRepository passengerRepository) {
 		this.passengerRepository = passengerRepository;
 	}
@@ -24,11 +32,34 @@ public class PassengerService {
 			throws ResourceNotFoundException {
 		Passenger passenger = passengerRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Passenger not found"));
-		PassengerDetailsResponse passengerDetails = PassengerDetailsResponse.builder().email(passenger.getEmail())
+		return new ResponseEntity<>(toDetails(passenger), HttpStatus.OK);
+
+	}
+
+	// keyed by passenger id; ids that do not exist are left out
+	public ResponseEntity<Map<Integer, PassengerDetailsResponse>> getPassengerDetailsByIdsService(List<Integer> ids) {
+		if (ids == null || ids.isEmpty()) {
+			throw new IllegalArgumentException("At least one passenger id is required");
+		}
+		Set<Integer> distinct = new LinkedHashSet<>(ids);
+		if (distinct.contains(null)) {
+			throw new IllegalArgumentException("Passenger id is required");
+		}
+		if (distinct.size() > MAX_BATCH_IDS) {
+			throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " passenger ids per request");
+		}
+
+		Map<Integer, PassengerDetailsResponse> details = new LinkedHashMap<>();
+		for (Passenger passenger : passengerRepository.findAllWithAddressByIdIn(distinct)) {
+			details.put(passenger.getPassengerId(), toDetails(passenger));
+		}
+		return new ResponseEntity<>(details, HttpStatus.OK);
+	}
+
+	private static PassengerDetailsResponse toDetails(Passenger passenger) {
+		return PassengerDetailsResponse.builder().email(passenger.getEmail())
 				.phoneNum(passenger.getPhoneNumber()).name(passenger.getName()).city(passenger.getAddress().getCity())
 				.state(passenger.getAddress().getState()).houseNo(passenger.getAddress().getHouseNo()).build();
-		return new ResponseEntity<>(passengerDetails, HttpStatus.OK);
-
 	}
     public ResponseEntity<Integer> createOrGetPassengerService(PassengerDetailsRequest req) {
 
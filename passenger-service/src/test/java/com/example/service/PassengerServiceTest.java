@@ -5,6 +5,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -112,4 +115,27 @@ class PassengerServiceTest {
 		Mockito.verify(passengerRepository, times(1)).deleteById(1);
 	}
 
+	@Test
+	void testGetPassengerDetailsByIdsService_oneQueryForDistinctIds() {
+		Passenger alice = Passenger.builder().passengerId(1).name("Alice").email("alice@gmail.com")
+				.address(Address.builder().city("Hyd").build()).build();
+		Passenger bob = Passenger.builder().passengerId(2).name("Bob").email("bob@gmail.com")
+				.address(Address.builder().city("Pune").build()).build();
+
+		Mockito.when(passengerRepository.findAllWithAddressByIdIn(new LinkedHashSet<>(List.of(1, 2, 3))))
+				.thenReturn(List.of(alice, bob));
+
+		Map<Integer, PassengerDetailsResponse> details = passengerService
+				.getPassengerDetailsByIdsService(List.of(1, 2, 1, 3)).getBody();
+
+		assertEquals(2, details.size());
+		assertEquals("Pune", details.get(2).getCity());
+		Mockito.verify(passengerRepository, times(1)).findAllWithAddressByIdIn(any());
+	}
+
+	@Test
+	void testGetPassengerDetailsByIdsService_rejectsEmpty() {
+		assertThrows(IllegalArgumentException.class, () -> passengerService.getPassengerDetailsByIdsService(List.of()));
+	}
+
 }
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.example.exception.ResourceNotFoundException;
 import com.example.exception.SeatAlreadyBookedException;
+import com.example.exception.ServiceBusyException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -42,4 +43,10 @@ public class GlobalExceptionHandler {
 		error.put("error", ex.getMessage());
 		return ResponseEntity.status(409).body(error); // 409 = Conflict
 	}
+
+	@ExceptionHandler(ServiceBusyException.class)
+	public ResponseEntity<Map<String, String>> onBusy(ServiceBusyException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1")
+				.body(Map.of("message", ex.getMessage()));
+	}
 }
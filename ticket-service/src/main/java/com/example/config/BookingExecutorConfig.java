@@ -0,0 +1,27 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BookingExecutorConfig {
+
+    public static final String BOOKING_EXECUTOR = "bookingExecutor";
+
+    // bounded queue with the default abort policy: a full pipeline turns new bookings away instead of queueing forever
+    @Bean(BOOKING_EXECUTOR)
+    public ThreadPoolTaskExecutor bookingExecutor(
+            @Value("${ticket.async-booking.workers:8}") int workers,
+            @Value("${ticket.async-booking.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("booking-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class EnrichmentExecutorConfig {
+
+    public static final String ENRICHMENT_EXECUTOR = "enrichmentExecutor";
+
+    // bounded on both threads and queue; when full the caller runs the lookup itself instead of piling up
+    @Bean(ENRICHMENT_EXECUTOR)
+    public ThreadPoolTaskExecutor enrichmentExecutor(
+            @Value("${ticket.enrichment.pool-size:8}") int poolSize,
+            @Value("${ticket.enrichment.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("enrichment-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+import org.springframework.cloud.openfeign.loadbalancer.RetryableFeignBlockingLoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.feign.ConcurrencyLimitCapability;
+import com.example.feign.PooledFeignClient;
+
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class FeignTransportConfig {
+
+    // replaces Spring Cloud's default client, so it makes the same load-balancer and retry choice around the pooled transport
+    @Bean
+    public Client feignClient(
+            LoadBalancerClient loadBalancerClient,
+            LoadBalancerClientFactory loadBalancerClientFactory,
+            ObjectProvider<LoadBalancedRetryFactory> retryFactory,
+            List<LoadBalancerFeignRequestTransformer> transformers,
+            MeterRegistry meterRegistry,
+            @Value("${spring.cloud.loadbalancer.retry.enabled:true}") boolean retryEnabled,
+            @Value("${ticket.feign.max-idle-connections:20}") int maxIdleConnections,
+            @Value("${ticket.feign.keep-alive:5m}") Duration keepAlive,
+            @Value("${ticket.feign.h2c-clients:}") List<String> h2cClients) {
+
+        Client transport = new PooledFeignClient(maxIdleConnections, keepAlive, Set.copyOf(h2cClients), meterRegistry);
+
+        LoadBalancedRetryFactory retry = retryEnabled ? retryFactory.getIfAvailable() : null;
+        if (retry != null) {
+            return new RetryableFeignBlockingLoadBalancerClient(transport, loadBalancerClient, retry,
+                    loadBalancerClientFactory, transformers);
+        }
+        return new FeignBlockingLoadBalancerClient(transport, loadBalancerClient, loadBalancerClientFactory, transformers);
+    }
+
+    // Spring Cloud OpenFeign applies Capability beans to every client; the WebClients share its limiters
+    @Bean
+    public ConcurrencyLimitCapability concurrencyLimitCapability(
+            MeterRegistry meterRegistry,
+            @Value("${ticket.feign.limit.initial:20}") int initialLimit,
+            @Value("${ticket.feign.limit.min:4}") int minLimit,
+            @Value("${ticket.feign.limit.max:200}") int maxLimit,
+            @Value("${ticket.feign.limit.tolerance:1.5}") double tolerance) {
+
+        return new ConcurrencyLimitCapability(initialLimit, minLimit, maxLimit, tolerance, meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SeatStreamExecutorConfig {
+
+    public static final String SEAT_STREAM_EXECUTOR = "seatStreamExecutor";
+
+    // each subscriber has at most one drain queued, so ticket.seat-stream.max-subscribers is enough;
+    // a drain that is still rejected disconnects its subscriber
+    @Bean(SEAT_STREAM_EXECUTOR)
+    public ThreadPoolTaskExecutor seatStreamExecutor(
+            @Value("${ticket.seat-stream.workers:4}") int workers,
+            @Value("${ticket.seat-stream.max-subscribers:10000}") int maxSubscribers) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(maxSubscribers);
+        executor.setThreadNamePrefix("seat-stream-");
+        return executor;
+    }
+}
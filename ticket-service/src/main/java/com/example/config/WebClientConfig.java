@@ -0,0 +1,73 @@
+package com.example.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.feign.ConcurrencyLimitCapability;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class WebClientConfig {
+
+    public static final String FLIGHT_WEB_CLIENT = "flightWebClient";
+    public static final String PASSENGER_WEB_CLIENT = "passengerWebClient";
+
+    @Bean(FLIGHT_WEB_CLIENT)
+    public WebClient flightWebClient(
+            WebClient.Builder builder,
+            LoadBalancedExchangeFilterFunction loadBalancer,
+            ConcurrencyLimitCapability concurrencyLimits,
+            @Value("${ticket.reactive.max-connections:500}") int maxConnections,
+            @Value("${ticket.reactive.pending-acquire-max:10000}") int pendingAcquireMax,
+            @Value("${spring.cloud.openfeign.client.config.default.connect-timeout:2000}") int connectTimeoutMillis) {
+
+        return webClient(builder, loadBalancer, concurrencyLimits, "flight-service", maxConnections, pendingAcquireMax,
+                connectTimeoutMillis);
+    }
+
+    @Bean(PASSENGER_WEB_CLIENT)
+    public WebClient passengerWebClient(
+            WebClient.Builder builder,
+            LoadBalancedExchangeFilterFunction loadBalancer,
+            ConcurrencyLimitCapability concurrencyLimits,
+            @Value("${ticket.reactive.max-connections:500}") int maxConnections,
+            @Value("${ticket.reactive.pending-acquire-max:10000}") int pendingAcquireMax,
+            @Value("${spring.cloud.openfeign.client.config.default.connect-timeout:2000}") int connectTimeoutMillis) {
+
+        return webClient(builder, loadBalancer, concurrencyLimits, "PASSENGER-SERVICE", maxConnections, pendingAcquireMax,
+                connectTimeoutMillis);
+    }
+
+    // a connection pool per service, as the Feign clients have; requests over the limit wait without holding a thread
+    private static WebClient webClient(WebClient.Builder builder, LoadBalancedExchangeFilterFunction loadBalancer,
+            ConcurrencyLimitCapability concurrencyLimits, String serviceId, int maxConnections, int pendingAcquireMax,
+            int connectTimeoutMillis) {
+
+        ConnectionProvider connections = ConnectionProvider.builder(serviceId)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .maxIdleTime(Duration.ofMinutes(5))
+                .metrics(true)
+                .build();
+        HttpClient http = HttpClient.create(connections)
+                .compress(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis);
+
+        return builder.clone()
+                .baseUrl("http://" + serviceId)
+                .clientConnector(new ReactorClientHttpConnector(http))
+                // the same limit as the service's Feign client, outside the load balancer as there
+                .filter(concurrencyLimits.exchangeFilter(serviceId))
+                .filter(loadBalancer)
+                .build();
+    }
+}
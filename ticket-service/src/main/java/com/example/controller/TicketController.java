@@ -3,32 +3,63 @@ package com.example.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.exception.ResourceNotFoundException;
 import com.example.request.BookTicketRequest;
+import com.example.request.MultiSegmentBookingRequest;
+import com.example.request.SeatHoldRequest;
+import com.example.response.BookingStatusResponse;
+import com.example.response.FlightDisruptionResponse;
+import com.example.response.SeatHoldResponse;
 import com.example.response.SeatMapResponse;
 import com.example.response.TicketResponse;
+import com.example.service.AsyncBookingService;
+import com.example.service.FlightDisruptionService;
+import com.example.service.ReactiveTicketService;
+import com.example.service.SeatHoldService;
+import com.example.service.SeatMapBroadcaster;
 import com.example.service.TicketService;
 
 import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("ticket")
 public class TicketController {
 
 	private final TicketService ticketService;
+	private final SeatHoldService seatHoldService;
+	private final AsyncBookingService asyncBookingService;
+	private final FlightDisruptionService flightDisruptionService;
+	private final SeatMapBroadcaster seatMapBroadcaster;
+	private final ReactiveTicketService reactiveTicketService;
 
 	@SuppressWarnings("unused")
-	TicketController(@Autowired TicketService ticketService) {
+	TicketController(@Autowired TicketService ticketService, @Autowired SeatHoldService seatHoldService,
+			@Autowired AsyncBookingService asyncBookingService,
+			@Autowired FlightDisruptionService flightDisruptionService,
+			@Autowired SeatMapBroadcaster seatMapBroadcaster,
+			@Autowired ReactiveTicketService reactiveTicketService) {
 		this.ticketService = ticketService;
+		this.seatHoldService = seatHoldService;
+		this.asyncBookingService = asyncBookingService;
+		this.flightDisruptionService = flightDisruptionService;
+		this.seatMapBroadcaster = seatMapBroadcaster;
+		this.reactiveTicketService = reactiveTicketService;
 	}
 
 	@DeleteMapping("cancel/{ticketId}")
@@ -43,6 +74,30 @@ public class TicketController {
 
 	}
 
+	// round trips and multi-city: one pnr per segment, all booked or none
+	@PostMapping("book/segments")
+	public ResponseEntity<List<String>> bookSegments(@Valid @RequestBody MultiSegmentBookingRequest req) {
+		return ticketService.bookSegmentsService(req);
+	}
+
+	// 202 with the pnr; poll book/status/{pnr} for the outcome
+	@PostMapping("book/async")
+	public ResponseEntity<BookingStatusResponse> bookTicketAsync(@Valid @RequestBody BookTicketRequest req) {
+		return asyncBookingService.submitBookingService(req);
+	}
+
+	@GetMapping("book/status/{pnr}")
+	public DeferredResult<ResponseEntity<BookingStatusResponse>> getBookingStatus(@PathVariable String pnr,
+			@RequestParam(defaultValue = "0") long waitSeconds) {
+		return asyncBookingService.getBookingStatusService(pnr, waitSeconds);
+	}
+
+	// admin: cancels every booked ticket on a cancelled or deleted flight
+	@PostMapping("flight/{flightId}/cancel-tickets")
+	public ResponseEntity<FlightDisruptionResponse> cancelFlightTickets(@PathVariable int flightId) {
+		return flightDisruptionService.cancelFlightTicketsService(flightId);
+	}
+
 	@GetMapping("getByPnr/{pnr}")
 	public ResponseEntity<TicketResponse> getByPnr(@PathVariable String pnr) throws ResourceNotFoundException {
 		return ticketService.getByPnrService(pnr);
@@ -55,7 +110,40 @@ public class TicketController {
 	}
 
 	@GetMapping("seat-map/{flightId}")
-	public ResponseEntity<SeatMapResponse> getSeatMap(@PathVariable int flightId) {
-		return ticketService.getSeatMap(flightId);
+	public ResponseEntity<SeatMapResponse> getSeatMap(@PathVariable int flightId,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return ticketService.getSeatMap(flightId, ifNoneMatch);
+	}
+
+	@GetMapping(value = "seat-map/{flightId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamSeatMap(@PathVariable int flightId) {
+		return seatMapBroadcaster.streamSeatMapService(flightId);
+	}
+
+	// same reads without a thread per request: the request thread is released until the Mono completes
+	@GetMapping("reactive/getByPnr/{pnr}")
+	public Mono<ResponseEntity<TicketResponse>> getByPnrReactive(@PathVariable String pnr) {
+		return reactiveTicketService.getByPnr(pnr);
+	}
+
+	@GetMapping("reactive/getTicketsByEmail/{email}")
+	public Mono<ResponseEntity<List<TicketResponse>>> getTicketsByEmailReactive(@PathVariable String email) {
+		return reactiveTicketService.getTicketsByEmail(email);
+	}
+
+	@GetMapping("reactive/seat-map/{flightId}")
+	public Mono<ResponseEntity<SeatMapResponse>> getSeatMapReactive(@PathVariable int flightId,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return reactiveTicketService.getSeatMap(flightId, ifNoneMatch);
+	}
+
+	@PostMapping("hold")
+	public ResponseEntity<SeatHoldResponse> holdSeats(@Valid @RequestBody SeatHoldRequest req) {
+		return seatHoldService.holdSeatsService(req);
+	}
+
+	@DeleteMapping("hold/{holdId}")
+	public ResponseEntity<String> releaseHold(@PathVariable String holdId) {
+		return seatHoldService.releaseHoldService(holdId);
 	}
 }
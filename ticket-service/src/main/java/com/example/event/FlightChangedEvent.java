@@ -0,0 +1,43 @@
+package com.example.event;
+
+import java.time.LocalDateTime;
+
+public class FlightChangedEvent {
+
+    private int flightId;
+    private String origin;
+    private String destination;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+
+    public FlightChangedEvent() {}
+
+    public FlightChangedEvent(int flightId, String origin, String destination,
+                              LocalDateTime departureTime, LocalDateTime arrivalTime) {
+        this.flightId = flightId;
+        this.origin = origin;
+        this.destination = destination;
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+    }
+
+    public int getFlightId() {
+        return flightId;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+}
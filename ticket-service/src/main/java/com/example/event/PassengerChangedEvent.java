@@ -0,0 +1,34 @@
+package com.example.event;
+
+public class PassengerChangedEvent {
+
+    private int passengerId;
+    private String name;
+    private String email;
+    private String phoneNum;
+
+    public PassengerChangedEvent() {}
+
+    public PassengerChangedEvent(int passengerId, String name, String email, String phoneNum) {
+        this.passengerId = passengerId;
+        this.name = name;
+        this.email = email;
+        this.phoneNum = phoneNum;
+    }
+
+    public int getPassengerId() {
+        return passengerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhoneNum() {
+        return phoneNum;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.feign;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one downstream service that follows its latency, along the lines of
+ * Netflix's gradient limit. The limit is multiplied by how far the latest round trip is above the
+ * long-run average (up to halving it when latency doubles) and given {@code sqrt(limit)} of
+ * headroom to probe for more, then smoothed. While latency holds steady it keeps growing; once
+ * requests start queueing downstream it backs off before anything times out.
+ *
+ * Failures and timeouts cut the limit by {@link #BACKOFF} straight away. Calls made while less than
+ * half the limit is in use do not grow it, so a quiet period cannot leave it far above what the
+ * service was ever seen to handle.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    static final double BACKOFF = 0.9;
+
+    // long-run average over about this many calls, starting as a plain mean over the first WARMUP
+    private static final int LONG_WINDOW = 600;
+    private static final int WARMUP = 10;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+    // guarded by this
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long samples;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /** Takes a slot if fewer than the limit are in flight; every slot taken must be given back once. */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Gives a slot back after a call that got an answer, {@code rttNanos} after it was sent. */
+    void onSuccess(long rttNanos) {
+        int wasInFlight = inFlight.getAndDecrement();
+        update(rttNanos, wasInFlight);
+    }
+
+    /** Gives a slot back after a call that failed or timed out. */
+    void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * BACKOFF);
+            limit = (int) estimatedLimit;
+        }
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int wasInFlight) {
+        double rtt = Math.max(1, rttNanos);
+        samples++;
+        if (samples <= WARMUP) {
+            longRttNanos += (rtt - longRttNanos) / samples;
+        } else {
+            longRttNanos += (rtt - longRttNanos) * 2 / (LONG_WINDOW + 1);
+        }
+        // after a long spell of high latency, let the average come back down faster than it went up
+        if (longRttNanos / rtt > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        if (wasInFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rtt));
+        double next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        next = estimatedLimit * (1 - SMOOTHING) + next * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+}
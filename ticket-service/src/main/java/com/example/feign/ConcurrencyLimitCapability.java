@@ -0,0 +1,212 @@
+package com.example.feign;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import com.example.exception.ServiceBusyException;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Puts an {@link AdaptiveConcurrencyLimiter} in front of every Feign client, one per client name,
+ * so a slow downstream gets fewer calls at once instead of a growing queue of callers. A call over
+ * the limit fails at once with {@link ServiceBusyException} rather than waiting.
+ *
+ * A call keeps its slot until its response body is closed, so the round trip the limiter sees
+ * includes reading the body, not just the headers.
+ *
+ * The reactive WebClients go through the same limiters via {@link #exchangeFilter(String)}, so a
+ * service gets one limit however it is called.
+ *
+ * Reports {@code feign.client.concurrency.limit}, {@code .in-flight} and {@code .rejected}, tagged
+ * with the client name.
+ */
+public class ConcurrencyLimitCapability implements Capability {
+
+    static final String METRIC_PREFIX = "feign.client.concurrency";
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Limited> limiters = new ConcurrentHashMap<>();
+
+    record Limited(AdaptiveConcurrencyLimiter limiter, Counter rejected) {}
+
+    public ConcurrencyLimitCapability(int initialLimit, int minLimit, int maxLimit, double tolerance,
+            MeterRegistry meterRegistry) {
+
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> execute(client, request, options);
+    }
+
+    /** The limit for {@code clientName}, for a WebClient calling the same service as that Feign client. */
+    public ExchangeFilterFunction exchangeFilter(String clientName) {
+        return new ConcurrencyLimitExchangeFilter(this, clientName);
+    }
+
+    Limited limited(String clientName) {
+        return limiters.computeIfAbsent(clientName, this::newLimiter);
+    }
+
+    // overload answers count like timeouts; other errors still say how long the service took
+    static boolean overloaded(int status) {
+        return status >= 500 || status == 429;
+    }
+
+    // outside the load balancer, so retries on another instance run under the same slot
+    private Response execute(Client client, Request request, Request.Options options) throws IOException {
+        Limited limited = limited(PooledFeignClient.clientName(request));
+        AdaptiveConcurrencyLimiter limiter = limited.limiter();
+        if (!limiter.tryAcquire()) {
+            limited.rejected().increment();
+            throw new ServiceBusyException("Too many calls in flight to " + PooledFeignClient.clientName(request));
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = client.execute(request, options);
+        } catch (IOException | RuntimeException ex) {
+            limiter.onDropped();
+            throw ex;
+        }
+        Slot slot = new Slot(limiter, start, overloaded(response.status()));
+        if (response.body() == null) {
+            slot.release(false);
+            return response;
+        }
+        return response.toBuilder().body(new SlotBody(response.body(), slot)).build();
+    }
+
+    static final class Slot {
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start;
+        private final boolean overloaded;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Slot(AdaptiveConcurrencyLimiter limiter, long start, boolean overloaded) {
+            this.limiter = limiter;
+            this.start = start;
+            this.overloaded = overloaded;
+        }
+
+        void release(boolean failed) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (failed || overloaded) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(System.nanoTime() - start);
+            }
+        }
+    }
+
+    // gives the slot back when the body or a stream over it is closed, as decoders do once done
+    private record SlotBody(Response.Body body, Slot slot) implements Response.Body {
+
+        @Override
+        public Integer length() {
+            return body.length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return body.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            InputStream in;
+            try {
+                in = body.asInputStream();
+            } catch (IOException | RuntimeException ex) {
+                slot.release(true);
+                throw ex;
+            }
+            return new FilterInputStream(in) {
+                @Override
+                public int read() throws IOException {
+                    try {
+                        return super.read();
+                    } catch (IOException ex) {
+                        slot.release(true);
+                        throw ex;
+                    }
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    try {
+                        return super.read(buffer, offset, length);
+                    } catch (IOException ex) {
+                        slot.release(true);
+                        throw ex;
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        slot.release(false);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public Reader asReader(Charset charset) throws IOException {
+            return new InputStreamReader(asInputStream(), charset);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                body.close();
+            } finally {
+                slot.release(false);
+            }
+        }
+    }
+
+    private Limited newLimiter(String name) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance);
+        Gauge.builder(METRIC_PREFIX + ".limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .tag("client", name)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".in-flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .tag("client", name)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder(METRIC_PREFIX + ".rejected")
+                .tag("client", name)
+                .register(meterRegistry);
+        return new Limited(limiter, rejected);
+    }
+}
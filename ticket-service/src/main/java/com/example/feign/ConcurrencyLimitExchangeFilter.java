@@ -0,0 +1,65 @@
+package com.example.feign;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.example.exception.ServiceBusyException;
+import com.example.feign.ConcurrencyLimitCapability.Limited;
+import com.example.feign.ConcurrencyLimitCapability.Slot;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * {@link ConcurrencyLimitCapability} for a WebClient: a call over the limit fails at once with
+ * {@link ServiceBusyException}, and a call that gets in keeps its slot until its response body has
+ * been read. A call cancelled before then, as a timeout does, counts as dropped.
+ */
+final class ConcurrencyLimitExchangeFilter implements ExchangeFilterFunction {
+
+    private final ConcurrencyLimitCapability limits;
+    private final String clientName;
+
+    ConcurrencyLimitExchangeFilter(ConcurrencyLimitCapability limits, String clientName) {
+        this.limits = limits;
+        this.clientName = clientName;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            Limited limited = limits.limited(clientName);
+            AdaptiveConcurrencyLimiter limiter = limited.limiter();
+            if (!limiter.tryAcquire()) {
+                limited.rejected().increment();
+                return Mono.error(new ServiceBusyException("Too many calls in flight to " + clientName));
+            }
+
+            long start = System.nanoTime();
+            // the slot is given back once: here if no answer came, otherwise by the body
+            AtomicBoolean answered = new AtomicBoolean();
+            return next.exchange(request)
+                    .map(response -> {
+                        if (!answered.compareAndSet(false, true)) {
+                            return response;
+                        }
+                        Slot slot = new Slot(limiter, start, ConcurrencyLimitCapability.overloaded(response.statusCode().value()));
+                        return response.mutate()
+                                .body(body -> body.doFinally(signal -> slot.release(signal != SignalType.ON_COMPLETE)))
+                                .build();
+                    })
+                    .doOnError(ex -> dropUnanswered(answered, limiter))
+                    .doOnCancel(() -> dropUnanswered(answered, limiter));
+        });
+    }
+
+    private static void dropUnanswered(AtomicBoolean answered, AdaptiveConcurrencyLimiter limiter) {
+        if (answered.compareAndSet(false, true)) {
+            limiter.onDropped();
+        }
+    }
+}
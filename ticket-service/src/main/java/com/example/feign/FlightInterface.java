@@ -1,12 +1,18 @@
 package com.example.feign;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import com.example.request.SeatReservation;
 import com.example.response.FlightResponse;
 
 @FeignClient(name = "flight-service")
@@ -20,6 +26,17 @@ public interface FlightInterface {
     void releaseSeats(@PathVariable int id,
                       @RequestParam int seats);
 
+    // all flights or none, in one transaction on flight-service
+    @PutMapping("/flight/flights/reserve")
+    void reserveSeats(@RequestBody List<SeatReservation> reservations);
+
+    @PutMapping("/flight/flights/release")
+    void releaseSeats(@RequestBody List<SeatReservation> reservations);
+
     @GetMapping("/flight/getFlightById/{id}")
 	public ResponseEntity<FlightResponse> getByID(@PathVariable int id);
+
+    // ids that do not exist are left out of the response
+    @PostMapping("/flight/getFlightsByIds")
+    ResponseEntity<List<FlightResponse>> getFlightsByIds(@RequestBody Collection<Integer> ids);
 }
@@ -1,9 +1,14 @@
 package com.example.feign;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import com.example.exception.ResourceNotFoundException;
 import com.example.response.PassengerDetailsResponse;
@@ -15,6 +20,11 @@ public interface PassengerInterface {
 	public ResponseEntity<PassengerDetailsResponse> getPassengerDetails(@PathVariable int id)
 			throws ResourceNotFoundException;
 
+	// batch lookup keyed by passenger id; unknown ids are left out
+	@PostMapping("/passenger/getByPassengerIds")
+	public ResponseEntity<Map<Integer, PassengerDetailsResponse>> getPassengerDetailsByIds(
+			@RequestBody Collection<Integer> ids);
+
 	// get id by email
 	@GetMapping("/passenger/getPassengerIdByEmail/{email}")
 	public ResponseEntity<Integer> getIdByEmail(@PathVariable String email) throws ResourceNotFoundException;
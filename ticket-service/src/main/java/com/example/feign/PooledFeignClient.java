@@ -0,0 +1,82 @@
+package com.example.feign;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Feign transport with its own OkHttp connection pool per Feign client, so a slow downstream cannot
+ * hold the connections another one needs, and each pool reports under its client's name as
+ * {@code feign.client.pool.connection.count} and {@code .limit}.
+ *
+ * OkHttp asks for gzip and unpacks it transparently, and negotiates HTTP/2 on TLS connections by
+ * itself. Clients named in {@code h2cClients} speak HTTP/2 on plain connections too (prior
+ * knowledge), for servers running with {@code server.http2.enabled}; their calls share one
+ * multiplexed connection per instance.
+ */
+public class PooledFeignClient implements Client {
+
+    static final String METRIC_PREFIX = "feign.client.pool";
+
+    private final OkHttpClient base;
+    private final int maxIdleConnections;
+    private final Duration keepAlive;
+    private final Set<String> h2cClients;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+
+    public PooledFeignClient(int maxIdleConnections, Duration keepAlive, Set<String> h2cClients,
+            MeterRegistry meterRegistry) {
+
+        this.base = new OkHttpClient.Builder()
+                .followRedirects(false)
+                .build();
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAlive = keepAlive;
+        this.h2cClients = h2cClients.stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        this.meterRegistry = meterRegistry;
+    }
+
+    // timeouts come per call from the client's Request.Options
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        return clients.computeIfAbsent(clientName(request), this::newClient).execute(request, options);
+    }
+
+    static String clientName(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        Target<?> target = template == null ? null : template.feignTarget();
+        return target == null ? "default" : target.name();
+    }
+
+    private Client newClient(String name) {
+        ConnectionPool pool = new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+        OkHttpClient.Builder builder = base.newBuilder().connectionPool(pool);
+        if (h2cClients.contains(name.toLowerCase(Locale.ROOT))) {
+            builder.protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+        }
+        new OkHttpConnectionPoolMetrics(pool, METRIC_PREFIX, Tags.of("client", name), maxIdleConnections)
+                .bindTo(meterRegistry);
+        return new feign.okhttp.OkHttpClient(builder.build());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * One row per seat held by a booked ticket. The unique key on flight and seat is what stops two
+ * instances from selling the same seat; rows are written with the ticket and deleted when it is
+ * cancelled.
+ */
+@Entity
+@Table(name = "booked_seats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_booked_seat_flight_seat", columnNames = { "flight_id", "seat_number" }),
+        indexes = @Index(name = "idx_booked_seat_ticket", columnList = "ticket_id"))
+public class BookedSeat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "flight_id", nullable = false)
+    private Integer flightId;
+
+    @Column(name = "seat_number", nullable = false)
+    private String seatNumber;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Integer ticketId;
+
+    public BookedSeat() {}
+
+    public BookedSeat(Integer flightId, String seatNumber, Integer ticketId) {
+        this.flightId = flightId;
+        this.seatNumber = seatNumber;
+        this.ticketId = ticketId;
+    }
+
+    public Long getId() { return id; }
+    public Integer getFlightId() { return flightId; }
+    public String getSeatNumber() { return seatNumber; }
+    public Integer getTicketId() { return ticketId; }
+}
@@ -0,0 +1,98 @@
+package com.example.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A booking notification waiting to be published, written in the booking's own transaction.
+ * One row per passenger, carrying the e-mail address snapshotted at booking; rows without one
+ * have it resolved by the relay when it publishes.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_status_next_attempt",
+        columnList = "status, next_attempt_at"))
+public class OutboxEvent {
+
+    public enum Status { PENDING, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(nullable = false)
+    private String pnr;
+
+    @Column(nullable = false)
+    private Integer flightId;
+
+    @Column(nullable = false)
+    private Integer passengerId;
+
+    private String email;
+
+    @Column(nullable = false)
+    private int numberOfSeats;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private String lastError;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(String topic, String pnr, Integer flightId, Integer passengerId, int numberOfSeats,
+                       Instant createdAt) {
+        this(topic, pnr, flightId, passengerId, null, numberOfSeats, createdAt);
+    }
+
+    public OutboxEvent(String topic, String pnr, Integer flightId, Integer passengerId, String email,
+                       int numberOfSeats, Instant createdAt) {
+        this.topic = topic;
+        this.pnr = pnr;
+        this.flightId = flightId;
+        this.passengerId = passengerId;
+        this.email = email;
+        this.numberOfSeats = numberOfSeats;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public String getTopic() { return topic; }
+    public String getPnr() { return pnr; }
+    public Integer getFlightId() { return flightId; }
+    public Integer getPassengerId() { return passengerId; }
+    public String getEmail() { return email; }
+    public int getNumberOfSeats() { return numberOfSeats; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public Instant getCreatedAt() { return createdAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
@@ -0,0 +1,33 @@
+package com.example.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/** Passenger contact details as they were at booking time, refreshed from passenger change events. */
+@Embeddable
+public class PassengerSnapshot {
+
+    @Column(name = "passenger_id", nullable = false)
+    private Integer passengerId;
+
+    private String name;
+
+    private String email;
+
+    @Column(name = "phone_num")
+    private String phoneNum;
+
+    public PassengerSnapshot() {}
+
+    public PassengerSnapshot(Integer passengerId, String name, String email, String phoneNum) {
+        this.passengerId = passengerId;
+        this.name = name;
+        this.email = email;
+        this.phoneNum = phoneNum;
+    }
+
+    public Integer getPassengerId() { return passengerId; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getPhoneNum() { return phoneNum; }
+}
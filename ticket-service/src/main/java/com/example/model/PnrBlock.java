@@ -0,0 +1,42 @@
+package com.example.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * A range of PNR numbers claimed by one instance. The id comes straight from a database sequence,
+ * so no two instances ever get the same block; the row itself only records who took it and when.
+ */
+@Entity
+@Table(name = "pnr_blocks")
+public class PnrBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pnr_block_seq")
+    @SequenceGenerator(name = "pnr_block_seq", sequenceName = "pnr_block_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private String node;
+
+    @Column(nullable = false)
+    private Instant claimedAt;
+
+    public PnrBlock() {}
+
+    public PnrBlock(String node, Instant claimedAt) {
+        this.node = node;
+        this.claimedAt = claimedAt;
+    }
+
+    public Long getId() { return id; }
+    public String getNode() { return node; }
+    public Instant getClaimedAt() { return claimedAt; }
+}
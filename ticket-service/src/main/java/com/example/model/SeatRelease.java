@@ -0,0 +1,61 @@
+package com.example.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Seats owed back to flight-service, written in the same transaction as the cancellations that
+ * freed them and deleted once flight-service has taken them back.
+ */
+@Entity
+@Table(name = "seat_releases", indexes = @Index(name = "idx_seat_release_next_attempt", columnList = "next_attempt_at"))
+public class SeatRelease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer flightId;
+
+    @Column(nullable = false)
+    private int seats;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private String lastError;
+
+    public SeatRelease() {}
+
+    public SeatRelease(Integer flightId, int seats, Instant createdAt) {
+        this.flightId = flightId;
+        this.seats = seats;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public Integer getFlightId() { return flightId; }
+    public int getSeats() { return seats; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public Instant getCreatedAt() { return createdAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
@@ -1,5 +1,6 @@
 package com.example.model;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import jakarta.persistence.CollectionTable;
@@ -10,11 +11,13 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = @Index(name = "idx_tickets_flight_booked", columnList = "flightId, booked"))
 public class Ticket {
 
     @Id
@@ -38,7 +41,8 @@ public class Ticket {
     @ElementCollection
     @CollectionTable(
             name = "ticket_passengers",
-            joinColumns = @JoinColumn(name = "ticket_id")
+            joinColumns = @JoinColumn(name = "ticket_id"),
+            indexes = @Index(name = "idx_ticket_passengers_passenger", columnList = "passenger_id")
     )
     @Column(name = "passenger_id")
     private List<Integer> passengerIds;
@@ -49,6 +53,24 @@ public class Ticket {
     @Column(nullable = false)
     private boolean booked;
 
+    // flight snapshot taken at booking time; null on tickets booked before snapshots existed
+    private String origin;
+    private String destination;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+
+    @ElementCollection
+    @CollectionTable(
+            name = "ticket_passenger_snapshots",
+            joinColumns = @JoinColumn(name = "ticket_id"),
+            indexes = {
+                    @Index(name = "idx_passenger_snapshot_email", columnList = "email"),
+                    @Index(name = "idx_passenger_snapshot_passenger", columnList = "passenger_id")
+            }
+    )
+    @OrderColumn(name = "position")
+    private List<PassengerSnapshot> passengers = new java.util.ArrayList<>();
+
     public Ticket() {}
 
     public Ticket(Integer ticketId, String pnr, Integer flightId, List<String> seatNumbers,
@@ -70,28 +92,56 @@ public class Ticket {
     public int getNumberOfSeats() { return numberOfSeats; }
     public boolean isBooked() { return booked; }
     public void setBooked(boolean booked) { this.booked = booked; }
+    public String getOrigin() { return origin; }
+    public String getDestination() { return destination; }
+    public LocalDateTime getDepartureTime() { return departureTime; }
+    public LocalDateTime getArrivalTime() { return arrivalTime; }
+    public List<PassengerSnapshot> getPassengers() { return passengers; }
+
+    /** True when the ticket carries everything a response needs without asking other services. */
+    public boolean hasSnapshot() {
+        return origin != null && passengerIds != null && passengers.size() == passengerIds.size();
+    }
 
     public static Builder builder() { return new Builder(); }
 
     public static class Builder {
+        private Integer ticketId;
         private String pnr;
         private Integer flightId;
         private List<String> seatNumbers;
         private List<Integer> passengerIds;
         private int numberOfSeats;
         private boolean booked;
+        private String origin;
+        private String destination;
+        private LocalDateTime departureTime;
+        private LocalDateTime arrivalTime;
+        private List<PassengerSnapshot> passengers;
 
+        public Builder ticketId(Integer ticketId) { this.ticketId = ticketId; return this; }
         public Builder pnr(String pnr) { this.pnr = pnr; return this; }
         public Builder flightId(Integer flightId) { this.flightId = flightId; return this; }
         public Builder seatNumbers(List<String> seatNumbers) { this.seatNumbers = seatNumbers; return this; }
         public Builder passengerIds(List<Integer> passengerIds) { this.passengerIds = passengerIds; return this; }
         public Builder numberOfSeats(int numberOfSeats) { this.numberOfSeats = numberOfSeats; return this; }
         public Builder booked(boolean booked) { this.booked = booked; return this; }
+        public Builder origin(String origin) { this.origin = origin; return this; }
+        public Builder destination(String destination) { this.destination = destination; return this; }
+        public Builder departureTime(LocalDateTime departureTime) { this.departureTime = departureTime; return this; }
+        public Builder arrivalTime(LocalDateTime arrivalTime) { this.arrivalTime = arrivalTime; return this; }
+        public Builder passengers(List<PassengerSnapshot> passengers) { this.passengers = passengers; return this; }
 
         public Ticket build() {
-            return new Ticket(null, pnr, flightId,
+            Ticket ticket = new Ticket(ticketId, pnr, flightId,
                     seatNumbers == null ? new java.util.ArrayList<>() : seatNumbers,
                     passengerIds, numberOfSeats, booked);
+            ticket.origin = origin;
+            ticket.destination = destination;
+            ticket.departureTime = departureTime;
+            ticket.arrivalTime = arrivalTime;
+            ticket.passengers = passengers == null ? new java.util.ArrayList<>() : new java.util.ArrayList<>(passengers);
+            return ticket;
         }
     }
 }
@@ -0,0 +1,37 @@
+package com.example.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.BookedSeat;
+
+@Repository
+public interface BookedSeatRepository extends JpaRepository<BookedSeat, Long> {
+
+    @Modifying
+    @Query("DELETE FROM BookedSeat s WHERE s.ticketId IN :ids")
+    int deleteByTicketIdIn(@Param("ids") List<Integer> ticketIds);
+
+    /**
+     * Adds rows for booked tickets that have none, such as tickets booked before this table existed.
+     * A seat that was already sold twice keeps its lowest ticket.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO booked_seats (flight_id, seat_number, ticket_id)
+        SELECT t.flight_id, s.seat_number, MIN(t.ticket_id)
+        FROM tickets t
+        JOIN ticket_seats s ON s.ticket_id = t.ticket_id
+        WHERE t.booked = true
+          AND NOT EXISTS (
+              SELECT 1 FROM booked_seats b
+              WHERE b.flight_id = t.flight_id AND b.seat_number = s.seat_number)
+        GROUP BY t.flight_id, s.seat_number
+    """, nativeQuery = true)
+    int backfill();
+}
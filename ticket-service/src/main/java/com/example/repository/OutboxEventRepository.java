@@ -0,0 +1,49 @@
+package com.example.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // rows another relay instance has already claimed are skipped rather than waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT e FROM OutboxEvent e
+        WHERE e.status = :status AND e.nextAttemptAt <= :now
+        ORDER BY e.id
+    """)
+    List<OutboxEvent> claimDue(@Param("status") OutboxEvent.Status status, @Param("now") Instant now, Pageable page);
+
+    /**
+     * One event per passenger on each ticket, written in a single statement. The e-mail comes from
+     * the passenger snapshot and is left null for older tickets, which the relay then resolves.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO outbox_events
+            (topic, pnr, flight_id, passenger_id, email, number_of_seats, status, attempts, next_attempt_at, created_at)
+        SELECT :topic, t.pnr, t.flight_id, tp.passenger_id, ps.email, t.number_of_seats, 'PENDING', 0, :now, :now
+        FROM tickets t
+        JOIN ticket_passengers tp ON tp.ticket_id = t.ticket_id
+        LEFT JOIN ticket_passenger_snapshots ps ON ps.ticket_id = t.ticket_id AND ps.passenger_id = tp.passenger_id
+        WHERE t.ticket_id IN (:ticketIds)
+    """, nativeQuery = true)
+    int enqueueForTickets(@Param("topic") String topic, @Param("ticketIds") List<Integer> ticketIds,
+                          @Param("now") Instant now);
+}
@@ -0,0 +1,10 @@
+package com.example.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.PnrBlock;
+
+@Repository
+public interface PnrBlockRepository extends JpaRepository<PnrBlock, Long> {
+}
@@ -0,0 +1,221 @@
+package com.example.repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.PassengerSnapshot;
+import com.example.model.Ticket;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only access to the tickets tables over R2DBC, for the reactive read path: no thread waits
+ * on a query. Tickets come back loaded the way {@link TicketRepository#findAllWithDetailsByIdIn}
+ * loads them, but are not managed by JPA, so changes to them are never saved.
+ *
+ * The connection pool is kept here rather than exposed as a bean: a {@link ConnectionFactory} bean
+ * would make Spring Boot back off the JDBC data source the rest of the service runs on.
+ */
+@Repository
+public class ReactiveTicketReader {
+
+    private static final String TICKET_COLUMNS = """
+        SELECT ticket_id, pnr, flight_id, number_of_seats, booked,
+               origin, destination, departure_time, arrival_time
+        FROM tickets
+    """;
+
+    private record TicketRow(int ticketId, String pnr, int flightId, int numberOfSeats, boolean booked,
+            String origin, String destination, LocalDateTime departureTime, LocalDateTime arrivalTime) {}
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient db;
+
+    @Autowired
+    public ReactiveTicketReader(
+            @Value("${ticket.reactive.r2dbc-url:}") String r2dbcUrl,
+            @Value("${spring.datasource.url:}") String jdbcUrl,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${ticket.reactive.db-pool-size:20}") int poolSize,
+            @Value("${ticket.reactive.db-acquire-timeout:3s}") Duration acquireTimeout) {
+
+        this(pool(r2dbcUrl, jdbcUrl, username, password, poolSize, acquireTimeout));
+    }
+
+    ReactiveTicketReader(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+        this.db = DatabaseClient.create(connectionFactory);
+    }
+
+    private static ConnectionFactory pool(String r2dbcUrl, String jdbcUrl, String username, String password,
+            int poolSize, Duration acquireTimeout) {
+
+        String url = !r2dbcUrl.isBlank() ? r2dbcUrl : jdbcUrl.replaceFirst("^jdbc:", "r2dbc:");
+        if (!url.startsWith("r2dbc:")) {
+            throw new IllegalStateException("No R2DBC URL: set ticket.reactive.r2dbc-url or spring.datasource.url");
+        }
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isBlank()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isBlank()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("ticket-reads")
+                .maxSize(poolSize)
+                .maxAcquireTime(acquireTimeout)
+                .build());
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionFactory instanceof Disposable pool) {
+            pool.dispose();
+        }
+    }
+
+    public Mono<Ticket> findByPnr(String pnr) {
+        return withDetails(db.sql(TICKET_COLUMNS + " WHERE pnr = :pnr")
+                .bind("pnr", pnr)
+                .map(ReactiveTicketReader::ticketRow)
+                .all())
+                .next();
+    }
+
+    /** Tickets the passenger is on, in ticket id order. */
+    public Flux<Ticket> findAllByPassengerId(int passengerId) {
+        return ticketIds("SELECT DISTINCT ticket_id FROM ticket_passengers WHERE passenger_id = :key", passengerId)
+                .flatMapMany(this::findAllByIdIn);
+    }
+
+    /** Same as {@link #findAllByPassengerId}, matched on the snapshotted e-mail. */
+    public Flux<Ticket> findAllByPassengerEmail(String email) {
+        return ticketIds("SELECT DISTINCT ticket_id FROM ticket_passenger_snapshots WHERE email = :key", email)
+                .flatMapMany(this::findAllByIdIn);
+    }
+
+    public Flux<Ticket> findAllByIdIn(Collection<Integer> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return withDetails(db.sql(TICKET_COLUMNS + " WHERE ticket_id IN (:ids) ORDER BY ticket_id")
+                .bind("ids", ticketIds)
+                .map(ReactiveTicketReader::ticketRow)
+                .all());
+    }
+
+    public Mono<List<String>> findBookedSeatNumbers(int flightId) {
+        return db.sql("""
+                SELECT s.seat_number
+                FROM ticket_seats s JOIN tickets t ON t.ticket_id = s.ticket_id
+                WHERE t.flight_id = :flightId AND t.booked = true
+            """)
+                .bind("flightId", flightId)
+                .map(row -> row.get("seat_number", String.class))
+                .all()
+                .collectList();
+    }
+
+    private Mono<List<Integer>> ticketIds(String sql, Object key) {
+        return db.sql(sql)
+                .bind("key", key)
+                .map(row -> row.get("ticket_id", Integer.class))
+                .all()
+                .collectList();
+    }
+
+    // seats, passenger ids and snapshots with one query each, like the JPA loading, issued together
+    private Flux<Ticket> withDetails(Flux<TicketRow> rows) {
+        return rows.collectList().flatMapMany(tickets -> {
+            if (tickets.isEmpty()) {
+                return Flux.empty();
+            }
+            List<Integer> ids = tickets.stream().map(TicketRow::ticketId).toList();
+
+            Mono<Map<Integer, Collection<String>>> seats = db.sql(
+                    "SELECT ticket_id, seat_number FROM ticket_seats WHERE ticket_id IN (:ids)")
+                    .bind("ids", ids)
+                    .map(row -> Map.entry(ticketId(row), row.get("seat_number", String.class)))
+                    .all()
+                    .collectMultimap(Map.Entry::getKey, Map.Entry::getValue);
+
+            Mono<Map<Integer, Collection<Integer>>> passengerIds = db.sql(
+                    "SELECT ticket_id, passenger_id FROM ticket_passengers WHERE ticket_id IN (:ids)")
+                    .bind("ids", ids)
+                    .map(row -> Map.entry(ticketId(row), row.get("passenger_id", Integer.class)))
+                    .all()
+                    .collectMultimap(Map.Entry::getKey, Map.Entry::getValue);
+
+            Mono<Map<Integer, Collection<PassengerSnapshot>>> snapshots = db.sql("""
+                    SELECT ticket_id, passenger_id, name, email, phone_num
+                    FROM ticket_passenger_snapshots
+                    WHERE ticket_id IN (:ids)
+                    ORDER BY ticket_id, position
+                """)
+                    .bind("ids", ids)
+                    .map(row -> Map.entry(ticketId(row), new PassengerSnapshot(row.get("passenger_id", Integer.class),
+                            row.get("name", String.class), row.get("email", String.class),
+                            row.get("phone_num", String.class))))
+                    .all()
+                    .collectMultimap(Map.Entry::getKey, Map.Entry::getValue);
+
+            return Mono.zip(seats, passengerIds, snapshots).flatMapIterable(details -> tickets.stream()
+                    .map(row -> Ticket.builder()
+                            .ticketId(row.ticketId())
+                            .pnr(row.pnr())
+                            .flightId(row.flightId())
+                            .seatNumbers(listOf(details.getT1().get(row.ticketId())))
+                            .passengerIds(listOf(details.getT2().get(row.ticketId())))
+                            .numberOfSeats(row.numberOfSeats())
+                            .booked(row.booked())
+                            .origin(row.origin())
+                            .destination(row.destination())
+                            .departureTime(row.departureTime())
+                            .arrivalTime(row.arrivalTime())
+                            .passengers(listOf(details.getT3().get(row.ticketId())))
+                            .build())
+                    .toList());
+        });
+    }
+
+    private static TicketRow ticketRow(Readable row) {
+        return new TicketRow(
+                ticketId(row),
+                row.get("pnr", String.class),
+                row.get("flight_id", Integer.class),
+                row.get("number_of_seats", Integer.class),
+                Boolean.TRUE.equals(row.get("booked", Boolean.class)),
+                row.get("origin", String.class),
+                row.get("destination", String.class),
+                row.get("departure_time", LocalDateTime.class),
+                row.get("arrival_time", LocalDateTime.class));
+    }
+
+    private static int ticketId(Readable row) {
+        return row.get("ticket_id", Integer.class);
+    }
+
+    private static <T> List<T> listOf(Collection<T> values) {
+        return values == null ? new ArrayList<>() : new ArrayList<>(values);
+    }
+}
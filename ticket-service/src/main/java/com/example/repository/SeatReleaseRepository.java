@@ -0,0 +1,31 @@
+package com.example.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.model.SeatRelease;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface SeatReleaseRepository extends JpaRepository<SeatRelease, Long> {
+
+    // rows another instance has already claimed are skipped rather than waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT r FROM SeatRelease r
+        WHERE r.nextAttemptAt <= :now
+        ORDER BY r.id
+    """)
+    List<SeatRelease> claimDue(@Param("now") Instant now, Pageable page);
+}
@@ -1,9 +1,13 @@
 package com.example.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,11 +19,77 @@ public interface TicketRepository extends JpaRepository<Ticket, Integer> {
 
     Optional<Ticket> findByPnr(String pnr);
 
+    interface TicketPnr {
+        Integer getTicketId();
+        String getPnr();
+    }
+
+    @Query("""
+        SELECT t.ticketId AS ticketId, t.pnr AS pnr
+        FROM Ticket t
+        WHERE t.ticketId > :afterTicketId
+        ORDER BY t.ticketId
+    """)
+    List<TicketPnr> findPnrsAfter(@Param("afterTicketId") Integer afterTicketId, Pageable page);
+
+    @Query("""
+        SELECT t.ticketId AS ticketId, t.pnr AS pnr
+        FROM Ticket t
+        WHERE t.ticketId IN :ids
+    """)
+    List<TicketPnr> findPnrsByTicketIdIn(@Param("ids") List<Integer> ticketIds);
+
+    /**
+     * Tickets the passenger is on, with seats, passenger ids and passenger snapshots loaded, in four
+     * queries however many tickets there are. Must run inside a transaction.
+     */
+    default List<Ticket> findAllByPassengerId(Integer passengerId) {
+        return findAllWithDetailsByIdIn(findTicketIdsByPassengerId(passengerId));
+    }
+
+    // served by idx_ticket_passengers_passenger
     @Query("""
-        SELECT t FROM Ticket t
-        WHERE :pid MEMBER OF t.passengerIds
+        SELECT DISTINCT t.ticketId FROM Ticket t
+        JOIN t.passengerIds pid
+        WHERE pid = :pid
     """)
-    List<Ticket> findAllByPassengerId(@Param("pid") Integer passengerId);
+    List<Integer> findTicketIdsByPassengerId(@Param("pid") Integer passengerId);
+
+    /**
+     * Loads the tickets with their seats in one query, then fills in passenger ids and snapshots
+     * with one query each; separate queries because fetching several bags at once multiplies rows.
+     */
+    default List<Ticket> findAllWithDetailsByIdIn(List<Integer> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return List.of();
+        }
+        List<Ticket> tickets = findAllWithSeatsByIdIn(ticketIds);
+        fetchPassengerIds(ticketIds);
+        fetchPassengerSnapshots(ticketIds);
+        return tickets;
+    }
+
+    @Query("""
+        SELECT DISTINCT t FROM Ticket t
+        LEFT JOIN FETCH t.seatNumbers
+        WHERE t.ticketId IN :ids
+        ORDER BY t.ticketId
+    """)
+    List<Ticket> findAllWithSeatsByIdIn(@Param("ids") List<Integer> ticketIds);
+
+    @Query("""
+        SELECT DISTINCT t FROM Ticket t
+        LEFT JOIN FETCH t.passengerIds
+        WHERE t.ticketId IN :ids
+    """)
+    List<Ticket> fetchPassengerIds(@Param("ids") List<Integer> ticketIds);
+
+    @Query("""
+        SELECT DISTINCT t FROM Ticket t
+        LEFT JOIN FETCH t.passengers
+        WHERE t.ticketId IN :ids
+    """)
+    List<Ticket> fetchPassengerSnapshots(@Param("ids") List<Integer> ticketIds);
 
     @Query("""
         SELECT seat
@@ -28,5 +98,91 @@ public interface TicketRepository extends JpaRepository<Ticket, Integer> {
         WHERE t.flightId = :flightId AND t.booked = true
     """)
     List<String> findBookedSeatNumbers(@Param("flightId") Integer flightId);
-}
 
+    interface FlightSeat {
+        Integer getFlightId();
+        String getSeatNumber();
+    }
+
+    @Query("""
+        SELECT t.flightId AS flightId, seat AS seatNumber
+        FROM Ticket t
+        JOIN t.seatNumbers seat
+        WHERE t.flightId IN :flightIds AND t.booked = true
+    """)
+    List<FlightSeat> findBookedSeatsByFlightIdIn(@Param("flightIds") Collection<Integer> flightIds);
+
+    @Query("""
+        SELECT seat
+        FROM Ticket t
+        JOIN t.seatNumbers seat
+        WHERE t.ticketId IN :ids
+    """)
+    List<String> findSeatNumbersByTicketIdIn(@Param("ids") List<Integer> ticketIds);
+
+    /** Same loading as {@link #findAllByPassengerId}, matched on the snapshotted e-mail. */
+    default List<Ticket> findAllByPassengerEmail(String email) {
+        return findAllWithDetailsByIdIn(findTicketIdsByPassengerEmail(email));
+    }
+
+    // served by idx_passenger_snapshot_email
+    @Query("""
+        SELECT DISTINCT t.ticketId FROM Ticket t
+        JOIN t.passengers p
+        WHERE p.email = :email
+    """)
+    List<Integer> findTicketIdsByPassengerEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("""
+        UPDATE Ticket t
+        SET t.origin = :origin, t.destination = :destination,
+            t.departureTime = :departureTime, t.arrivalTime = :arrivalTime
+        WHERE t.flightId = :flightId
+    """)
+    int updateFlightSnapshot(@Param("flightId") Integer flightId,
+                             @Param("origin") String origin,
+                             @Param("destination") String destination,
+                             @Param("departureTime") LocalDateTime departureTime,
+                             @Param("arrivalTime") LocalDateTime arrivalTime);
+
+    @Modifying
+    @Query(value = """
+        UPDATE ticket_passenger_snapshots
+        SET name = :name, email = :email, phone_num = :phoneNum
+        WHERE passenger_id = :passengerId
+    """, nativeQuery = true)
+    int updatePassengerSnapshot(@Param("passengerId") Integer passengerId,
+                                @Param("name") String name,
+                                @Param("email") String email,
+                                @Param("phoneNum") String phoneNum);
+
+    interface BookedTicket {
+        Integer getTicketId();
+        int getNumberOfSeats();
+    }
+
+    /**
+     * Next chunk of booked tickets on a flight after {@code afterTicketId}, locked until the
+     * transaction ends so a concurrent cancel cannot release the same seats twice.
+     */
+    @Query(value = """
+        SELECT ticket_id AS ticketId, number_of_seats AS numberOfSeats
+        FROM tickets
+        WHERE flight_id = :flightId AND booked = true AND ticket_id > :afterTicketId
+        ORDER BY ticket_id
+        LIMIT :limit
+        FOR UPDATE
+    """, nativeQuery = true)
+    List<BookedTicket> lockBookedChunk(@Param("flightId") Integer flightId,
+                                       @Param("afterTicketId") Integer afterTicketId,
+                                       @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+        UPDATE Ticket t
+        SET t.booked = false
+        WHERE t.ticketId IN :ids AND t.booked = true
+    """)
+    int cancelAll(@Param("ids") List<Integer> ticketIds);
+}
@@ -16,6 +16,9 @@ public class BookTicketRequest {
     @NotEmpty
     private List<String> seatNumbers;
 
+    // optional; books the seats held under this id
+    private String holdId;
+
     public BookTicketRequest() {}
 
     public BookTicketRequest(Integer flightId, List<Integer> passengerIds, List<String> seatNumbers) {
@@ -24,7 +27,13 @@ public class BookTicketRequest {
         this.seatNumbers = seatNumbers;
     }
 
+    public BookTicketRequest(Integer flightId, List<Integer> passengerIds, List<String> seatNumbers, String holdId) {
+        this(flightId, passengerIds, seatNumbers);
+        this.holdId = holdId;
+    }
+
     public Integer getFlightId() { return flightId; }
     public List<Integer> getPassengerIds() { return passengerIds; }
     public List<String> getSeatNumbers() { return seatNumbers; }
+    public String getHoldId() { return holdId; }
 }
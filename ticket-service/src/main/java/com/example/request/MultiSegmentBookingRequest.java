@@ -0,0 +1,21 @@
+package com.example.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+public class MultiSegmentBookingRequest {
+
+    // one ticket per segment, booked together or not at all
+    @NotEmpty
+    private List<@Valid BookTicketRequest> segments;
+
+    public MultiSegmentBookingRequest() {}
+
+    public MultiSegmentBookingRequest(List<BookTicketRequest> segments) {
+        this.segments = segments;
+    }
+
+    public List<BookTicketRequest> getSegments() { return segments; }
+}
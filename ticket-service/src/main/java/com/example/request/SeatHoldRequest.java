@@ -0,0 +1,38 @@
+package com.example.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class SeatHoldRequest {
+
+    @NotNull
+    private Integer flightId;
+
+    // the passenger checking out; ticket.seat-hold.max-seats-per-passenger applies to them
+    @NotNull
+    private Integer passengerId;
+
+    @NotEmpty
+    private List<String> seatNumbers;
+
+    // defaults to ticket.seat-hold.default-minutes
+    @Positive
+    private Integer minutes;
+
+    public SeatHoldRequest() {}
+
+    public SeatHoldRequest(Integer flightId, Integer passengerId, List<String> seatNumbers, Integer minutes) {
+        this.flightId = flightId;
+        this.passengerId = passengerId;
+        this.seatNumbers = seatNumbers;
+        this.minutes = minutes;
+    }
+
+    public Integer getFlightId() { return flightId; }
+    public Integer getPassengerId() { return passengerId; }
+    public List<String> getSeatNumbers() { return seatNumbers; }
+    public Integer getMinutes() { return minutes; }
+}
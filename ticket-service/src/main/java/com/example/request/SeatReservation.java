@@ -0,0 +1,18 @@
+package com.example.request;
+
+// body item of flight-service's batch reserve/release endpoints
+public class SeatReservation {
+
+    private Integer flightId;
+    private int seats;
+
+    public SeatReservation() {}
+
+    public SeatReservation(Integer flightId, int seats) {
+        this.flightId = flightId;
+        this.seats = seats;
+    }
+
+    public Integer getFlightId() { return flightId; }
+    public int getSeats() { return seats; }
+}
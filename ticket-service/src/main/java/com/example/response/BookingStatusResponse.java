@@ -0,0 +1,22 @@
+package com.example.response;
+
+public class BookingStatusResponse {
+
+    public enum Status { PENDING, CONFIRMED, REJECTED }
+
+    private String pnr;
+    private Status status;
+    private String message;
+
+    public BookingStatusResponse() {}
+
+    public BookingStatusResponse(String pnr, Status status, String message) {
+        this.pnr = pnr;
+        this.status = status;
+        this.message = message;
+    }
+
+    public String getPnr() { return pnr; }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+}
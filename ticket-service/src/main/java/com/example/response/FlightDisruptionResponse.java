@@ -0,0 +1,20 @@
+package com.example.response;
+
+public class FlightDisruptionResponse {
+
+    private int flightId;
+    private int ticketsCancelled;
+    private int seatsReleased;
+
+    public FlightDisruptionResponse() {}
+
+    public FlightDisruptionResponse(int flightId, int ticketsCancelled, int seatsReleased) {
+        this.flightId = flightId;
+        this.ticketsCancelled = ticketsCancelled;
+        this.seatsReleased = seatsReleased;
+    }
+
+    public int getFlightId() { return flightId; }
+    public int getTicketsCancelled() { return ticketsCancelled; }
+    public int getSeatsReleased() { return seatsReleased; }
+}
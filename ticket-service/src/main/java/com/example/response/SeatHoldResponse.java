@@ -0,0 +1,26 @@
+package com.example.response;
+
+import java.time.Instant;
+import java.util.List;
+
+public class SeatHoldResponse {
+
+    private String holdId;
+    private int flightId;
+    private List<String> seatNumbers;
+    private Instant expiresAt;
+
+    public SeatHoldResponse() {}
+
+    public SeatHoldResponse(String holdId, int flightId, List<String> seatNumbers, Instant expiresAt) {
+        this.holdId = holdId;
+        this.flightId = flightId;
+        this.seatNumbers = seatNumbers;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getHoldId() { return holdId; }
+    public int getFlightId() { return flightId; }
+    public List<String> getSeatNumbers() { return seatNumbers; }
+    public Instant getExpiresAt() { return expiresAt; }
+}
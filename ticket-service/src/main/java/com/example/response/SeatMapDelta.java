@@ -0,0 +1,24 @@
+package com.example.response;
+
+import java.util.List;
+
+public class SeatMapDelta {
+
+    public enum Change { BOOKED, RELEASED, HELD, HOLD_RELEASED }
+
+    private int flightId;
+    private Change change;
+    private List<String> seats;
+
+    public SeatMapDelta() {}
+
+    public SeatMapDelta(int flightId, Change change, List<String> seats) {
+        this.flightId = flightId;
+        this.change = change;
+        this.seats = seats;
+    }
+
+    public int getFlightId() { return flightId; }
+    public Change getChange() { return change; }
+    public List<String> getSeats() { return seats; }
+}
@@ -8,6 +8,7 @@ public class SeatMapResponse {
     private int totalSeats;
     private int availableSeats;
     private List<String> bookedSeats;
+    private List<String> heldSeats = List.of();
 
     public SeatMapResponse() {}
 
@@ -18,8 +19,15 @@ public class SeatMapResponse {
         this.bookedSeats = bookedSeats;
     }
 
+    public SeatMapResponse(int flightId, int totalSeats, int availableSeats, List<String> bookedSeats,
+            List<String> heldSeats) {
+        this(flightId, totalSeats, availableSeats, bookedSeats);
+        this.heldSeats = heldSeats;
+    }
+
     public int getFlightId() { return flightId; }
     public int getTotalSeats() { return totalSeats; }
     public int getAvailableSeats() { return availableSeats; }
     public List<String> getBookedSeats() { return bookedSeats; }
+    public List<String> getHeldSeats() { return heldSeats; }
 }
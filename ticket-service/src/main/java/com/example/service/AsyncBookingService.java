@@ -0,0 +1,156 @@
+package com.example.service;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.example.config.BookingExecutorConfig;
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.ServiceBusyException;
+import com.example.request.BookTicketRequest;
+import com.example.response.BookingStatusResponse;
+import com.example.response.BookingStatusResponse.Status;
+
+/**
+ * Accepts bookings without holding a request thread for the remote calls. A request is validated
+ * cheaply, given its PNR and queued on the bounded booking executor; when the queue is full it is
+ * turned away with 503 rather than waiting. Outcomes are kept in memory for
+ * {@code ticket.async-booking.retention}, after which a confirmed PNR is still found in the tickets table.
+ *
+ * Only the instance that took a booking knows it is in progress, and a status poll may land on
+ * another one. There a well-formed PNR that has no ticket yet reads as pending rather than 404, so
+ * a client keeps polling until the booking shows up; a code that was never well-formed is still 404.
+ */
+@Service
+public class AsyncBookingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncBookingService.class);
+
+    static final long MAX_WAIT_SECONDS = 30;
+
+    private static final class PendingBooking {
+        private final String pnr;
+        private final CompletableFuture<BookingStatusResponse> outcome = new CompletableFuture<>();
+        private volatile Instant finishedAt;
+
+        PendingBooking(String pnr) {
+            this.pnr = pnr;
+        }
+
+        BookingStatusResponse current() {
+            return outcome.getNow(new BookingStatusResponse(pnr, Status.PENDING, null));
+        }
+
+        void finish(Status status, String message) {
+            finishedAt = Instant.now();
+            outcome.complete(new BookingStatusResponse(pnr, status, message));
+        }
+    }
+
+    private final TicketService ticketService;
+    private final PnrGenerator pnrGenerator;
+    private final Executor bookingExecutor;
+    private final Map<String, PendingBooking> bookings = new ConcurrentHashMap<>();
+
+    @Value("${ticket.async-booking.retention:10m}")
+    private Duration retention = Duration.ofMinutes(10);
+
+    public AsyncBookingService(
+            TicketService ticketService,
+            PnrGenerator pnrGenerator,
+            @Qualifier(BookingExecutorConfig.BOOKING_EXECUTOR) Executor bookingExecutor) {
+
+        this.ticketService = ticketService;
+        this.pnrGenerator = pnrGenerator;
+        this.bookingExecutor = bookingExecutor;
+    }
+
+    public ResponseEntity<BookingStatusResponse> submitBookingService(BookTicketRequest req) {
+
+        TicketService.validateBookingRequest(req);
+
+        PendingBooking pending = new PendingBooking(pnrGenerator.next());
+        bookings.put(pending.pnr, pending);
+
+        try {
+            bookingExecutor.execute(() -> process(pending, req));
+        } catch (RejectedExecutionException ex) {
+            bookings.remove(pending.pnr);
+            throw new ServiceBusyException("Too many bookings in progress, please retry shortly");
+        }
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/ticket/book/status/" + pending.pnr))
+                .body(pending.current());
+    }
+
+    /**
+     * Current status of a booking. With {@code waitSeconds} above zero a pending booking is held open
+     * until it finishes or the wait runs out, whichever comes first.
+     */
+    public DeferredResult<ResponseEntity<BookingStatusResponse>> getBookingStatusService(String pnr, long waitSeconds) {
+
+        PendingBooking pending = bookings.get(pnr);
+
+        if (pending == null) {
+            DeferredResult<ResponseEntity<BookingStatusResponse>> elsewhere = new DeferredResult<>();
+            elsewhere.setResult(ResponseEntity.ok(untrackedStatus(pnr)));
+            return elsewhere;
+        }
+
+        long waitMillis = Duration.ofSeconds(Math.min(Math.max(waitSeconds, 0), MAX_WAIT_SECONDS)).toMillis();
+        DeferredResult<ResponseEntity<BookingStatusResponse>> result =
+                new DeferredResult<>(waitMillis, () -> ResponseEntity.ok(pending.current()));
+
+        if (waitMillis == 0 || pending.outcome.isDone()) {
+            result.setResult(ResponseEntity.ok(pending.current()));
+        } else {
+            pending.outcome.thenAccept(status -> result.setResult(ResponseEntity.ok(status)));
+        }
+        return result;
+    }
+
+    private BookingStatusResponse untrackedStatus(String pnr) {
+        if (ticketService.findByPnr(pnr).isPresent()) {
+            return new BookingStatusResponse(pnr, Status.CONFIRMED, null);
+        }
+        if (!PnrCodec.isWellFormed(PnrCodec.normalize(pnr))) {
+            throw new ResourceNotFoundException("Booking not found");
+        }
+        return new BookingStatusResponse(pnr, Status.PENDING, null);
+    }
+
+    private void process(PendingBooking pending, BookTicketRequest req) {
+        try {
+            ticketService.book(req, pending.pnr);
+            pending.finish(Status.CONFIRMED, null);
+        } catch (RuntimeException ex) {
+            logger.info("Async booking rejected | pnr={} | {}", pending.pnr, ex.getMessage());
+            pending.finish(Status.REJECTED, ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.async-booking.cleanup-millis:60000}")
+    public void evictFinished() {
+        Instant cutoff = Instant.now().minus(retention);
+        bookings.values().removeIf(pending -> pending.finishedAt != null && pending.finishedAt.isBefore(cutoff));
+    }
+
+    int trackedBookings() {
+        return bookings.size();
+    }
+}
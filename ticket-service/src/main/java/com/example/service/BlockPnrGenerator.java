@@ -0,0 +1,68 @@
+package com.example.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.model.PnrBlock;
+import com.example.repository.PnrBlockRepository;
+
+/**
+ * Default {@link PnrGenerator}. Each instance claims a block of {@link #BLOCK_SIZE} numbers from a
+ * database sequence and hands them out with a single atomic increment, so codes are unique across
+ * instances while only one booking in {@value #BLOCK_SIZE} touches the database. Numbers left in a
+ * block when the instance stops are never used.
+ */
+@Component
+public class BlockPnrGenerator implements PnrGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockPnrGenerator.class);
+
+    // block n covers [n * BLOCK_SIZE, (n + 1) * BLOCK_SIZE); changing it would overlap blocks already handed out
+    static final int BLOCK_SIZE = 1024;
+
+    private static final String NODE = ManagementFactory.getRuntimeMXBean().getName();
+
+    private record Block(long end, AtomicLong next) {}
+
+    private final LongSupplier blockSource;
+    private volatile Block current = new Block(0, new AtomicLong());
+
+    @Autowired
+    public BlockPnrGenerator(PnrBlockRepository blockRepository) {
+        this(() -> blockRepository.save(new PnrBlock(NODE, Instant.now())).getId());
+    }
+
+    BlockPnrGenerator(LongSupplier blockSource) {
+        this.blockSource = blockSource;
+    }
+
+    @Override
+    public String next() {
+        while (true) {
+            Block block = current;
+            long number = block.next().getAndIncrement();
+            if (number < block.end()) {
+                return PnrCodec.encode(number);
+            }
+            refill(block);
+        }
+    }
+
+    // only the first thread to find the block used up claims the next one
+    private synchronized void refill(Block exhausted) {
+        if (current != exhausted) {
+            return;
+        }
+        long blockId = blockSource.getAsLong();
+        long start = blockId * BLOCK_SIZE;
+        current = new Block(start + BLOCK_SIZE, new AtomicLong(start));
+        logger.debug("Claimed PNR block {} | node={}", blockId, NODE);
+    }
+}
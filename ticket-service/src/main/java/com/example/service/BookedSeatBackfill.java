@@ -0,0 +1,42 @@
+package com.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.repository.BookedSeatRepository;
+
+/**
+ * Fills booked_seats for tickets booked before it existed, once at startup. Instances starting
+ * together may race on the same rows; the loser's insert fails on the unique key and the winner's
+ * rows stand, so that is only logged.
+ */
+@Component
+public class BookedSeatBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookedSeatBackfill.class);
+
+    private final BookedSeatRepository bookedSeatRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookedSeatBackfill(BookedSeatRepository bookedSeatRepository, TransactionTemplate transactionTemplate) {
+        this.bookedSeatRepository = bookedSeatRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            Integer rows = transactionTemplate.execute(status -> bookedSeatRepository.backfill());
+            if (rows != null && rows > 0) {
+                logger.info("Booked seats backfilled | rows={}", rows);
+            }
+        } catch (DataAccessException ex) {
+            logger.warn("Booked seat backfill failed | {}", ex.getMostSpecificCause().getMessage());
+        }
+    }
+}
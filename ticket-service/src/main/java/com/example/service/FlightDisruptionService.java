@@ -0,0 +1,114 @@
+package com.example.service;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.model.SeatRelease;
+import com.example.repository.BookedSeatRepository;
+import com.example.repository.OutboxEventRepository;
+import com.example.repository.SeatReleaseRepository;
+import com.example.repository.TicketRepository;
+import com.example.repository.TicketRepository.BookedTicket;
+import com.example.response.FlightDisruptionResponse;
+
+/**
+ * Cancels every booked ticket on a flight. Tickets are walked in id order a chunk at a time, each
+ * chunk in its own transaction: lock the chunk, flip it to cancelled with one update, queue its
+ * notifications with one insert and record the seats owed to flight-service. Only ids, seat counts
+ * and the chunk's seat numbers are read, so memory stays flat however large the flight. The owed
+ * seats are handed back by {@link SeatReleaseRelay} right after, and retried by it if that fails.
+ *
+ * Running it again after a failure picks up the tickets that are still booked.
+ */
+@Service
+public class FlightDisruptionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightDisruptionService.class);
+
+    static final String CANCELLATION_TOPIC = "ticket-cancelled";
+
+    private final TicketRepository ticketRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final SeatReleaseRepository seatReleaseRepository;
+    private final SeatReleaseRelay seatReleaseRelay;
+    private final SeatInventory seatInventory;
+    private final BookedSeatRepository bookedSeatRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ticket.disruption.chunk-size:200}")
+    private int chunkSize = 200;
+
+    public FlightDisruptionService(
+            TicketRepository ticketRepository,
+            OutboxEventRepository outboxEventRepository,
+            SeatReleaseRepository seatReleaseRepository,
+            SeatReleaseRelay seatReleaseRelay,
+            SeatInventory seatInventory,
+            BookedSeatRepository bookedSeatRepository,
+            TransactionTemplate transactionTemplate) {
+
+        this.ticketRepository = ticketRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.seatReleaseRepository = seatReleaseRepository;
+        this.seatReleaseRelay = seatReleaseRelay;
+        this.seatInventory = seatInventory;
+        this.bookedSeatRepository = bookedSeatRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public ResponseEntity<FlightDisruptionResponse> cancelFlightTicketsService(int flightId) {
+
+        long start = System.currentTimeMillis();
+        int tickets = 0;
+        int seats = 0;
+        int lastTicketId = 0;
+
+        while (true) {
+            int after = lastTicketId;
+            Chunk chunk = transactionTemplate.execute(status -> cancelChunk(flightId, after));
+            if (chunk == null || chunk.tickets() == 0) {
+                break;
+            }
+            tickets += chunk.tickets();
+            seats += chunk.seats();
+            lastTicketId = chunk.lastTicketId();
+        }
+
+        if (seats > 0) {
+            seatReleaseRelay.relay();
+        }
+
+        logger.info("Flight tickets cancelled | flightId={} | tickets={} | seats={} | {} ms",
+                flightId, tickets, seats, System.currentTimeMillis() - start);
+        return ResponseEntity.ok(new FlightDisruptionResponse(flightId, tickets, seats));
+    }
+
+    private record Chunk(int tickets, int seats, int lastTicketId) {
+    }
+
+    private Chunk cancelChunk(int flightId, int afterTicketId) {
+        List<BookedTicket> booked = ticketRepository.lockBookedChunk(flightId, afterTicketId, chunkSize);
+        if (booked.isEmpty()) {
+            return new Chunk(0, 0, afterTicketId);
+        }
+
+        List<Integer> ids = booked.stream().map(BookedTicket::getTicketId).toList();
+        ticketRepository.cancelAll(ids);
+        bookedSeatRepository.deleteByTicketIdIn(ids);
+        Instant now = Instant.now();
+        outboxEventRepository.enqueueForTickets(CANCELLATION_TOPIC, ids, now);
+
+        int seats = booked.stream().mapToInt(BookedTicket::getNumberOfSeats).sum();
+        seatReleaseRepository.save(new SeatRelease(flightId, seats, now));
+        // only these seats, so holds and bookings made meanwhile stay as they are
+        seatInventory.releaseOnCommit(flightId, ticketRepository.findSeatNumbersByTicketIdIn(ids));
+        return new Chunk(ids.size(), seats, ids.get(ids.size() - 1));
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.event.TicketBookedEvent;
+import com.example.event.TicketCancelledEvent;
+import com.example.feign.PassengerInterface;
+import com.example.model.OutboxEvent;
+import com.example.repository.OutboxEventRepository;
+import com.example.response.PassengerDetailsResponse;
+
+/**
+ * Publishes booking and cancellation events from the outbox table to Kafka in the background. Each run claims a
+ * batch of due rows, resolves any e-mail the row does not already carry in one batched call, sends
+ * the whole batch and waits for the broker once. Sent rows are deleted; failed ones are retried with exponential
+ * backoff until {@code ticket.outbox.max-attempts}, after which they stay behind as FAILED.
+ *
+ * Claiming is its own short transaction that pushes the rows' next attempt {@code ticket.outbox.claim-lease}
+ * ahead, so other instances leave them alone while the lookup and sends run without any row locked.
+ * Rows of an instance that dies mid-batch come due again once the lease runs out.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final PassengerInterface passengerInterface;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    @Value("${ticket.outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${ticket.outbox.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${ticket.outbox.initial-backoff:1s}")
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    @Value("${ticket.outbox.max-backoff:5m}")
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    @Value("${ticket.outbox.send-timeout:10s}")
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    // longer than a passenger lookup plus the send timeout, or a slow batch could be claimed twice
+    @Value("${ticket.outbox.claim-lease:2m}")
+    private Duration claimLease = Duration.ofMinutes(2);
+
+    @Autowired
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            PassengerInterface passengerInterface,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            TransactionTemplate transactionTemplate) {
+
+        this(outboxEventRepository, passengerInterface, kafkaTemplate, transactionTemplate, Clock.systemUTC());
+    }
+
+    OutboxRelay(OutboxEventRepository outboxEventRepository, PassengerInterface passengerInterface,
+            KafkaTemplate<String, Object> kafkaTemplate, TransactionTemplate transactionTemplate,
+            Clock clock) {
+
+        this.outboxEventRepository = outboxEventRepository;
+        this.passengerInterface = passengerInterface;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.outbox.poll-millis:500}")
+    public void relay() {
+        // keep draining while batches come back full
+        int claimed;
+        do {
+            claimed = relayBatch();
+        } while (claimed >= batchSize);
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> claim());
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> sent = publish(claimed);
+
+        transactionTemplate.execute(status -> {
+            if (!sent.isEmpty()) {
+                outboxEventRepository.deleteAllInBatch(sent);
+            }
+            List<OutboxEvent> retrying = claimed.stream().filter(event -> !sent.contains(event)).toList();
+            if (!retrying.isEmpty()) {
+                outboxEventRepository.saveAll(retrying);
+            }
+            return null;
+        });
+        logger.debug("Outbox relay | sent={} | retrying={}", sent.size(), claimed.size() - sent.size());
+        return claimed.size();
+    }
+
+    private List<OutboxEvent> claim() {
+        Instant now = clock.instant();
+        List<OutboxEvent> due = outboxEventRepository.claimDue(OutboxEvent.Status.PENDING, now,
+                PageRequest.of(0, batchSize));
+        due.forEach(event -> event.setNextAttemptAt(now.plus(claimLease)));
+        return due;
+    }
+
+    /** Sends the events, returning the ones done with; the rest have been given their next attempt. */
+    private List<OutboxEvent> publish(List<OutboxEvent> events) {
+
+        Set<Integer> unresolved = new LinkedHashSet<>();
+        events.stream().filter(event -> event.getEmail() == null)
+                .forEach(event -> unresolved.add(event.getPassengerId()));
+
+        Map<Integer, PassengerDetailsResponse> passengers = Map.of();
+        if (!unresolved.isEmpty()) {
+            try {
+                passengers = passengerInterface.getPassengerDetailsByIds(List.copyOf(unresolved)).getBody();
+            } catch (RuntimeException ex) {
+                events.forEach(event -> retryLater(event, ex));
+                logger.warn("Outbox relay | passenger lookup failed for {} events | {}", events.size(), ex.getMessage());
+                return List.of();
+            }
+        }
+
+        List<OutboxEvent> sent = new ArrayList<>();
+        List<OutboxEvent> pending = new ArrayList<>();
+        List<CompletableFuture<?>> sends = new ArrayList<>();
+
+        for (OutboxEvent event : events) {
+            PassengerDetailsResponse passenger = passengers == null ? null : passengers.get(event.getPassengerId());
+            String email = event.getEmail() != null ? event.getEmail() : passenger == null ? null : passenger.getEmail();
+            if (email == null) {
+                // nobody left to notify
+                logger.warn("Outbox relay | passenger {} not found, dropping event for pnr={}",
+                        event.getPassengerId(), event.getPnr());
+                sent.add(event);
+                continue;
+            }
+            try {
+                sends.add(kafkaTemplate.send(event.getTopic(), event.getPnr(), message(event, email)));
+                pending.add(event);
+            } catch (RuntimeException ex) {
+                retryLater(event, ex);
+            }
+        }
+
+        awaitSends(sends);
+
+        for (int i = 0; i < pending.size(); i++) {
+            CompletableFuture<?> send = sends.get(i);
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                sent.add(pending.get(i));
+            } else {
+                Throwable cause = send.isDone() ? send.handle((value, ex) -> ex).join() : new TimeoutException("Send timed out");
+                retryLater(pending.get(i), cause);
+            }
+        }
+
+        return sent;
+    }
+
+    // each topic has its own event class, so consumers never take a cancellation for a booking
+    private static Object message(OutboxEvent event, String email) {
+        return switch (event.getTopic()) {
+            case TicketService.BOOKING_TOPIC ->
+                    new TicketBookedEvent(email, event.getPnr(), event.getFlightId(), event.getNumberOfSeats());
+            case FlightDisruptionService.CANCELLATION_TOPIC ->
+                    new TicketCancelledEvent(email, event.getPnr(), event.getFlightId(), event.getNumberOfSeats());
+            default -> throw new IllegalStateException("No event type for topic " + event.getTopic());
+        };
+    }
+
+    private void awaitSends(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            // outcome is read per send
+        }
+    }
+
+    private void retryLater(OutboxEvent event, Throwable cause) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        String message = String.valueOf(cause.getMessage());
+        event.setLastError(message.length() > 255 ? message.substring(0, 255) : message);
+
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxEvent.Status.FAILED);
+            logger.error("Outbox relay | giving up on event {} for pnr={} after {} attempts | {}",
+                    event.getId(), event.getPnr(), attempts, cause.getMessage());
+            return;
+        }
+
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration backoff = initialBackoff.multipliedBy(factor);
+        Instant next = clock.instant().plus(backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff);
+        event.setNextAttemptAt(next);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.service;
+
+import java.util.Locale;
+
+/**
+ * Turns PNR numbers into short codes a customer can read out: Crockford base-32, so no I, L, O or
+ * U, followed by a Luhn mod 32 check character that catches any single mistyped character and
+ * most swapped neighbours. Numbers below 2^30 take 6 characters, the next 2^35 take 7.
+ *
+ * The number is scrambled with a bijection first, so consecutive bookings do not get consecutive
+ * codes. That only keeps codes from looking guessable; it is not a secret.
+ */
+final class PnrCodec {
+
+    static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    private static final int BASE = 32;
+    private static final int SHORT_BITS = 30;
+    private static final int LONG_BITS = 35;
+
+    private PnrCodec() {}
+
+    static String encode(long number) {
+        if (number < 0) {
+            throw new IllegalArgumentException("PNR number cannot be negative");
+        }
+        if (number < 1L << SHORT_BITS) {
+            return withCheck(symbols(scramble(number, SHORT_BITS), SHORT_BITS / 5));
+        }
+        long rest = number - (1L << SHORT_BITS);
+        if (rest >= 1L << LONG_BITS) {
+            throw new IllegalStateException("PNR numbers exhausted");
+        }
+        return withCheck(symbols(scramble(rest, LONG_BITS), LONG_BITS / 5));
+    }
+
+    static boolean isWellFormed(String code) {
+        if (code == null || (code.length() != SHORT_BITS / 5 + 1 && code.length() != LONG_BITS / 5 + 1)) {
+            return false;
+        }
+        for (int i = 0; i < code.length(); i++) {
+            if (ALPHABET.indexOf(code.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return luhnSum(code, 1) % BASE == 0;
+    }
+
+    /**
+     * The code as it is stored, if {@code input} is a code read out loosely: any case, surrounding
+     * blanks, O for 0 or I and L for 1. Anything else, such as an older UUID reference, comes back as is.
+     */
+    static String normalize(String input) {
+        if (input == null) {
+            return null;
+        }
+        String candidate = input.trim().toUpperCase(Locale.ROOT)
+                .replace('O', '0')
+                .replace('I', '1')
+                .replace('L', '1');
+        return isWellFormed(candidate) ? candidate : input;
+    }
+
+    // multiplying by an odd constant and xor-shifting right are both invertible modulo 2^bits
+    private static long scramble(long x, int bits) {
+        long mask = (1L << bits) - 1;
+        int shift = bits / 2 + 1;
+        x = (x * 0x9E3779B97F4A7C15L) & mask;
+        x ^= x >>> shift;
+        x = (x * 0xBF58476D1CE4E5B9L) & mask;
+        x ^= x >>> shift;
+        return x;
+    }
+
+    private static String symbols(long value, int length) {
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = ALPHABET.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(chars);
+    }
+
+    private static String withCheck(String payload) {
+        int check = (BASE - luhnSum(payload, 2) % BASE) % BASE;
+        return payload + ALPHABET.charAt(check);
+    }
+
+    // Luhn mod N, weighting from the rightmost character
+    private static int luhnSum(String code, int firstFactor) {
+        int factor = firstFactor;
+        int sum = 0;
+        for (int i = code.length() - 1; i >= 0; i--) {
+            int addend = factor * ALPHABET.indexOf(code.charAt(i));
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / BASE + addend % BASE;
+        }
+        return sum;
+    }
+}
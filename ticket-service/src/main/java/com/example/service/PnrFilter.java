@@ -0,0 +1,201 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.repository.TicketRepository;
+import com.example.repository.TicketRepository.TicketPnr;
+
+/**
+ * Bloom filter over every PNR in the tickets table, so a lookup for a reference that was never issued
+ * is turned away without a query. A "no" is certain; a "maybe" still goes to the database, wrongly
+ * about {@code ticket.pnr.filter-fpp} of the time while the table stays under
+ * {@code ticket.pnr.filter-expected} tickets.
+ *
+ * Bookings on this instance are added as they are made; tickets above the highest id read so far are
+ * read every {@code ticket.pnr.filter-refresh-millis} for bookings made elsewhere, so a PNR issued by
+ * another instance can be reported missing until the next refresh. Until the first full load it
+ * answers "maybe" to everything.
+ *
+ * Ids are handed out before commit, so a booking can commit after a higher id was already read. Ids
+ * skipped by a refresh are looked up again on every refresh until they turn up, or for
+ * {@code ticket.pnr.filter-gap-timeout}, after which they are taken to be rolled-back bookings.
+ */
+@Component
+public class PnrFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PnrFilter.class);
+
+    private static final int PAGE_SIZE = 5000;
+    // beyond this many open gaps the oldest are given up on early
+    private static final int MAX_GAPS = 10_000;
+
+    private final TicketRepository ticketRepository;
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long gapTimeoutMillis;
+
+    private volatile boolean ready;
+    // guarded by this
+    private int lastTicketId;
+    // skipped ids, in the order they were found, with when they were found; guarded by this
+    private final Map<Integer, Long> gaps = new LinkedHashMap<>();
+
+    @Autowired
+    public PnrFilter(
+            TicketRepository ticketRepository,
+            @Value("${ticket.pnr.filter-expected:1000000}") int expected,
+            @Value("${ticket.pnr.filter-fpp:0.01}") double fpp,
+            @Value("${ticket.pnr.filter-gap-timeout:10m}") Duration gapTimeout) {
+
+        this.ticketRepository = ticketRepository;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        long bits = (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, (bits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expected * Math.log(2)));
+    }
+
+    PnrFilter(TicketRepository ticketRepository) {
+        this(ticketRepository, 1000, 0.01, Duration.ofMinutes(10));
+    }
+
+    public boolean mightExist(String pnr) {
+        if (!ready) {
+            return true;
+        }
+        if (pnr == null) {
+            return false;
+        }
+        long hash = hash(pnr);
+        long step = step(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(String pnr) {
+        long hash = hash(pnr);
+        long step = step(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            words.accumulateAndGet((int) (bit >>> 6), 1L << bit, (word, mask) -> word | mask);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.pnr.filter-refresh-millis:1000}")
+    public void refresh() {
+        refresh(System.currentTimeMillis());
+    }
+
+    synchronized void refresh(long nowMillis) {
+        long start = System.currentTimeMillis();
+        int after = lastTicketId;
+        int read = 0;
+        try {
+            recheckGaps(nowMillis);
+            List<TicketPnr> page;
+            do {
+                page = ticketRepository.findPnrsAfter(after, PageRequest.of(0, PAGE_SIZE));
+                for (TicketPnr row : page) {
+                    add(row.getPnr());
+                    for (int skipped = after + 1; skipped < row.getTicketId(); skipped++) {
+                        gaps.put(skipped, nowMillis);
+                    }
+                    after = row.getTicketId();
+                }
+                read += page.size();
+            } while (page.size() == PAGE_SIZE);
+        } catch (RuntimeException ex) {
+            logger.warn("PNR filter refresh failed | {}", ex.getMessage());
+            return;
+        } finally {
+            lastTicketId = Math.max(lastTicketId, after);
+        }
+        trimGaps();
+        if (!ready) {
+            ready = true;
+            logger.info("PNR filter loaded | tickets={} | bits={} | hashes={} | {} ms",
+                    read, bitCount, hashCount, System.currentTimeMillis() - start);
+        }
+    }
+
+    // rows that committed since their id was skipped are added; ids open too long are given up on
+    private void recheckGaps(long nowMillis) {
+        gaps.values().removeIf(foundAt -> nowMillis - foundAt > gapTimeoutMillis);
+        if (gaps.isEmpty()) {
+            return;
+        }
+        List<Integer> open = new ArrayList<>(gaps.keySet());
+        for (int from = 0; from < open.size(); from += PAGE_SIZE) {
+            List<Integer> ids = open.subList(from, Math.min(open.size(), from + PAGE_SIZE));
+            for (TicketPnr row : ticketRepository.findPnrsByTicketIdIn(ids)) {
+                add(row.getPnr());
+                gaps.remove(row.getTicketId());
+            }
+        }
+    }
+
+    private void trimGaps() {
+        int excess = gaps.size() - MAX_GAPS;
+        if (excess <= 0) {
+            return;
+        }
+        logger.warn("PNR filter gave up on {} skipped ticket ids early", excess);
+        Iterator<Integer> oldest = gaps.keySet().iterator();
+        for (int i = 0; i < excess; i++) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    int openGaps() {
+        return gaps.size();
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    // FNV-1a, then the MurmurHash3 finalizer to spread it over all 64 bits
+    private static long hash(String pnr) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < pnr.length(); i++) {
+            h ^= pnr.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long step(long hash) {
+        return mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
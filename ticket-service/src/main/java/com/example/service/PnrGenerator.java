@@ -0,0 +1,8 @@
+package com.example.service;
+
+/** Hands out booking references; every call returns one that has never been returned before. */
+@FunctionalInterface
+public interface PnrGenerator {
+
+    String next();
+}
@@ -0,0 +1,241 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.config.WebClientConfig;
+import com.example.exception.ResourceNotFoundException;
+import com.example.model.Ticket;
+import com.example.repository.ReactiveTicketReader;
+import com.example.response.FlightResponse;
+import com.example.response.PassengerDetailsResponse;
+import com.example.response.SeatMapResponse;
+import com.example.response.TicketResponse;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The ticket reads of {@link TicketService} without a thread per request: tickets come from
+ * {@link ReactiveTicketReader} and flights and passengers from {@link WebClient}s, so a request
+ * waiting on the database or another service costs memory but no thread. Responses are the same
+ * as the blocking reads give, and so are the circuit breakers they count against.
+ */
+@Service
+public class ReactiveTicketService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTicketService.class);
+
+    private static final ParameterizedTypeReference<List<FlightResponse>> FLIGHTS =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<Map<Integer, PassengerDetailsResponse>> PASSENGERS =
+            new ParameterizedTypeReference<>() {};
+
+    private final ReactiveTicketReader ticketReader;
+    private final PnrFilter pnrFilter;
+    private final SeatInventory seatInventory;
+    private final WebClient flightClient;
+    private final WebClient passengerClient;
+
+    @Value("${ticket.remote-call-timeout:3s}")
+    private Duration remoteCallTimeout = Duration.ofSeconds(3);
+
+    public ReactiveTicketService(
+            ReactiveTicketReader ticketReader,
+            PnrFilter pnrFilter,
+            SeatInventory seatInventory,
+            @Qualifier(WebClientConfig.FLIGHT_WEB_CLIENT) WebClient flightClient,
+            @Qualifier(WebClientConfig.PASSENGER_WEB_CLIENT) WebClient passengerClient) {
+
+        this.ticketReader = ticketReader;
+        this.pnrFilter = pnrFilter;
+        this.seatInventory = seatInventory;
+        this.flightClient = flightClient;
+        this.passengerClient = passengerClient;
+    }
+
+    @CircuitBreaker(name = "flightService", fallbackMethod = "getByPnrFallback")
+    public Mono<ResponseEntity<TicketResponse>> getByPnr(String pnr) {
+
+        String code = PnrCodec.normalize(pnr);
+        Mono<Ticket> ticket = pnrFilter.mightExist(code) ? ticketReader.findByPnr(code) : Mono.empty();
+
+        return ticket
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Ticket not found")))
+                .flatMap(found -> found.hasSnapshot()
+                        ? Mono.just(TicketService.snapshotResponse(found))
+                        : fetchDetails(found))
+                .map(ResponseEntity::ok);
+    }
+
+    public Mono<ResponseEntity<TicketResponse>> getByPnrFallback(String pnr, Throwable ex) {
+        logger.warn("reactive getByPnr fallback | pnr={} | {}", pnr, ex.getMessage());
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    // tickets booked before snapshots existed: the flight and every passenger are fetched at once
+    private Mono<TicketResponse> fetchDetails(Ticket ticket) {
+
+        Mono<FlightResponse> flight = remote(flightClient.get()
+                .uri("/flight/getFlightById/{id}", ticket.getFlightId())
+                .retrieve()
+                .bodyToMono(FlightResponse.class))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Flight details unavailable")));
+
+        Mono<List<PassengerDetailsResponse>> passengers = Flux.fromIterable(ticket.getPassengerIds())
+                .flatMapSequential(pid -> remote(passengerClient.get()
+                        .uri("/passenger/getByPassengerId/{id}", pid)
+                        .retrieve()
+                        .bodyToMono(PassengerDetailsResponse.class))
+                        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Passenger not found: " + pid))))
+                .collectList();
+
+        return Mono.zip(flight, passengers)
+                .map(details -> TicketService.buildResponse(ticket, details.getT1(), details.getT2()));
+    }
+
+    @CircuitBreaker(name = "passengerService", fallbackMethod = "getTicketsByEmailFallback")
+    public Mono<ResponseEntity<List<TicketResponse>>> getTicketsByEmail(String email) {
+
+        return ticketReader.findAllByPassengerEmail(email).collectList()
+                .flatMap(snapshotted -> snapshotted.isEmpty()
+                        ? byPassengerLookup(email)
+                        : withLegacyTickets(email, snapshotted));
+    }
+
+    // nothing to serve locally, so only here does the listing depend on passenger-service
+    private Mono<ResponseEntity<List<TicketResponse>>> byPassengerLookup(String email) {
+        return remote(passengerClient.get()
+                .uri("/passenger/getPassengerIdByEmail/{email}", email)
+                .retrieve()
+                .bodyToMono(Integer.class))
+                .flatMap(passengerId -> ticketReader.findAllByPassengerId(passengerId).collectList())
+                .flatMap(tickets -> {
+                    List<Ticket> legacy = tickets.stream().filter(ticket -> !ticket.hasSnapshot()).toList();
+                    return enrich(legacy)
+                            .map(responses -> ResponseEntity.ok(TicketService.inTicketOrder(tickets, responses)));
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // the snapshots name the passenger, so their tickets booked before snapshots existed need no lookup
+    private Mono<ResponseEntity<List<TicketResponse>>> withLegacyTickets(String email, List<Ticket> snapshotted) {
+        return Flux.fromIterable(TicketService.passengerIdsWithEmail(snapshotted, email))
+                .concatMap(ticketReader::findAllByPassengerId)
+                .collectList()
+                .flatMap(known -> {
+                    List<Ticket> tickets = TicketService.mergeById(snapshotted, known);
+                    List<Ticket> legacy = tickets.stream().filter(ticket -> !ticket.hasSnapshot()).toList();
+                    return enrich(legacy)
+                            .map(responses -> TicketService.inTicketOrder(tickets, responses))
+                            .onErrorResume(ex -> {
+                                // legacy tickets need the remote details; the snapshotted ones are still worth serving
+                                logger.warn("reactive getTicketsByEmail serving snapshots only | email={} | legacy={} | {}",
+                                        email, legacy.size(), ex.getMessage());
+                                List<Ticket> served = tickets.stream().filter(Ticket::hasSnapshot).toList();
+                                return Mono.just(TicketService.inTicketOrder(served, List.of()));
+                            });
+                })
+                .map(ResponseEntity::ok);
+    }
+
+    public Mono<ResponseEntity<List<TicketResponse>>> getTicketsByEmailFallback(String email, Throwable ex) {
+        logger.warn("reactive getTicketsByEmail fallback | email={} | {}", email, ex.getMessage());
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    // the same batched lookups as TicketService, all in flight together
+    private Mono<List<TicketResponse>> enrich(List<Ticket> tickets) {
+
+        if (tickets.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        Set<Integer> flightIds = new LinkedHashSet<>();
+        Set<Integer> passengerIds = new LinkedHashSet<>();
+        for (Ticket ticket : tickets) {
+            flightIds.add(ticket.getFlightId());
+            passengerIds.addAll(ticket.getPassengerIds());
+        }
+
+        Mono<Map<Integer, FlightResponse>> flights = Flux.fromIterable(TicketService.batches(flightIds))
+                .flatMap(ids -> remote(flightClient.post()
+                        .uri("/flight/getFlightsByIds")
+                        .bodyValue(ids)
+                        .retrieve()
+                        .bodyToMono(FLIGHTS)))
+                .flatMapIterable(found -> found)
+                .collectMap(FlightResponse::getFlightId);
+
+        Mono<Map<Integer, PassengerDetailsResponse>> passengers = Flux.fromIterable(TicketService.batches(passengerIds))
+                .flatMap(ids -> remote(passengerClient.post()
+                        .uri("/passenger/getByPassengerIds")
+                        .bodyValue(ids)
+                        .retrieve()
+                        .bodyToMono(PASSENGERS)))
+                .reduceWith(HashMap<Integer, PassengerDetailsResponse>::new, (all, found) -> {
+                    all.putAll(found);
+                    return all;
+                });
+
+        return Mono.zip(flights, passengers)
+                .map(found -> TicketService.toResponses(tickets, found.getT1(), found.getT2()));
+    }
+
+    /**
+     * Same as {@link TicketService#getSeatMap(int, String)}. A flight whose seats are not in memory
+     * yet is read over R2DBC first, so not even the first poll blocks.
+     */
+    public Mono<ResponseEntity<SeatMapResponse>> getSeatMap(int flightId, String ifNoneMatch) {
+
+        Mono<FlightResponse> flight = remote(flightClient.get()
+                .uri("/flight/getFlightById/{id}", flightId)
+                .retrieve()
+                .bodyToMono(FlightResponse.class))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Flight not found")))
+                .cache();
+
+        // version and seats in one read that never loads on this thread, even if the flight is evicted
+        // meanwhile; a flight not in memory is checked first, so unknown ids never get an entry
+        Mono<SeatInventory.Snapshot> seats = Mono.defer(() -> seatInventory.snapshotIfLoaded(flightId)
+                .map(Mono::just)
+                .orElseGet(() -> flight.then(Mono.defer(() -> ticketReader.findBookedSeatNumbers(flightId)))
+                        .map(booked -> seatInventory.load(flightId, booked))));
+
+        return seats.flatMap(snapshot -> {
+
+            String etag = TicketService.seatMapEtag(snapshot.version());
+            if (TicketService.etagMatches(ifNoneMatch, etag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CacheControl.noCache())
+                        .<SeatMapResponse>build());
+            }
+
+            return flight.map(f -> ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(TicketService.seatMapResponse(flightId, f, snapshot.bookedSeats(), snapshot.heldSeats())));
+        });
+    }
+
+    private <T> Mono<T> remote(Mono<T> call) {
+        return call.timeout(remoteCallTimeout);
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatAlreadyBookedException;
+import com.example.feign.FlightInterface;
+import com.example.request.SeatHoldRequest;
+import com.example.response.FlightResponse;
+import com.example.response.SeatHoldResponse;
+
+/**
+ * Seats held for a few minutes while a customer checks out. Holds live in memory only: the seats
+ * are marked held in {@link SeatInventory}, so bookings and other holds cannot take them, and a
+ * timer wheel releases them once they expire. Booking with the hold id turns the held seats into
+ * booked ones without another conflict check.
+ *
+ * Holds cost nothing to take, so the seats one passenger may hold and the seats held on one flight
+ * are both capped; past either cap a hold is refused with 409 until earlier holds end.
+ */
+@Service
+public class SeatHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldService.class);
+
+    record SeatHold(String holdId, int flightId, int passengerId, List<String> seatNumbers, Instant expiresAt) {
+    }
+
+    private final SeatInventory seatInventory;
+    private final FlightInterface flightInterface;
+    private final Clock clock;
+    private final int defaultMinutes;
+    private final int maxMinutes;
+    private final int maxSeatsPerPassenger;
+    private final int maxSeatsPerFlight;
+
+    private final Map<String, SeatHold> holds = new ConcurrentHashMap<>();
+    // seats under live holds, kept next to holds so the caps are checked without a scan
+    private final Map<Integer, Integer> seatsHeldByPassenger = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> seatsHeldOnFlight = new ConcurrentHashMap<>();
+    private final TimerWheel<String> expiries;
+
+    @Autowired
+    public SeatHoldService(
+            SeatInventory seatInventory,
+            FlightInterface flightInterface,
+            @Value("${ticket.seat-hold.default-minutes:10}") int defaultMinutes,
+            @Value("${ticket.seat-hold.max-minutes:15}") int maxMinutes,
+            @Value("${ticket.seat-hold.max-seats-per-passenger:9}") int maxSeatsPerPassenger,
+            @Value("${ticket.seat-hold.max-seats-per-flight:60}") int maxSeatsPerFlight,
+            @Value("${ticket.seat-hold.tick-millis:1000}") long tickMillis) {
+
+        this(seatInventory, flightInterface, Clock.systemUTC(), defaultMinutes, maxMinutes, maxSeatsPerPassenger,
+                maxSeatsPerFlight, tickMillis);
+    }
+
+    SeatHoldService(SeatInventory seatInventory, FlightInterface flightInterface, Clock clock,
+            int defaultMinutes, int maxMinutes, int maxSeatsPerPassenger, int maxSeatsPerFlight, long tickMillis) {
+
+        this.seatInventory = seatInventory;
+        this.flightInterface = flightInterface;
+        this.clock = clock;
+        this.defaultMinutes = defaultMinutes;
+        this.maxMinutes = maxMinutes;
+        this.maxSeatsPerPassenger = maxSeatsPerPassenger;
+        this.maxSeatsPerFlight = maxSeatsPerFlight;
+        // one turn of the wheel covers the longest hold
+        int wheelSize = (int) Math.max(1, Duration.ofMinutes(maxMinutes).toMillis() / tickMillis + 1);
+        this.expiries = new TimerWheel<>(tickMillis, wheelSize, clock.millis());
+    }
+
+    public ResponseEntity<SeatHoldResponse> holdSeatsService(SeatHoldRequest req) {
+
+        if (req.getSeatNumbers() == null || req.getSeatNumbers().isEmpty()) {
+            throw new IllegalArgumentException("Please select at least one seat");
+        }
+
+        int minutes = req.getMinutes() == null ? defaultMinutes : req.getMinutes();
+        if (minutes < 1 || minutes > maxMinutes) {
+            throw new IllegalArgumentException("Seats can be held for 1 to " + maxMinutes + " minutes");
+        }
+
+        List<String> normalizedSeats = TicketService.normalizeSeats(req.getSeatNumbers());
+
+        FlightResponse flight = flightInterface.getByID(req.getFlightId()).getBody();
+        if (flight == null) {
+            throw new ResourceNotFoundException("Flight not found");
+        }
+
+        TicketService.validateSeatNumbers(normalizedSeats, flight.getTotalSeats());
+
+        SeatHold hold = new SeatHold(UUID.randomUUID().toString(), req.getFlightId(), req.getPassengerId(),
+                normalizedSeats, clock.instant().plus(Duration.ofMinutes(minutes)));
+
+        if (!count(seatsHeldByPassenger, hold.passengerId(), normalizedSeats.size(), maxSeatsPerPassenger)) {
+            throw new SeatAlreadyBookedException("A passenger can hold at most " + maxSeatsPerPassenger + " seats at a time");
+        }
+        if (!count(seatsHeldOnFlight, hold.flightId(), normalizedSeats.size(), maxSeatsPerFlight)) {
+            uncount(seatsHeldByPassenger, hold.passengerId(), normalizedSeats.size());
+            throw new SeatAlreadyBookedException("Too many seats are held on this flight, please retry shortly");
+        }
+
+        List<String> conflicts = seatInventory.tryHold(req.getFlightId(), normalizedSeats);
+        if (!conflicts.isEmpty()) {
+            uncount(hold);
+            throw new SeatAlreadyBookedException("Seats not available: " + String.join(", ", conflicts));
+        }
+
+        holds.put(hold.holdId(), hold);
+        expiries.schedule(hold.holdId(), hold.expiresAt().toEpochMilli());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                new SeatHoldResponse(hold.holdId(), hold.flightId(), hold.seatNumbers(), hold.expiresAt()));
+    }
+
+    public ResponseEntity<String> releaseHoldService(String holdId) {
+
+        SeatHold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new ResourceNotFoundException("Seat hold not found");
+        }
+
+        expiries.cancel(holdId);
+        uncount(hold);
+        seatInventory.releaseHold(hold.flightId(), hold.seatNumbers());
+
+        return ResponseEntity.ok("Seat hold released");
+    }
+
+    /**
+     * Books the seats held under {@code holdId}, which must be exactly {@code seatNumbers} on
+     * {@code flightId}. The hold is used up; if the surrounding transaction rolls back, it is put
+     * back with its original expiry.
+     */
+    void bookHeldSeats(String holdId, int flightId, List<String> seatNumbers) {
+
+        SeatHold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new ResourceNotFoundException("Seat hold not found or expired");
+        }
+        expiries.cancel(holdId);
+        uncount(hold);
+
+        if (!clock.instant().isBefore(hold.expiresAt())) {
+            seatInventory.releaseHold(hold.flightId(), hold.seatNumbers());
+            throw new ResourceNotFoundException("Seat hold not found or expired");
+        }
+
+        if (hold.flightId() != flightId
+                || !new HashSet<>(hold.seatNumbers()).equals(new HashSet<>(seatNumbers))) {
+            restore(hold);
+            throw new IllegalArgumentException("Seats do not match the hold");
+        }
+
+        seatInventory.bookHeld(flightId, hold.seatNumbers());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        restore(hold);
+                    }
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.seat-hold.tick-millis:1000}")
+    public void expireHolds() {
+        expire(clock.millis());
+    }
+
+    void expire(long nowMillis) {
+        for (String holdId : expiries.advance(nowMillis)) {
+            SeatHold hold = holds.remove(holdId);
+            if (hold != null) {
+                uncount(hold);
+                seatInventory.releaseHold(hold.flightId(), hold.seatNumbers());
+                logger.debug("Seat hold expired | holdId={} | flightId={} | seats={}",
+                        holdId, hold.flightId(), hold.seatNumbers());
+            }
+        }
+    }
+
+    int activeHolds() {
+        return holds.size();
+    }
+
+    // adds seats to key's count unless that would take it past max
+    private static boolean count(Map<Integer, Integer> counts, int key, int seats, int max) {
+        boolean[] counted = {false};
+        counts.compute(key, (k, held) -> {
+            int current = held == null ? 0 : held;
+            if (current + seats > max) {
+                return held;
+            }
+            counted[0] = true;
+            return current + seats;
+        });
+        return counted[0];
+    }
+
+    private static void uncount(Map<Integer, Integer> counts, int key, int seats) {
+        counts.computeIfPresent(key, (k, held) -> held > seats ? held - seats : null);
+    }
+
+    private void uncount(SeatHold hold) {
+        uncount(seatsHeldByPassenger, hold.passengerId(), hold.seatNumbers().size());
+        uncount(seatsHeldOnFlight, hold.flightId(), hold.seatNumbers().size());
+    }
+
+    // a hold put back after a rollback already had its seats, so it may go past the caps
+    private void restore(SeatHold hold) {
+        seatsHeldByPassenger.merge(hold.passengerId(), hold.seatNumbers().size(), Integer::sum);
+        seatsHeldOnFlight.merge(hold.flightId(), hold.seatNumbers().size(), Integer::sum);
+        holds.put(hold.holdId(), hold);
+        expiries.schedule(hold.holdId(), hold.expiresAt().toEpochMilli());
+    }
+}
@@ -0,0 +1,458 @@
+package com.example.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.repository.TicketRepository;
+import com.example.repository.TicketRepository.FlightSeat;
+import com.example.response.SeatMapDelta;
+import com.example.response.SeatMapDelta.Change;
+
+/**
+ * Booked and held seats per flight as bitmaps, seat n at bit n - 1. A flight's booked bitmap is
+ * read from the database the first time it is needed and kept up to date by booking and
+ * cancellation, so conflict checks and seat maps are word operations instead of scans over every
+ * booked seat row. Holds only ever live here.
+ *
+ * Seats are claimed here before the booking commits and given back if it rolls back, which also
+ * stops two concurrent bookings on this instance from taking the same seat. Other instances keep
+ * their own copy, so this is only a fast first check: the booked_seats unique key decides, and
+ * loaded flights are read again every {@code ticket.seat-inventory.resync-millis} so bookings and
+ * cancellations made elsewhere reach versions and listeners too.
+ *
+ * Every change to a flight's seats gives it a new version, so callers can tell whether anything
+ * moved since they last looked without reading the seats themselves. Listeners are told about each
+ * change as a delta, bookings only once they commit.
+ *
+ * Flights nobody has touched for {@code ticket.seat-inventory.idle-ttl} are dropped and read again
+ * on next use, unless seats are held on them or a booking is still waiting to commit.
+ */
+@Component
+public class SeatInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventory.class);
+
+    private static final int RESYNC_BATCH = 500;
+
+    private static final class FlightSeats {
+        private final BitSet booked;
+        private final BitSet held = new BitSet();
+        private long version;
+        // seats of bookings claimed here whose transaction has not finished yet
+        private final BitSet claimed = new BitSet();
+        // bumped by every change made here, so a resync can tell its read is already out of date
+        private long changes;
+        private boolean evicted;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        FlightSeats(BitSet booked, long version) {
+            this.booked = booked;
+            this.version = version;
+        }
+    }
+
+    /** A flight's version with the booked and held seats it names, read together. */
+    public record Snapshot(long version, List<String> bookedSeats, List<String> heldSeats) {
+    }
+
+    private final TicketRepository ticketRepository;
+    private final Map<Integer, FlightSeats> seatsByFlight = new ConcurrentHashMap<>();
+    // seeded from the clock so versions are not handed out again after a restart
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final List<Consumer<SeatMapDelta>> changeListeners = new CopyOnWriteArrayList<>();
+
+    @Value("${ticket.seat-inventory.idle-ttl:30m}")
+    private Duration idleTtl = Duration.ofMinutes(30);
+
+    public SeatInventory(TicketRepository ticketRepository) {
+        this.ticketRepository = ticketRepository;
+    }
+
+    /** Called with every change, in the order a flight's seats changed; must not block. */
+    void onSeatChange(Consumer<SeatMapDelta> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Marks {@code seats} as booked unless any of them is already booked or held; returns the ones
+     * that were taken, in which case nothing is marked.
+     */
+    public List<String> tryBook(int flightId, Collection<String> seats) {
+        BitSet requested = toBits(seats);
+        return locked(flightId, flight -> {
+            List<String> conflicts = conflicts(flight, requested);
+            if (!conflicts.isEmpty()) {
+                return conflicts;
+            }
+            flight.booked.or(requested);
+            flight.claimed.or(requested);
+            touch(flight);
+
+            // claimed seats go back if the booking does not commit
+            onCompletion(
+                    () -> {
+                        synchronized (flight) {
+                            flight.claimed.andNot(requested);
+                            flight.changes++;
+                            publish(flightId, flight, Change.BOOKED, requested);
+                        }
+                    },
+                    () -> {
+                        synchronized (flight) {
+                            flight.claimed.andNot(requested);
+                            flight.booked.andNot(requested);
+                            touch(flight);
+                            publish(flightId, flight, Change.RELEASED, requested);
+                        }
+                    });
+            return List.of();
+        });
+    }
+
+    /** Same check as {@link #tryBook}, but the seats are only held. */
+    public List<String> tryHold(int flightId, Collection<String> seats) {
+        BitSet requested = toBits(seats);
+        return locked(flightId, flight -> {
+            List<String> conflicts = conflicts(flight, requested);
+            if (conflicts.isEmpty()) {
+                flight.held.or(requested);
+                touch(flight);
+                publish(flightId, flight, Change.HELD, requested);
+            }
+            return conflicts;
+        });
+    }
+
+    /**
+     * Turns held seats into booked ones. The hold already excluded every other booking and hold,
+     * so there is nothing to check; if the booking rolls back the seats are held again.
+     */
+    public void bookHeld(int flightId, Collection<String> seats) {
+        BitSet held = toBits(seats);
+        locked(flightId, flight -> {
+            flight.held.andNot(held);
+            flight.booked.or(held);
+            flight.claimed.or(held);
+            touch(flight);
+
+            onCompletion(
+                    () -> {
+                        synchronized (flight) {
+                            flight.claimed.andNot(held);
+                            flight.changes++;
+                            publish(flightId, flight, Change.BOOKED, held);
+                        }
+                    },
+                    () -> {
+                        synchronized (flight) {
+                            flight.claimed.andNot(held);
+                            flight.booked.andNot(held);
+                            flight.held.or(held);
+                            touch(flight);
+                            publish(flightId, flight, Change.HELD, held);
+                        }
+                    });
+            return null;
+        });
+    }
+
+    public void releaseHold(int flightId, Collection<String> seats) {
+        FlightSeats flight = seatsByFlight.get(flightId);
+        if (flight == null) {
+            return;
+        }
+        BitSet released = toBits(seats);
+        synchronized (flight) {
+            flight.held.andNot(released);
+            touch(flight);
+            publish(flightId, flight, Change.HOLD_RELEASED, released);
+        }
+    }
+
+    /** Frees booked {@code seats} once the surrounding transaction commits, or right away without one. */
+    public void releaseOnCommit(int flightId, Collection<String> seats) {
+        BitSet released = toBits(seats);
+        Runnable release = () -> {
+            FlightSeats flight = seatsByFlight.get(flightId);
+            if (flight != null) {
+                synchronized (flight) {
+                    flight.booked.andNot(released);
+                    touch(flight);
+                    publish(flightId, flight, Change.RELEASED, released);
+                }
+            }
+        };
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release.run();
+            }
+        });
+    }
+
+    /** Changes whenever the flight's booked or held seats do; never repeats for a flight on this instance. */
+    public long version(int flightId) {
+        FlightSeats flight = seats(flightId);
+        synchronized (flight) {
+            return flight.version;
+        }
+    }
+
+    /** True once the flight's seats are in memory, so reading them no longer touches the database. */
+    public boolean isLoaded(int flightId) {
+        return seatsByFlight.containsKey(flightId);
+    }
+
+    /**
+     * Keeps booked seats the caller read itself, for callers that must not block on the database.
+     * Ignored if the flight was loaded in the meantime, since that copy is the one bookings update;
+     * either way the snapshot returned is of the copy kept.
+     */
+    public Snapshot load(int flightId, Collection<String> bookedSeats) {
+        return snapshot(seatsByFlight.computeIfAbsent(flightId,
+                id -> new FlightSeats(toBits(bookedSeats), versions.incrementAndGet())));
+    }
+
+    /** The flight's seats if they are in memory. Never reads the database, so it cannot block. */
+    public Optional<Snapshot> snapshotIfLoaded(int flightId) {
+        FlightSeats flight = seatsByFlight.get(flightId);
+        return flight == null ? Optional.empty() : Optional.of(snapshot(flight));
+    }
+
+    private static Snapshot snapshot(FlightSeats flight) {
+        flight.lastUsedNanos = System.nanoTime();
+        synchronized (flight) {
+            return new Snapshot(flight.version, toSeats(flight.booked), toSeats(flight.held));
+        }
+    }
+
+    /** Booked seat numbers in ascending order. */
+    public List<String> bookedSeats(int flightId) {
+        FlightSeats flight = seats(flightId);
+        synchronized (flight) {
+            return toSeats(flight.booked);
+        }
+    }
+
+    /** Held seat numbers in ascending order. */
+    public List<String> heldSeats(int flightId) {
+        FlightSeats flight = seats(flightId);
+        synchronized (flight) {
+            return toSeats(flight.held);
+        }
+    }
+
+    public int bookedCount(int flightId) {
+        FlightSeats flight = seats(flightId);
+        synchronized (flight) {
+            return flight.booked.cardinality();
+        }
+    }
+
+    private static List<String> conflicts(FlightSeats flight, BitSet requested) {
+        if (!requested.intersects(flight.booked) && !requested.intersects(flight.held)) {
+            return List.of();
+        }
+        BitSet taken = (BitSet) flight.booked.clone();
+        taken.or(flight.held);
+        taken.and(requested);
+        return toSeats(taken);
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.seat-inventory.sweep-millis:60000}")
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    void evictIdle(long nowNanos) {
+        long idleNanos = idleTtl.toNanos();
+        for (Integer flightId : seatsByFlight.keySet()) {
+            evict(flightId, flight -> nowNanos - flight.lastUsedNanos > idleNanos);
+        }
+    }
+
+    private void evict(int flightId, Predicate<FlightSeats> unused) {
+        seatsByFlight.computeIfPresent(flightId, (id, flight) -> {
+            synchronized (flight) {
+                // held seats and uncommitted bookings exist nowhere else, so those flights stay
+                flight.evicted = unused.test(flight) && flight.held.isEmpty() && flight.claimed.isEmpty();
+                return flight.evicted ? null : flight;
+            }
+        });
+    }
+
+    // a flight evicted between the lookup and the lock is loaded again, so no change lands on a dropped copy
+    private <T> T locked(int flightId, Function<FlightSeats, T> action) {
+        while (true) {
+            FlightSeats flight = seats(flightId);
+            synchronized (flight) {
+                if (!flight.evicted) {
+                    return action.apply(flight);
+                }
+            }
+        }
+    }
+
+    private FlightSeats seats(int flightId) {
+        FlightSeats flight = seatsByFlight.computeIfAbsent(flightId,
+                id -> new FlightSeats(toBits(ticketRepository.findBookedSeatNumbers(id)), versions.incrementAndGet()));
+        flight.lastUsedNanos = System.nanoTime();
+        return flight;
+    }
+
+    /**
+     * Drops the flight once the surrounding transaction ends, whichever way, so its seats are read
+     * again on next use; with seats held or claimed here it is left to the next resync instead.
+     */
+    public void invalidateAfterCompletion(int flightId) {
+        Runnable invalidate = () -> evict(flightId, flight -> true);
+        onCompletion(invalidate, invalidate);
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.seat-inventory.resync-millis:5000}")
+    public void resync() {
+        List<Integer> loaded = new ArrayList<>(seatsByFlight.keySet());
+        for (int from = 0; from < loaded.size(); from += RESYNC_BATCH) {
+            try {
+                resync(loaded.subList(from, Math.min(loaded.size(), from + RESYNC_BATCH)));
+            } catch (RuntimeException ex) {
+                logger.warn("Seat inventory resync failed | {}", ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Replaces the booked seats of loaded flights with what the database has, keeping bookings
+     * still waiting to commit here, and tells listeners what moved. A flight changed here while the
+     * database was being read is left for the next run, since the read may already be behind it.
+     */
+    void resync(List<Integer> flightIds) {
+        Map<Integer, Long> changesBefore = new HashMap<>();
+        for (Integer flightId : flightIds) {
+            FlightSeats flight = seatsByFlight.get(flightId);
+            if (flight != null) {
+                synchronized (flight) {
+                    changesBefore.put(flightId, flight.changes);
+                }
+            }
+        }
+        if (changesBefore.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, List<String>> stored = new HashMap<>();
+        for (FlightSeat row : ticketRepository.findBookedSeatsByFlightIdIn(changesBefore.keySet())) {
+            stored.computeIfAbsent(row.getFlightId(), id -> new ArrayList<>()).add(row.getSeatNumber());
+        }
+
+        changesBefore.forEach((flightId, changes) -> {
+            FlightSeats flight = seatsByFlight.get(flightId);
+            if (flight == null) {
+                return;
+            }
+            synchronized (flight) {
+                if (flight.evicted || flight.changes != changes) {
+                    return;
+                }
+                BitSet current = toBits(stored.getOrDefault(flightId, List.of()));
+                current.or(flight.claimed);
+                BitSet added = (BitSet) current.clone();
+                added.andNot(flight.booked);
+                BitSet removed = (BitSet) flight.booked.clone();
+                removed.andNot(current);
+                if (added.isEmpty() && removed.isEmpty()) {
+                    return;
+                }
+                flight.booked.or(added);
+                flight.booked.andNot(removed);
+                touch(flight);
+                publish(flightId, flight, Change.BOOKED, added);
+                publish(flightId, flight, Change.RELEASED, removed);
+            }
+        });
+    }
+
+    // callers hold the flight's lock
+    private void touch(FlightSeats flight) {
+        flight.version = versions.incrementAndGet();
+        flight.changes++;
+    }
+
+    // holding the flight's lock keeps its deltas in the order the seats changed
+    private void publish(int flightId, FlightSeats flight, Change change, BitSet seats) {
+        if (changeListeners.isEmpty() || seats.isEmpty()) {
+            return;
+        }
+        synchronized (flight) {
+            SeatMapDelta delta = new SeatMapDelta(flightId, change, toSeats(seats));
+            changeListeners.forEach(listener -> listener.accept(delta));
+        }
+    }
+
+    /** Runs {@code committed} after the surrounding transaction commits, or right away without one. */
+    private static void onCompletion(Runnable committed, Runnable rolledBack) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    committed.run();
+                } else {
+                    rolledBack.run();
+                }
+            }
+        });
+    }
+
+    private static BitSet toBits(Collection<String> seats) {
+        BitSet bits = new BitSet();
+        for (String seat : seats) {
+            try {
+                int number = Integer.parseInt(seat.trim());
+                if (number >= 1) {
+                    bits.set(number - 1);
+                }
+            } catch (NumberFormatException ex) {
+                logger.warn("Ignoring non-numeric seat {}", seat);
+            }
+        }
+        return bits;
+    }
+
+    private static List<String> toSeats(BitSet bits) {
+        List<String> seats = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            seats.add(Integer.toString(i + 1));
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.config.SeatStreamExecutorConfig;
+import com.example.exception.ServiceBusyException;
+import com.example.response.SeatMapDelta;
+import com.example.response.SeatMapResponse;
+
+/**
+ * Live seat maps over server-sent events. A subscriber gets the full seat map once, then every
+ * {@link SeatMapDelta} for its flight as {@link SeatInventory} reports it, so a browser keeps its map
+ * current without polling.
+ *
+ * Deltas are applied to a client's sets in order and are idempotent, so a delta that is already part
+ * of the initial map does no harm. Each subscriber has its own bounded buffer, drained on the stream
+ * executor; one that falls {@code ticket.seat-stream.buffer-size} events behind is disconnected and
+ * starts again from a fresh map when it reconnects.
+ *
+ * Sends block until the client takes the bytes, so a subscriber whose send has not returned within
+ * {@code ticket.seat-stream.send-timeout} is dropped and the stream executor gets an extra worker
+ * until that send gives up, up to {@code ticket.seat-stream.max-stalled-sends} of them. Stalled
+ * clients therefore never use up the workers everyone else is drained on.
+ */
+@Service
+public class SeatMapBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatMapBroadcaster.class);
+
+    private record Event(String name, Object data) {}
+
+    private static final Event HEARTBEAT = new Event(null, null);
+
+    // sendingSince while no send is in progress, and once the watchdog has given up on one
+    private static final long IDLE = 0;
+    private static final long STALLED = -1;
+
+    private final class Subscriber {
+        private final int flightId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicLong sendingSince = new AtomicLong(IDLE);
+        private volatile Event first;
+        private volatile boolean started;
+
+        Subscriber(int flightId, SseEmitter emitter) {
+            this.flightId = flightId;
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                logger.debug("Seat map subscriber fell behind, disconnecting | flightId={}", flightId);
+                close();
+                emitter.complete();
+                return;
+            }
+            if (started) {
+                scheduleDrain();
+            }
+        }
+
+        // the initial map goes out before anything buffered while it was being built
+        void start(Event initial) {
+            first = initial;
+            started = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                streamExecutor.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                draining.set(false);
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            try {
+                if (first != null) {
+                    send(first);
+                    first = null;
+                }
+                Event event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // the client went away; the emitter's callbacks finish the clean-up
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (sendingSince.get() == STALLED) {
+                emitter.complete();
+                return;
+            }
+            if (!closed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Event event) throws IOException {
+            long start = Math.max(System.nanoTime(), 1);
+            sendingSince.set(start);
+            try {
+                if (event == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+                }
+            } finally {
+                if (!sendingSince.compareAndSet(start, IDLE)) {
+                    // the watchdog gave up on this send and lent the executor a worker in the meantime
+                    stalledSends.decrementAndGet();
+                    resizeWorkers();
+                }
+            }
+        }
+
+        void dropIfStalled(long nowNanos, long timeoutNanos) {
+            long since = sendingSince.get();
+            if (since <= IDLE || nowNanos - since <= timeoutNanos || !sendingSince.compareAndSet(since, STALLED)) {
+                return;
+            }
+            logger.debug("Seat map subscriber stopped reading, disconnecting | flightId={}", flightId);
+            close();
+            stalledSends.incrementAndGet();
+            resizeWorkers();
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscribersByFlight.computeIfPresent(flightId, (id, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private final TicketService ticketService;
+    private final Executor streamExecutor;
+    private final Map<Integer, Set<Subscriber>> subscribersByFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicInteger stalledSends = new AtomicInteger();
+    private final int workers;
+
+    @Value("${ticket.seat-stream.buffer-size:64}")
+    private int bufferSize = 64;
+
+    @Value("${ticket.seat-stream.max-subscribers:10000}")
+    private int maxSubscribers = 10000;
+
+    @Value("${ticket.seat-stream.timeout:30m}")
+    private Duration timeout = Duration.ofMinutes(30);
+
+    @Value("${ticket.seat-stream.send-timeout:5s}")
+    private Duration sendTimeout = Duration.ofSeconds(5);
+
+    @Value("${ticket.seat-stream.max-stalled-sends:64}")
+    private int maxStalledSends = 64;
+
+    public SeatMapBroadcaster(
+            TicketService ticketService,
+            SeatInventory seatInventory,
+            @Qualifier(SeatStreamExecutorConfig.SEAT_STREAM_EXECUTOR) Executor streamExecutor) {
+
+        this.ticketService = ticketService;
+        this.streamExecutor = streamExecutor;
+        this.workers = streamExecutor instanceof ThreadPoolTaskExecutor pool ? pool.getCorePoolSize() : 0;
+        seatInventory.onSeatChange(this::broadcast);
+    }
+
+    public SseEmitter streamSeatMapService(int flightId) {
+
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceBusyException("Too many seat map subscribers, please retry shortly");
+        }
+
+        SseEmitter emitter = newEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(flightId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+
+        // subscribe before reading the map, so no change can fall between the two
+        subscribersByFlight.compute(flightId, (id, subscribers) -> {
+            Set<Subscriber> target = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            target.add(subscriber);
+            return target;
+        });
+
+        SeatMapResponse seatMap;
+        try {
+            seatMap = ticketService.getSeatMap(flightId).getBody();
+        } catch (RuntimeException ex) {
+            subscriber.close();
+            throw ex;
+        }
+        subscriber.start(new Event("snapshot", seatMap));
+        return emitter;
+    }
+
+    void broadcast(SeatMapDelta delta) {
+        Set<Subscriber> subscribers = subscribersByFlight.get(delta.getFlightId());
+        if (subscribers == null) {
+            return;
+        }
+        Event event = new Event("delta", delta);
+        subscribers.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    // keeps idle streams open through proxies and notices clients that have gone
+    @Scheduled(fixedDelayString = "${ticket.seat-stream.heartbeat-millis:15000}")
+    public void heartbeat() {
+        subscribersByFlight.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.seat-stream.stall-check-millis:1000}")
+    public void dropStalled() {
+        dropStalled(System.nanoTime());
+    }
+
+    void dropStalled(long nowNanos) {
+        long timeoutNanos = sendTimeout.toNanos();
+        subscribersByFlight.values().forEach(subscribers ->
+                subscribers.forEach(subscriber -> subscriber.dropIfStalled(nowNanos, timeoutNanos)));
+    }
+
+    // one extra worker per send still stuck on a dropped subscriber, so the others keep being drained
+    private synchronized void resizeWorkers() {
+        if (!(streamExecutor instanceof ThreadPoolTaskExecutor pool)) {
+            return;
+        }
+        int size = workers + Math.min(Math.max(stalledSends.get(), 0), maxStalledSends);
+        if (size > pool.getMaxPoolSize()) {
+            pool.setMaxPoolSize(size);
+            pool.setCorePoolSize(size);
+        } else {
+            pool.setCorePoolSize(size);
+            pool.setMaxPoolSize(size);
+        }
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    int subscribers(int flightId) {
+        Set<Subscriber> subscribers = subscribersByFlight.get(flightId);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.feign.FlightInterface;
+import com.example.model.SeatRelease;
+import com.example.repository.SeatReleaseRepository;
+
+import feign.FeignException;
+
+/**
+ * Hands seats freed by bulk cancellation back to flight-service. Each run claims the due rows in a
+ * short transaction, leasing them for {@code ticket.seat-release.claim-lease}, then releases each
+ * flight's seats in one call with nothing locked. Released rows are deleted; failed ones are tried
+ * again with exponential backoff, for as long as it takes, since giving up would lose the seats.
+ * A flight flight-service no longer has is dropped.
+ */
+@Component
+public class SeatReleaseRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatReleaseRelay.class);
+
+    private final SeatReleaseRepository seatReleaseRepository;
+    private final FlightInterface flightInterface;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    @Value("${ticket.seat-release.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${ticket.seat-release.initial-backoff:1s}")
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    @Value("${ticket.seat-release.max-backoff:5m}")
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    @Value("${ticket.seat-release.claim-lease:1m}")
+    private Duration claimLease = Duration.ofMinutes(1);
+
+    @Autowired
+    public SeatReleaseRelay(
+            SeatReleaseRepository seatReleaseRepository,
+            FlightInterface flightInterface,
+            TransactionTemplate transactionTemplate) {
+
+        this(seatReleaseRepository, flightInterface, transactionTemplate, Clock.systemUTC());
+    }
+
+    SeatReleaseRelay(SeatReleaseRepository seatReleaseRepository, FlightInterface flightInterface,
+            TransactionTemplate transactionTemplate, Clock clock) {
+
+        this.seatReleaseRepository = seatReleaseRepository;
+        this.flightInterface = flightInterface;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${ticket.seat-release.poll-millis:5000}")
+    public void relay() {
+        // keep draining while batches come back full
+        int claimed;
+        do {
+            claimed = relayBatch();
+        } while (claimed >= batchSize);
+    }
+
+    int relayBatch() {
+        List<SeatRelease> claimed = transactionTemplate.execute(status -> claim());
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, List<SeatRelease>> byFlight = new LinkedHashMap<>();
+        claimed.forEach(release -> byFlight.computeIfAbsent(release.getFlightId(), id -> new ArrayList<>()).add(release));
+
+        List<SeatRelease> done = new ArrayList<>();
+        List<SeatRelease> retrying = new ArrayList<>();
+        byFlight.forEach((flightId, releases) -> {
+            int seats = releases.stream().mapToInt(SeatRelease::getSeats).sum();
+            try {
+                flightInterface.releaseSeats(flightId, seats);
+                done.addAll(releases);
+            } catch (RuntimeException ex) {
+                if (flightGone(ex)) {
+                    logger.warn("Seat release dropped, flight is gone | flightId={} | seats={}", flightId, seats);
+                    done.addAll(releases);
+                    return;
+                }
+                logger.warn("Seat release failed | flightId={} | seats={} | {}", flightId, seats, ex.getMessage());
+                releases.forEach(release -> retryLater(release, ex));
+                retrying.addAll(releases);
+            }
+        });
+
+        transactionTemplate.execute(status -> {
+            if (!done.isEmpty()) {
+                seatReleaseRepository.deleteAllInBatch(done);
+            }
+            if (!retrying.isEmpty()) {
+                seatReleaseRepository.saveAll(retrying);
+            }
+            return null;
+        });
+        return claimed.size();
+    }
+
+    private List<SeatRelease> claim() {
+        Instant now = clock.instant();
+        List<SeatRelease> due = seatReleaseRepository.claimDue(now, PageRequest.of(0, batchSize));
+        due.forEach(release -> release.setNextAttemptAt(now.plus(claimLease)));
+        return due;
+    }
+
+    // these Feign calls have no circuit breaker around them, so the 404 arrives as thrown
+    private static boolean flightGone(Throwable ex) {
+        return ex instanceof FeignException.NotFound;
+    }
+
+    private void retryLater(SeatRelease release, Throwable cause) {
+        int attempts = release.getAttempts() + 1;
+        release.setAttempts(attempts);
+        String message = String.valueOf(cause.getMessage());
+        release.setLastError(message.length() > 255 ? message.substring(0, 255) : message);
+
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration backoff = initialBackoff.multipliedBy(factor);
+        release.setNextAttemptAt(clock.instant().plus(backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff));
+    }
+}
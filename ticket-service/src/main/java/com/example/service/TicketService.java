@@ -1,28 +1,60 @@
 package com.example.service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import com.example.event.TicketBookedEvent;
+import com.example.config.EnrichmentExecutorConfig;
 import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatAlreadyBookedException;
 import com.example.feign.FlightInterface;
 import com.example.feign.PassengerInterface;
+import com.example.model.BookedSeat;
+import com.example.model.OutboxEvent;
+import com.example.model.PassengerSnapshot;
 import com.example.model.Ticket;
+import com.example.repository.BookedSeatRepository;
+import com.example.repository.OutboxEventRepository;
 import com.example.repository.TicketRepository;
 import com.example.request.BookTicketRequest;
+import com.example.request.MultiSegmentBookingRequest;
+import com.example.request.SeatReservation;
 import com.example.response.FlightResponse;
 import com.example.response.PassengerDetailsResponse;
 import com.example.response.SeatMapResponse;
@@ -35,26 +67,58 @@ public class TicketService {
 
     private static final Logger logger = LoggerFactory.getLogger(TicketService.class);
 
+    // ids per batched remote call; well under the 500-id limit of the batch endpoints
+    static final int ENRICHMENT_BATCH_SIZE = 200;
+
+    static final String BOOKING_TOPIC = "ticket-confirmation";
+
+    static final int MAX_SEGMENTS = 6;
+
     private final TicketRepository ticketRepository;
     private final PassengerInterface passengerInterface;
     private final FlightInterface flightInterface;
-    private final KafkaTemplate<String, TicketBookedEvent> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final Executor enrichmentExecutor;
+    private final SeatInventory seatInventory;
+    private final SeatHoldService seatHoldService;
+    private final PnrGenerator pnrGenerator;
+    private final PnrFilter pnrFilter;
+    private final BookedSeatRepository bookedSeatRepository;
+
+    @Value("${ticket.remote-call-timeout:3s}")
+    private Duration remoteCallTimeout = Duration.ofSeconds(3);
 
     public TicketService(
             TicketRepository ticketRepository,
             PassengerInterface passengerInterface,
             FlightInterface flightInterface,
-            KafkaTemplate<String, TicketBookedEvent> kafkaTemplate) {
+            OutboxEventRepository outboxEventRepository,
+            @Qualifier(EnrichmentExecutorConfig.ENRICHMENT_EXECUTOR) Executor enrichmentExecutor,
+            SeatInventory seatInventory,
+            SeatHoldService seatHoldService,
+            PnrGenerator pnrGenerator,
+            PnrFilter pnrFilter,
+            BookedSeatRepository bookedSeatRepository) {
 
         this.ticketRepository = ticketRepository;
         this.passengerInterface = passengerInterface;
         this.flightInterface = flightInterface;
-        this.kafkaTemplate = kafkaTemplate;
+        this.outboxEventRepository = outboxEventRepository;
+        this.enrichmentExecutor = enrichmentExecutor;
+        this.seatInventory = seatInventory;
+        this.seatHoldService = seatHoldService;
+        this.pnrGenerator = pnrGenerator;
+        this.pnrFilter = pnrFilter;
+        this.bookedSeatRepository = bookedSeatRepository;
     }
 
     @Transactional
-    @SuppressWarnings("null")
     public ResponseEntity<String> bookTicketService(BookTicketRequest req) {
+        return ResponseEntity.ok(book(req, pnrGenerator.next()));
+    }
+
+    /** Checks that need no remote call or lock; failing them never reaches the booking pipeline. */
+    static void validateBookingRequest(BookTicketRequest req) {
 
         if (req.getPassengerIds() == null || req.getPassengerIds().isEmpty()) {
             throw new IllegalArgumentException("Passenger list cannot be empty");
@@ -68,6 +132,19 @@ public class TicketService {
             throw new IllegalArgumentException("Passengers and seats count must match");
         }
 
+        List<String> normalizedSeats = normalizeSeats(req.getSeatNumbers());
+        if (new HashSet<>(normalizedSeats).size() != normalizedSeats.size()) {
+            throw new IllegalArgumentException("Duplicate seat numbers are not allowed");
+        }
+    }
+
+    /** Books under the given PNR and returns it. */
+    @Transactional
+    @SuppressWarnings("null")
+    public String book(BookTicketRequest req, String pnr) {
+
+        validateBookingRequest(req);
+
         List<String> normalizedSeats = normalizeSeats(req.getSeatNumbers());
 
         FlightResponse flight = flightInterface.getByID(req.getFlightId()).getBody();
@@ -82,37 +159,167 @@ public class TicketService {
             throw new IllegalArgumentException("Not enough seats available");
         }
 
-        List<String> alreadyBooked = ticketRepository.findBookedSeatNumbers(req.getFlightId())
-                .stream()
-                .map(this::normalizeSeat)
+        List<PassengerSnapshot> passengers =
+                toSnapshots(req.getPassengerIds(), lookupPassengers(req.getPassengerIds()));
+
+        claimSeats(req, normalizedSeats);
+
+        flightInterface.reserveSeats(req.getFlightId(), req.getPassengerIds().size());
+        releaseOnRollback(List.of(new SeatReservation(req.getFlightId(), req.getPassengerIds().size())));
+
+        Ticket saved = ticketRepository.save(buildTicket(req, pnr, normalizedSeats, flight, passengers));
+        recordBookedSeats(List.of(saved));
+        pnrFilter.add(saved.getPnr());
+        // published by OutboxRelay once this transaction commits
+        enqueueBookingEvents(saved);
+
+        return saved.getPnr();
+    }
+
+    /**
+     * Books every segment of a trip as one unit: all flights in one lookup, all passengers in one
+     * lookup, and seats on every flight reserved with one batched call. Returns one PNR per segment,
+     * in request order. If anything fails after the reserve call, the seats are released again.
+     */
+    @Transactional
+    @SuppressWarnings("null")
+    public ResponseEntity<List<String>> bookSegmentsService(MultiSegmentBookingRequest req) {
+
+        List<BookTicketRequest> segments = req.getSegments();
+        if (segments == null || segments.isEmpty()) {
+            throw new IllegalArgumentException("At least one segment is required");
+        }
+        if (segments.size() > MAX_SEGMENTS) {
+            throw new IllegalArgumentException("At most " + MAX_SEGMENTS + " segments per booking");
+        }
+
+        Set<Integer> flightIds = new LinkedHashSet<>();
+        Set<Integer> passengerIds = new LinkedHashSet<>();
+        for (BookTicketRequest segment : segments) {
+            validateBookingRequest(segment);
+            if (segment.getFlightId() == null || !flightIds.add(segment.getFlightId())) {
+                throw new IllegalArgumentException("Each segment must be on a different flight");
+            }
+            passengerIds.addAll(segment.getPassengerIds());
+        }
+
+        List<FlightResponse> found = flightInterface.getFlightsByIds(List.copyOf(flightIds)).getBody();
+        Map<Integer, FlightResponse> flights = new HashMap<>();
+        if (found != null) {
+            found.forEach(flight -> flights.put(flight.getFlightId(), flight));
+        }
+
+        List<List<String>> seatsBySegment = new ArrayList<>(segments.size());
+        for (BookTicketRequest segment : segments) {
+            FlightResponse flight = flights.get(segment.getFlightId());
+            if (flight == null) {
+                throw new ResourceNotFoundException("Flight not found: " + segment.getFlightId());
+            }
+            List<String> normalizedSeats = normalizeSeats(segment.getSeatNumbers());
+            validateSeatNumbers(normalizedSeats, flight.getTotalSeats());
+            if (flight.getAvailableSeats() < normalizedSeats.size()) {
+                throw new IllegalArgumentException("Not enough seats available on flight " + flight.getFlightId());
+            }
+            seatsBySegment.add(normalizedSeats);
+        }
+
+        Map<Integer, PassengerDetailsResponse> passengers = lookupPassengers(passengerIds);
+
+        // seats claimed so far go back on rollback through SeatInventory's own hooks
+        for (int i = 0; i < segments.size(); i++) {
+            claimSeats(segments.get(i), seatsBySegment.get(i));
+        }
+
+        List<SeatReservation> reservations = segments.stream()
+                .map(segment -> new SeatReservation(segment.getFlightId(), segment.getPassengerIds().size()))
                 .toList();
+        flightInterface.reserveSeats(reservations);
+        releaseOnRollback(reservations);
+
+        List<Ticket> tickets = new ArrayList<>(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            BookTicketRequest segment = segments.get(i);
+            tickets.add(buildTicket(segment, pnrGenerator.next(), seatsBySegment.get(i),
+                    flights.get(segment.getFlightId()), toSnapshots(segment.getPassengerIds(), passengers)));
+        }
+
+        List<Ticket> saved = ticketRepository.saveAll(tickets);
+        recordBookedSeats(saved);
+        saved.forEach(ticket -> pnrFilter.add(ticket.getPnr()));
+        saved.forEach(this::enqueueBookingEvents);
 
-        Set<String> conflicts = normalizedSeats.stream()
-                .filter(alreadyBooked::contains)
-                .collect(Collectors.toSet());
+        return ResponseEntity.ok(saved.stream().map(Ticket::getPnr).toList());
+    }
+
+    private void claimSeats(BookTicketRequest req, List<String> normalizedSeats) {
+        if (req.getHoldId() != null) {
+            // the hold already excluded every other booking and hold for these seats
+            seatHoldService.bookHeldSeats(req.getHoldId(), req.getFlightId(), normalizedSeats);
+            return;
+        }
+
+        List<String> conflicts = seatInventory.tryBook(req.getFlightId(), normalizedSeats);
 
         if (!conflicts.isEmpty()) {
             throw new IllegalArgumentException("Seats already booked: " + String.join(", ", conflicts));
         }
+    }
 
-        int seats = req.getPassengerIds().size();
-        flightInterface.reserveSeats(req.getFlightId(), seats);
+    /**
+     * The in-memory check only sees bookings made on this instance, so the seats are also written
+     * under a unique key; a seat another instance sold fails here and rolls the booking back.
+     */
+    private void recordBookedSeats(List<Ticket> tickets) {
+        List<BookedSeat> seats = tickets.stream()
+                .flatMap(ticket -> ticket.getSeatNumbers().stream()
+                        .map(seat -> new BookedSeat(ticket.getFlightId(), seat, ticket.getTicketId())))
+                .toList();
+        try {
+            bookedSeatRepository.saveAllAndFlush(seats);
+        } catch (DataIntegrityViolationException ex) {
+            // this instance's copy of the flight is behind, so it is read again once the booking rolls back
+            tickets.forEach(ticket -> seatInventory.invalidateAfterCompletion(ticket.getFlightId()));
+            throw new SeatAlreadyBookedException("Seats already booked");
+        }
+    }
+
+    // the reserve call committed on flight-service, so a rollback here has to be compensated there
+    private void releaseOnRollback(List<SeatReservation> reservations) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    flightInterface.releaseSeats(reservations);
+                } catch (RuntimeException ex) {
+                    logger.error("Could not release seats after failed booking | {} | {}",
+                            reservations.stream().map(SeatReservation::getFlightId).toList(), ex.getMessage());
+                }
+            }
+        });
+    }
 
-        String pnr = UUID.randomUUID().toString();
+    private static Ticket buildTicket(BookTicketRequest req, String pnr, List<String> normalizedSeats,
+            FlightResponse flight, List<PassengerSnapshot> passengers) {
 
-        Ticket ticket = Ticket.builder()
+        return Ticket.builder()
                 .pnr(pnr)
                 .flightId(req.getFlightId())
                 .seatNumbers(normalizedSeats)
                 .passengerIds(req.getPassengerIds())
-                .numberOfSeats(seats)
+                .numberOfSeats(req.getPassengerIds().size())
                 .booked(true)
+                .origin(flight.getOrigin())
+                .destination(flight.getDestination())
+                .departureTime(flight.getDepartureTime())
+                .arrivalTime(flight.getArrivalTime())
+                .passengers(passengers)
                 .build();
-
-        Ticket saved = ticketRepository.save(ticket);
-        sendKafkaNotifications(saved);
-
-        return ResponseEntity.ok(saved.getPnr());
     }
 
     @Transactional
@@ -139,6 +346,8 @@ public class TicketService {
         flightInterface.releaseSeats(ticket.getFlightId(), ticket.getNumberOfSeats());
         ticket.setBooked(false);
         ticketRepository.save(ticket);
+        bookedSeatRepository.deleteByTicketIdIn(List.of(ticket.getTicketId()));
+        seatInventory.releaseOnCommit(ticket.getFlightId(), ticket.getSeatNumbers());
 
         return ResponseEntity.ok("Ticket cancelled successfully");
     }
@@ -147,19 +356,53 @@ public class TicketService {
     @CircuitBreaker(name = "flightService", fallbackMethod = "getByPnrFallback")
     public ResponseEntity<TicketResponse> getByPnrService(String pnr) {
 
-        Ticket ticket = ticketRepository.findByPnr(pnr)
+        Ticket ticket = findByPnr(pnr)
                 .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
 
-        FlightResponse flight = flightInterface.getByID(ticket.getFlightId()).getBody();
+        if (ticket.hasSnapshot()) {
+            return ResponseEntity.ok(snapshotResponse(ticket));
+        }
+
+        // tickets booked before snapshots existed: the flight and every passenger are fetched at once, so latency is the slowest single call
+        CompletableFuture<FlightResponse> flightCall =
+                callAsync(() -> flightInterface.getByID(ticket.getFlightId()).getBody());
+        List<CompletableFuture<PassengerDetailsResponse>> passengerCalls = ticket.getPassengerIds().stream()
+                .map(pid -> callAsync(() -> passengerInterface.getPassengerDetails(pid).getBody()))
+                .toList();
+
+        List<CompletableFuture<?>> calls = new ArrayList<>(passengerCalls);
+        calls.add(flightCall);
+        awaitAll(calls);
+
+        FlightResponse flight = flightCall.join();
         if (flight == null) {
             throw new ResourceNotFoundException("Flight details unavailable");
         }
 
-        List<PassengerDetailsResponse> passengers = fetchPassengers(ticket.getPassengerIds());
+        List<PassengerDetailsResponse> passengers = new ArrayList<>();
+        for (int i = 0; i < passengerCalls.size(); i++) {
+            PassengerDetailsResponse passenger = passengerCalls.get(i).join();
+            if (passenger == null) {
+                throw new ResourceNotFoundException("Passenger not found: " + ticket.getPassengerIds().get(i));
+            }
+            passengers.add(passenger);
+        }
 
         return ResponseEntity.ok(buildResponse(ticket, flight, passengers));
     }
 
+    /**
+     * The ticket with this PNR, accepting codes read out loosely. References the PNR filter has never
+     * seen are answered without a query.
+     */
+    public Optional<Ticket> findByPnr(String pnr) {
+        String code = PnrCodec.normalize(pnr);
+        if (!pnrFilter.mightExist(code)) {
+            return Optional.empty();
+        }
+        return ticketRepository.findByPnr(code);
+    }
+
     public ResponseEntity<TicketResponse> getByPnrFallback(String pnr, Throwable ex) {
         logger.warn("getByPnr fallback | pnr={} | {}", pnr, ex.getMessage());
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
@@ -169,56 +412,263 @@ public class TicketService {
     @CircuitBreaker(name = "passengerService", fallbackMethod = "getTicketsByEmailFallback")
     public ResponseEntity<List<TicketResponse>> getTicketsByEmailService(String email) {
 
-        Integer passengerId = passengerInterface.getIdByEmail(email).getBody();
-        if (passengerId == null) {
-            return ResponseEntity.notFound().build();
+        List<Ticket> snapshotted = ticketRepository.findAllByPassengerEmail(email);
+
+        if (snapshotted.isEmpty()) {
+            // nothing to serve locally, so only here does the listing depend on passenger-service
+            Integer passengerId = passengerInterface.getIdByEmail(email).getBody();
+            if (passengerId == null) {
+                return ResponseEntity.notFound().build();
+            }
+            List<Ticket> tickets = ticketRepository.findAllByPassengerId(passengerId);
+            List<Ticket> legacy = tickets.stream().filter(ticket -> !ticket.hasSnapshot()).toList();
+            return ResponseEntity.ok(inTicketOrder(tickets, legacy.isEmpty() ? List.of() : enrich(legacy)));
+        }
+
+        // the snapshots name the passenger, so their tickets booked before snapshots existed need no lookup
+        List<Ticket> tickets = snapshotted;
+        for (Integer passengerId : passengerIdsWithEmail(snapshotted, email)) {
+            tickets = mergeById(tickets, ticketRepository.findAllByPassengerId(passengerId));
+        }
+        List<Ticket> legacy = tickets.stream().filter(ticket -> !ticket.hasSnapshot()).toList();
+        if (legacy.isEmpty()) {
+            return ResponseEntity.ok(inTicketOrder(tickets, List.of()));
+        }
+
+        try {
+            return ResponseEntity.ok(inTicketOrder(tickets, enrich(legacy)));
+        } catch (RuntimeException ex) {
+            // legacy tickets need the remote details; the snapshotted ones are still worth serving
+            logger.warn("getTicketsByEmail serving snapshots only | email={} | legacy={} | {}",
+                    email, legacy.size(), ex.getMessage());
+            List<Ticket> served = tickets.stream().filter(Ticket::hasSnapshot).toList();
+            return ResponseEntity.ok(inTicketOrder(served, List.of()));
+        }
+    }
+
+    /** Passenger ids whose snapshot on any of the tickets carries the e-mail. */
+    static Set<Integer> passengerIdsWithEmail(List<Ticket> tickets, String email) {
+        Set<Integer> passengerIds = new LinkedHashSet<>();
+        for (Ticket ticket : tickets) {
+            for (PassengerSnapshot passenger : ticket.getPassengers()) {
+                if (email.equals(passenger.getEmail()) && passenger.getPassengerId() != null) {
+                    passengerIds.add(passenger.getPassengerId());
+                }
+            }
+        }
+        return passengerIds;
+    }
+
+    /** Both lists of tickets as one, each ticket once, in ticket id order. */
+    static List<Ticket> mergeById(List<Ticket> first, List<Ticket> second) {
+        Map<Integer, Ticket> merged = new LinkedHashMap<>();
+        first.forEach(ticket -> merged.putIfAbsent(ticket.getTicketId(), ticket));
+        second.forEach(ticket -> merged.putIfAbsent(ticket.getTicketId(), ticket));
+        List<Ticket> tickets = new ArrayList<>(merged.values());
+        tickets.sort(Comparator.comparing(Ticket::getTicketId, Comparator.nullsLast(Comparator.naturalOrder())));
+        return tickets;
+    }
+
+    /**
+     * Responses for the tickets in their order: snapshotted tickets from their snapshot, the rest
+     * from {@code legacyResponses}, which holds one response per ticket without a snapshot, in order.
+     */
+    static List<TicketResponse> inTicketOrder(List<Ticket> tickets, List<TicketResponse> legacyResponses) {
+        Iterator<TicketResponse> legacy = legacyResponses.iterator();
+        List<TicketResponse> responses = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            responses.add(ticket.hasSnapshot() ? snapshotResponse(ticket) : legacy.next());
+        }
+        return responses;
+    }
+
+    public ResponseEntity<List<TicketResponse>> getTicketsByEmailFallback(
+            String email, Throwable ex) {
+
+        logger.warn("getTicketsByEmail fallback | email={} | {}", email, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    /**
+     * Resolves every distinct flight and passenger the tickets refer to in a few batched calls,
+     * issued concurrently, then builds the responses from the resulting maps.
+     */
+    private List<TicketResponse> enrich(List<Ticket> tickets) {
+
+        Set<Integer> flightIds = new LinkedHashSet<>();
+        Set<Integer> passengerIds = new LinkedHashSet<>();
+        for (Ticket ticket : tickets) {
+            flightIds.add(ticket.getFlightId());
+            passengerIds.addAll(ticket.getPassengerIds());
         }
 
-        List<Ticket> tickets = ticketRepository.findAllByPassengerId(passengerId);
+        List<CompletableFuture<List<FlightResponse>>> flightBatches =
+                fetchInBatches(flightIds, ids -> flightInterface.getFlightsByIds(ids).getBody());
+        List<CompletableFuture<Map<Integer, PassengerDetailsResponse>>> passengerBatches =
+                fetchInBatches(passengerIds, ids -> passengerInterface.getPassengerDetailsByIds(ids).getBody());
 
-        List<TicketResponse> responses = tickets.stream().map(ticket -> {
+        List<CompletableFuture<?>> calls = new ArrayList<>(flightBatches);
+        calls.addAll(passengerBatches);
+        awaitAll(calls);
 
-            FlightResponse flight =
-                    flightInterface.getByID(ticket.getFlightId()).getBody();
+        Map<Integer, FlightResponse> flights = new HashMap<>();
+        for (CompletableFuture<List<FlightResponse>> batch : flightBatches) {
+            List<FlightResponse> found = batch.join();
+            if (found != null) {
+                found.forEach(flight -> flights.put(flight.getFlightId(), flight));
+            }
+        }
 
+        Map<Integer, PassengerDetailsResponse> passengers = new HashMap<>();
+        for (CompletableFuture<Map<Integer, PassengerDetailsResponse>> batch : passengerBatches) {
+            Map<Integer, PassengerDetailsResponse> found = batch.join();
+            if (found != null) {
+                passengers.putAll(found);
+            }
+        }
+
+        return toResponses(tickets, flights, passengers);
+    }
+
+    static List<TicketResponse> toResponses(List<Ticket> tickets, Map<Integer, FlightResponse> flights,
+            Map<Integer, PassengerDetailsResponse> passengers) {
+
+        return tickets.stream().map(ticket -> {
+
+            FlightResponse flight = flights.get(ticket.getFlightId());
             if (flight == null) {
                 throw new ResourceNotFoundException("Flight details unavailable");
             }
 
-            List<PassengerDetailsResponse> passengers =
-                    fetchPassengers(ticket.getPassengerIds());
+            List<PassengerDetailsResponse> ticketPassengers = new ArrayList<>();
+            for (Integer pid : ticket.getPassengerIds()) {
+                PassengerDetailsResponse passenger = passengers.get(pid);
+                if (passenger == null) {
+                    throw new ResourceNotFoundException("Passenger not found: " + pid);
+                }
+                ticketPassengers.add(passenger);
+            }
 
-            return buildResponse(ticket, flight, passengers);
+            return buildResponse(ticket, flight, ticketPassengers);
 
         }).toList();
+    }
 
-        return ResponseEntity.ok(responses);
+    private <T> List<CompletableFuture<T>> fetchInBatches(Set<Integer> ids, Function<List<Integer>, T> fetch) {
+        return batches(ids).stream()
+                .map(batch -> callAsync(() -> fetch.apply(batch)))
+                .toList();
     }
 
-    public ResponseEntity<List<TicketResponse>> getTicketsByEmailFallback(
-            String email, Throwable ex) {
+    static List<List<Integer>> batches(Collection<Integer> ids) {
+        List<Integer> all = new ArrayList<>(ids);
+        List<List<Integer>> batches = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += ENRICHMENT_BATCH_SIZE) {
+            batches.add(List.copyOf(all.subList(from, Math.min(from + ENRICHMENT_BATCH_SIZE, all.size()))));
+        }
+        return batches;
+    }
 
-        logger.warn("getTicketsByEmail fallback | email={} | {}", email, ex.getMessage());
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    /**
+     * Runs one remote call on the enrichment executor. The call fails with a timeout after
+     * {@code ticket.remote-call-timeout}; once the returned future fails or is cancelled, the
+     * worker running the call is interrupted.
+     */
+    private <T> CompletableFuture<T> callAsync(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                result.complete(call.get());
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+            return null;
+        });
+        result.orTimeout(remoteCallTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, ex) -> {
+                    if (ex != null) {
+                        task.cancel(true);
+                    }
+                });
+        enrichmentExecutor.execute(task);
+        return result;
     }
 
-    private List<PassengerDetailsResponse> fetchPassengers(List<Integer> passengerIds) {
+    /**
+     * Waits for every call. The first failure cancels the calls still running and is rethrown
+     * as the remote call threw it, so the circuit breaker and exception handler see the real error.
+     */
+    private static void awaitAll(List<CompletableFuture<?>> calls) {
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        for (CompletableFuture<?> call : calls) {
+            call.whenComplete((value, ex) -> {
+                if (ex != null && firstFailure.compareAndSet(null, ex)) {
+                    calls.forEach(other -> other.cancel(true));
+                }
+            });
+        }
 
-        List<PassengerDetailsResponse> passengers = new ArrayList<>();
+        try {
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get();
+        } catch (InterruptedException ex) {
+            calls.forEach(call -> call.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for remote calls", ex);
+        } catch (ExecutionException | CancellationException ex) {
+            Throwable failure = firstFailure.get() != null ? firstFailure.get() : ex.getCause();
+            Throwable cause = failure instanceof CompletionException wrapped ? wrapped.getCause() : failure;
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof TimeoutException) {
+                throw new IllegalStateException("Remote call timed out", cause);
+            }
+            throw new IllegalStateException("Remote call failed", cause);
+        }
+    }
 
-        for (Integer pid : passengerIds) {
-            PassengerDetailsResponse passenger =
-                    passengerInterface.getPassengerDetails(pid).getBody();
+    /**
+     * Looks every passenger up in one call; their details are kept on the ticket, so later reads
+     * do not need passenger-service.
+     */
+    private Map<Integer, PassengerDetailsResponse> lookupPassengers(Collection<Integer> passengerIds) {
+        Map<Integer, PassengerDetailsResponse> found =
+                passengerInterface.getPassengerDetailsByIds(List.copyOf(new LinkedHashSet<>(passengerIds))).getBody();
+        return found == null ? Map.of() : found;
+    }
 
+    private static List<PassengerSnapshot> toSnapshots(List<Integer> passengerIds,
+            Map<Integer, PassengerDetailsResponse> found) {
+
+        List<PassengerSnapshot> snapshots = new ArrayList<>(passengerIds.size());
+        for (Integer pid : passengerIds) {
+            PassengerDetailsResponse passenger = found.get(pid);
             if (passenger == null) {
                 throw new ResourceNotFoundException("Passenger not found: " + pid);
             }
-            passengers.add(passenger);
+            snapshots.add(new PassengerSnapshot(pid, passenger.getName(), passenger.getEmail(), passenger.getPhoneNum()));
         }
-        return passengers;
+        return snapshots;
+    }
+
+    static TicketResponse snapshotResponse(Ticket ticket) {
+        return TicketResponse.builder()
+                .id(ticket.getTicketId())
+                .pnr(ticket.getPnr())
+                .origin(ticket.getOrigin())
+                .destination(ticket.getDestination())
+                .departureTime(ticket.getDepartureTime())
+                .arrivalTime(ticket.getArrivalTime())
+                .seatNumbers(ticket.getSeatNumbers() == null ? List.of() : ticket.getSeatNumbers())
+                .numberOfSeats(ticket.getNumberOfSeats())
+                .booked(ticket.isBooked())
+                .passengers(ticket.getPassengers().stream()
+                        .map(p -> new PassengerDetailsResponse(p.getName(), p.getEmail(), p.getPhoneNum()))
+                        .toList())
+                .build();
     }
 
-    private TicketResponse buildResponse(
+    static TicketResponse buildResponse(
             Ticket ticket,
             FlightResponse flight,
             List<PassengerDetailsResponse> passengers) {
@@ -237,67 +687,113 @@ public class TicketService {
                 .build();
     }
 
-    private void sendKafkaNotifications(Ticket ticket) {
-
-        for (Integer pid : ticket.getPassengerIds()) {
-            try {
-                PassengerDetailsResponse passenger =
-                        passengerInterface.getPassengerDetails(pid).getBody();
-
-                if (passenger == null) continue;
+    private void enqueueBookingEvents(Ticket ticket) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = ticket.getPassengers().stream()
+                .map(p -> new OutboxEvent(BOOKING_TOPIC, ticket.getPnr(), ticket.getFlightId(), p.getPassengerId(),
+                        p.getEmail(), ticket.getNumberOfSeats(), now))
+                .toList();
+        outboxEventRepository.saveAll(events);
+    }
 
-                TicketBookedEvent event = new TicketBookedEvent(
-                        passenger.getEmail(),
-                        ticket.getPnr(),
-                        ticket.getFlightId(),
-                        ticket.getNumberOfSeats()
-                );
+    public ResponseEntity<SeatMapResponse> getSeatMap(int flightId) {
+        return getSeatMap(flightId, null);
+    }
 
-                kafkaTemplate.send("ticket-confirmation", event);
+    /**
+     * The seat map, tagged with the flight's inventory version. A poll that sends back the current
+     * tag gets a 304 straight from memory, without asking flight-service or the database.
+     */
+    public ResponseEntity<SeatMapResponse> getSeatMap(int flightId, String ifNoneMatch) {
+
+        // a flight whose seats are not in memory is checked first, so unknown ids never get an entry
+        FlightResponse flight = seatInventory.isLoaded(flightId) ? null : seatMapFlight(flightId);
+
+        // read before the seats, so a change in between only costs the next poll a full response
+        String etag = seatMapEtag(seatInventory.version(flightId));
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
 
-            } catch (feign.FeignException | org.springframework.kafka.KafkaException ex) {
-                logger.error("Kafka failure | pid={} | {}", pid, ex.getMessage());
-            }
+        if (flight == null) {
+            flight = seatMapFlight(flightId);
         }
-    }
 
-    public ResponseEntity<SeatMapResponse> getSeatMap(int flightId) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(seatMapResponse(flightId, flight, seatInventory));
+    }
 
+    private FlightResponse seatMapFlight(int flightId) {
         FlightResponse flight = flightInterface.getByID(flightId).getBody();
 
         if (flight == null) {
             throw new ResourceNotFoundException("Flight not found");
         }
+        return flight;
+    }
 
-        List<String> bookedSeats = ticketRepository.findBookedSeatNumbers(flightId)
-                .stream()
-                .map(this::normalizeSeat)
-                .toList();
+    static String seatMapEtag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static SeatMapResponse seatMapResponse(int flightId, FlightResponse flight, SeatInventory seatInventory) {
+        return seatMapResponse(flightId, flight, seatInventory.bookedSeats(flightId), seatInventory.heldSeats(flightId));
+    }
 
-        SeatMapResponse response = new SeatMapResponse(
+    static SeatMapResponse seatMapResponse(int flightId, FlightResponse flight, List<String> bookedSeats,
+            List<String> heldSeats) {
+
+        // held seats are still counted as available by flight-service, but nobody else can take them
+        return new SeatMapResponse(
                 flightId,
                 flight.getTotalSeats(),
-                flight.getAvailableSeats(),
-                bookedSeats
+                Math.max(0, flight.getAvailableSeats() - heldSeats.size()),
+                bookedSeats,
+                heldSeats
         );
+    }
 
-        return ResponseEntity.ok(response);
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private List<String> normalizeSeats(List<String> seatNumbers) {
+    static List<String> normalizeSeats(List<String> seatNumbers) {
         return seatNumbers.stream()
-                .map(this::normalizeSeat)
+                .map(TicketService::normalizeSeat)
                 .toList();
     }
 
-    private String normalizeSeat(String seat) {
+    // numeric seats are written without leading zeros, so "07" and "7" are the same seat everywhere
+    private static String normalizeSeat(String seat) {
         if (seat == null) {
             throw new IllegalArgumentException("Seat number cannot be null");
         }
-        return seat.trim().toUpperCase();
+        String normalized = seat.trim().toUpperCase();
+        try {
+            return Integer.toString(Integer.parseInt(normalized));
+        } catch (NumberFormatException ex) {
+            return normalized;
+        }
     }
 
-    private void validateSeatNumbers(List<String> seatNumbers, int totalSeats) {
+    static void validateSeatNumbers(List<String> seatNumbers, int totalSeats) {
 
         Set<String> unique = new HashSet<>(seatNumbers);
 
@@ -0,0 +1,45 @@
+package com.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.event.FlightChangedEvent;
+import com.example.event.PassengerChangedEvent;
+import com.example.repository.TicketRepository;
+
+/**
+ * Keeps the flight and passenger snapshots on tickets current. Each event carries the full new
+ * state, so applying one twice is harmless.
+ */
+@Component
+public class TicketSnapshotListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketSnapshotListener.class);
+
+    private final TicketRepository ticketRepository;
+
+    public TicketSnapshotListener(TicketRepository ticketRepository) {
+        this.ticketRepository = ticketRepository;
+    }
+
+    @Transactional
+    @KafkaListener(topics = "${ticket.snapshot.flight-topic:flight-changes}",
+            properties = "spring.json.value.default.type=com.example.event.FlightChangedEvent")
+    public void onFlightChanged(FlightChangedEvent event) {
+        int updated = ticketRepository.updateFlightSnapshot(event.getFlightId(), event.getOrigin(),
+                event.getDestination(), event.getDepartureTime(), event.getArrivalTime());
+        logger.debug("Flight snapshot refreshed | flightId={} | tickets={}", event.getFlightId(), updated);
+    }
+
+    @Transactional
+    @KafkaListener(topics = "${ticket.snapshot.passenger-topic:passenger-changes}",
+            properties = "spring.json.value.default.type=com.example.event.PassengerChangedEvent")
+    public void onPassengerChanged(PassengerChangedEvent event) {
+        int updated = ticketRepository.updatePassengerSnapshot(event.getPassengerId(), event.getName(),
+                event.getEmail(), event.getPhoneNum());
+        logger.debug("Passenger snapshot refreshed | passengerId={} | rows={}", event.getPassengerId(), updated);
+    }
+}
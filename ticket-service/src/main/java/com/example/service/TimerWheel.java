@@ -0,0 +1,89 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timer wheel: deadlines are rounded up to a tick and kept in the slot for that tick
+ * modulo the wheel size, so scheduling, cancelling and expiring a key cost O(1) apiece and an
+ * advance only looks at the slots for the ticks that went by. Deadlines further out than one
+ * turn of the wheel share a slot with nearer ones and are skipped until their turn comes.
+ */
+class TimerWheel<K> {
+
+    private final long tickMillis;
+    private final List<Map<K, Long>> slots;
+    private final Map<K, Long> deadlineTicks = new HashMap<>();
+
+    private long currentTick;
+
+    TimerWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new LinkedHashMap<>());
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /** Schedules {@code key} to expire at {@code deadlineMillis}, replacing any earlier schedule for it. */
+    synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        // never into a tick that has already been swept
+        long tick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        slot(tick).put(key, tick);
+        deadlineTicks.put(key, tick);
+    }
+
+    synchronized boolean cancel(K key) {
+        Long tick = deadlineTicks.remove(key);
+        if (tick == null) {
+            return false;
+        }
+        slot(tick).remove(key);
+        return true;
+    }
+
+    /** Moves the wheel up to {@code nowMillis} and returns the keys whose deadline has passed. */
+    synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        if (targetTick <= currentTick) {
+            return List.of();
+        }
+        List<K> expired = new ArrayList<>();
+        // after a full turn every slot has been visited once
+        long ticks = Math.min(targetTick - currentTick, slots.size());
+        for (long i = 1; i <= ticks; i++) {
+            Iterator<Map.Entry<K, Long>> entries = slot(currentTick + i).entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<K, Long> entry = entries.next();
+                if (entry.getValue() <= targetTick) {
+                    expired.add(entry.getKey());
+                    deadlineTicks.remove(entry.getKey());
+                    entries.remove();
+                }
+            }
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    synchronized int size() {
+        return deadlineTicks.size();
+    }
+
+    private Map<K, Long> slot(long tick) {
+        return slots.get((int) Math.floorMod(tick, (long) slots.size()));
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+}
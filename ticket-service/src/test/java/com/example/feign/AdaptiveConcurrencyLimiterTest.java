@@ -0,0 +1,83 @@
+package com.example.feign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(40);
+
+    @Test
+    void testRejectsCallsOverTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 100, 1.5);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.inFlight());
+
+        limiter.onSuccess(FAST);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void testLimitFollowsLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 200, 1.5);
+
+        // steady latency with every slot busy: room to grow
+        fullRounds(limiter, 30, FAST);
+        int grown = limiter.limit();
+        assertTrue(grown > 10, "limit " + grown);
+
+        // latency four times the usual: the service is queueing, so back off
+        fullRounds(limiter, 5, SLOW);
+        assertTrue(limiter.limit() < grown, "limit " + limiter.limit() + " after " + grown);
+    }
+
+    @Test
+    void testQuietPeriodsDoNotGrowTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5);
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onSuccess(FAST);
+        }
+        assertEquals(20, limiter.limit());
+    }
+
+    @Test
+    void testFailuresBackOffDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.onDropped();
+        assertEquals((int) (20 * AdaptiveConcurrencyLimiter.BACKOFF), limiter.limit());
+        assertEquals(0, limiter.inFlight());
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+        assertEquals(4, limiter.limit());
+    }
+
+    // fills every slot, then lets each call finish with the given round trip
+    private static void fullRounds(AdaptiveConcurrencyLimiter limiter, int rounds, long rttNanos) {
+        for (int round = 0; round < rounds; round++) {
+            int taken = 0;
+            while (limiter.tryAcquire()) {
+                taken++;
+            }
+            for (int i = 0; i < taken; i++) {
+                limiter.onSuccess(rttNanos);
+            }
+        }
+    }
+}
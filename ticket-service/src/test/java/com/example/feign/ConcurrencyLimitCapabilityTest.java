@@ -0,0 +1,136 @@
+package com.example.feign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.exception.ServiceBusyException;
+
+import feign.Client;
+import feign.Feign;
+import feign.FeignException;
+import feign.RequestLine;
+import feign.Response;
+import feign.Target;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConcurrencyLimitCapabilityTest {
+
+    interface DataApi {
+        @RequestLine("GET /data")
+        String data();
+
+        @RequestLine("GET /data")
+        Response raw();
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitCapability capability = new ConcurrencyLimitCapability(3, 1, 50, 1.5, registry);
+
+    @Test
+    void testCallsOverTheLimitFailFastAndAreCounted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(3);
+        DataApi api = api("flight-service", (request, options) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return response(request, 200);
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                calls.add(callers.submit(api::data));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(3.0, gauge("in-flight", "flight-service"));
+
+            assertThrows(ServiceBusyException.class, api::data);
+            assertEquals(1.0, registry.get(ConcurrencyLimitCapability.METRIC_PREFIX + ".rejected")
+                    .tag("client", "flight-service").counter().count());
+
+            release.countDown();
+            for (Future<String> call : calls) {
+                assertEquals("ok", call.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(0.0, gauge("in-flight", "flight-service"));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testOverloadAnswersBackOffOnlyTheirOwnClient() {
+        DataApi flights = api("flight-service", (request, options) -> response(request, 503));
+        DataApi passengers = api("PASSENGER-SERVICE", (request, options) -> response(request, 200));
+
+        assertThrows(FeignException.class, flights::data);
+        passengers.data();
+
+        assertEquals((int) (3 * AdaptiveConcurrencyLimiter.BACKOFF), gauge("limit", "flight-service"));
+        assertEquals(3.0, gauge("limit", "PASSENGER-SERVICE"));
+    }
+
+    @Test
+    void testSlotIsHeldUntilTheBodyIsRead() throws Exception {
+        DataApi api = api("flight-service", (request, options) -> Response.builder()
+                .request(request)
+                .status(200)
+                .headers(Map.of())
+                .body(new ByteArrayInputStream("ok".getBytes(StandardCharsets.UTF_8)), null)
+                .build());
+
+        // a Response return type leaves a body of unknown length for the caller to read and close
+        Response response = api.raw();
+        assertEquals(1.0, gauge("in-flight", "flight-service"));
+
+        try (InputStream body = response.body().asInputStream()) {
+            assertEquals("ok", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(1.0, gauge("in-flight", "flight-service"));
+        }
+        assertEquals(0.0, gauge("in-flight", "flight-service"));
+
+        // closing the response as well gives nothing back twice
+        response.close();
+        assertEquals(0.0, gauge("in-flight", "flight-service"));
+    }
+
+    private DataApi api(String name, Client client) {
+        return Feign.builder()
+                .client(client)
+                .addCapability(capability)
+                .target(new Target.HardCodedTarget<>(DataApi.class, name, "http://" + name));
+    }
+
+    private double gauge(String name, String client) {
+        return registry.get(ConcurrencyLimitCapability.METRIC_PREFIX + "." + name).tag("client", client).gauge().value();
+    }
+
+    private static Response response(feign.Request request, int status) {
+        return Response.builder()
+                .request(request)
+                .status(status)
+                .headers(Map.of())
+                .body("ok", StandardCharsets.UTF_8)
+                .build();
+    }
+}
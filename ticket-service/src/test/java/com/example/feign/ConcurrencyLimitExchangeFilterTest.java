@@ -0,0 +1,82 @@
+package com.example.feign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.example.exception.ServiceBusyException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ConcurrencyLimitExchangeFilterTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitCapability capability = new ConcurrencyLimitCapability(1, 1, 50, 1.5, registry);
+
+    @Test
+    void testCallOverTheLimitFailsFastUntilTheBodyIsRead() {
+        Sinks.One<ClientResponse> answer = Sinks.one();
+        WebClient client = client("flight-service", answer.asMono());
+
+        Mono<String> first = client.get().uri("/data").retrieve().bodyToMono(String.class).cache();
+        first.subscribe();
+        assertEquals(1.0, gauge("in-flight", "flight-service"));
+
+        assertThrows(ServiceBusyException.class,
+                () -> client.get().uri("/data").retrieve().bodyToMono(String.class).block(WAIT));
+        assertEquals(1.0, registry.get(ConcurrencyLimitCapability.METRIC_PREFIX + ".rejected")
+                .tag("client", "flight-service").counter().count());
+
+        answer.tryEmitValue(ClientResponse.create(HttpStatus.OK).body("ok").build());
+        assertEquals("ok", first.block(WAIT));
+        assertEquals(0.0, gauge("in-flight", "flight-service"));
+    }
+
+    @Test
+    void testOverloadAnswersBackOffTheLimit() {
+        ConcurrencyLimitCapability roomy = new ConcurrencyLimitCapability(3, 1, 50, 1.5, registry);
+        WebClient passengers = WebClient.builder()
+                .baseUrl("http://PASSENGER-SERVICE")
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()))
+                .filter(roomy.exchangeFilter("PASSENGER-SERVICE"))
+                .build();
+
+        assertThrows(WebClientResponseException.class,
+                () -> passengers.get().uri("/data").retrieve().bodyToMono(String.class).block(WAIT));
+
+        assertEquals((int) (3 * AdaptiveConcurrencyLimiter.BACKOFF), gauge("limit", "PASSENGER-SERVICE"));
+        assertEquals(0.0, gauge("in-flight", "PASSENGER-SERVICE"));
+    }
+
+    @Test
+    void testCancelledCallGivesItsSlotBack() {
+        WebClient client = client("flight-service", Mono.never());
+
+        client.get().uri("/data").retrieve().bodyToMono(String.class).subscribe().dispose();
+
+        assertEquals(0.0, gauge("in-flight", "flight-service"));
+    }
+
+    private WebClient client(String name, Mono<ClientResponse> response) {
+        return WebClient.builder()
+                .baseUrl("http://" + name)
+                .exchangeFunction(request -> response)
+                .filter(capability.exchangeFilter(name))
+                .build();
+    }
+
+    private double gauge(String name, String client) {
+        return registry.get(ConcurrencyLimitCapability.METRIC_PREFIX + "." + name).tag("client", client).gauge().value();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.feign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.Http2;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.util.unit.DataSize;
+
+import feign.Feign;
+import feign.RequestLine;
+import feign.Target;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class PooledFeignClientTest {
+
+    interface DataApi {
+        @RequestLine("GET /data")
+        String data();
+    }
+
+    private static final String BODY = "[" + "{\"seat\":\"12\"},".repeat(500) + "{}]";
+
+    private WebServer server;
+    private final Map<String, String> protocolByClient = new ConcurrentHashMap<>();
+    private final Map<String, String> encodingByClient = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void startServer() {
+        // the same settings flight-service and passenger-service run with
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        Http2 http2 = new Http2();
+        http2.setEnabled(true);
+        factory.setHttp2(http2);
+        Compression compression = new Compression();
+        compression.setEnabled(true);
+        compression.setMimeTypes(new String[] { "application/json" });
+        compression.setMinResponseSize(DataSize.ofKilobytes(2));
+        factory.setCompression(compression);
+
+        server = factory.getWebServer(context -> context.addServlet("data", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                String client = req.getHeader("X-Client");
+                protocolByClient.put(client, req.getProtocol());
+                encodingByClient.put(client, String.valueOf(req.getHeader("Accept-Encoding")));
+                resp.setContentType("application/json");
+                resp.getWriter().write(BODY);
+            }
+        }).addMapping("/data"));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void testEachClientGetsItsOwnPoolAndProtocol() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PooledFeignClient transport = new PooledFeignClient(5, Duration.ofMinutes(1), Set.of("FLIGHT-SERVICE"), registry);
+
+        DataApi flights = api(transport, "flight-service");
+        DataApi passengers = api(transport, "passenger-service");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(BODY, flights.data());
+            assertEquals(BODY, passengers.data());
+        }
+
+        assertEquals("HTTP/2.0", protocolByClient.get("flight-service"));
+        assertEquals("HTTP/1.1", protocolByClient.get("passenger-service"));
+        assertTrue(encodingByClient.get("flight-service").contains("gzip"));
+        assertTrue(encodingByClient.get("passenger-service").contains("gzip"));
+
+        for (String client : List.of("flight-service", "passenger-service")) {
+            assertNotNull(registry.find(PooledFeignClient.METRIC_PREFIX + ".connection.count")
+                    .tags("client", client, "state", "idle").gauge(), client);
+            assertEquals(5.0, registry.get(PooledFeignClient.METRIC_PREFIX + ".connection.limit")
+                    .tags("client", client).gauge().value());
+        }
+        // sequential calls reuse one kept-alive connection per client
+        assertEquals(1.0, registry.get(PooledFeignClient.METRIC_PREFIX + ".connection.count")
+                .tags("client", "passenger-service", "state", "idle").gauge().value());
+    }
+
+    private DataApi api(PooledFeignClient transport, String name) {
+        return Feign.builder()
+                .client(transport)
+                .requestInterceptor(template -> template.header("X-Client", name))
+                .target(new Target.HardCodedTarget<>(DataApi.class, name, "http://localhost:" + server.getPort()));
+    }
+}
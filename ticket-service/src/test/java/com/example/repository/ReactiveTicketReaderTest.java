@@ -0,0 +1,141 @@
+package com.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.model.PassengerSnapshot;
+import com.example.model.Ticket;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.autoconfigure.exclude="
+})
+// R2DBC only sees committed rows, so the tickets are saved for real and removed afterwards
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReactiveTicketReaderTest {
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Ticket.class)
+    @EnableJpaRepositories(basePackageClasses = TicketRepository.class)
+    static class Config {
+    }
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2026, 3, 1, 9, 30);
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private ReactiveTicketReader reader;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // the test's in-memory database, opened a second time through r2dbc-h2
+        try (Connection connection = dataSource.getConnection()) {
+            String url = connection.getMetaData().getURL();
+            String name = url.substring("jdbc:h2:mem:".length()).split(";")[0];
+            reader = new ReactiveTicketReader(ConnectionFactories.get(ConnectionFactoryOptions
+                    .parse("r2dbc:h2:mem:///" + name)
+                    .mutate()
+                    .option(ConnectionFactoryOptions.USER, connection.getMetaData().getUserName())
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        reader.close();
+        ticketRepository.deleteAll();
+    }
+
+    @Test
+    void testFindByPnr_loadsSeatsPassengersAndSnapshots() {
+        Ticket saved = ticketRepository.save(snapshotted("SNAP001", 11, 12));
+
+        Ticket found = reader.findByPnr("SNAP001").block(WAIT);
+
+        assertEquals(saved.getTicketId(), found.getTicketId());
+        assertEquals(7, found.getFlightId());
+        assertEquals(Set.of("1", "2"), Set.copyOf(found.getSeatNumbers()));
+        assertEquals(Set.of(11, 12), Set.copyOf(found.getPassengerIds()));
+        assertEquals(List.of("p11@example.com", "p12@example.com"),
+                found.getPassengers().stream().map(PassengerSnapshot::getEmail).toList());
+        assertEquals(DEPARTURE, found.getDepartureTime());
+        assertTrue(found.isBooked());
+        assertTrue(found.hasSnapshot());
+
+        assertNull(reader.findByPnr("NOPE001").block(WAIT));
+    }
+
+    @Test
+    void testFindAllByPassenger_matchesIdsAndSnapshottedEmails() {
+        ticketRepository.save(snapshotted("SNAP001", 11, 12));
+        ticketRepository.save(new Ticket(null, "LEGACY1", 7, List.of("3"), List.of(11), 1, true));
+        ticketRepository.save(new Ticket(null, "OTHER01", 8, List.of("1"), List.of(99), 1, true));
+
+        List<Ticket> byId = reader.findAllByPassengerId(11).collectList().block(WAIT);
+        assertEquals(List.of("SNAP001", "LEGACY1"), byId.stream().map(Ticket::getPnr).toList());
+        assertFalse(byId.get(1).hasSnapshot());
+
+        List<Ticket> byEmail = reader.findAllByPassengerEmail("p12@example.com").collectList().block(WAIT);
+        assertEquals(List.of("SNAP001"), byEmail.stream().map(Ticket::getPnr).toList());
+
+        assertTrue(reader.findAllByPassengerId(12345).collectList().block(WAIT).isEmpty());
+    }
+
+    @Test
+    void testFindBookedSeatNumbers_skipsCancelledTickets() {
+        ticketRepository.save(snapshotted("SNAP001", 11, 12));
+        ticketRepository.save(new Ticket(null, "LEGACY1", 7, List.of("3"), List.of(11), 1, true));
+        ticketRepository.save(new Ticket(null, "CANCEL1", 7, List.of("4"), List.of(11), 1, false));
+
+        assertEquals(Set.of("1", "2", "3"), Set.copyOf(reader.findBookedSeatNumbers(7).block(WAIT)));
+    }
+
+    private static Ticket snapshotted(String pnr, int... passengerIds) {
+        return Ticket.builder()
+                .pnr(pnr)
+                .flightId(7)
+                .seatNumbers(List.of("1", "2"))
+                .passengerIds(Arrays.stream(passengerIds).boxed().toList())
+                .numberOfSeats(passengerIds.length)
+                .booked(true)
+                .origin("DEL")
+                .destination("BOM")
+                .departureTime(DEPARTURE)
+                .arrivalTime(DEPARTURE.plusHours(2))
+                .passengers(Arrays.stream(passengerIds)
+                        .mapToObj(pid -> new PassengerSnapshot(pid, "P" + pid, "p" + pid + "@example.com", ""))
+                        .toList())
+                .build();
+    }
+}
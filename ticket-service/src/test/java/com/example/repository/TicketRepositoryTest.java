@@ -0,0 +1,162 @@
+package com.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.example.model.BookedSeat;
+import com.example.model.PassengerSnapshot;
+import com.example.model.PnrBlock;
+import com.example.model.Ticket;
+import com.example.repository.TicketRepository.TicketPnr;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.autoconfigure.exclude=",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TicketRepositoryTest {
+
+    // keeps the slice away from the application class and its Feign clients
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Ticket.class)
+    @EnableJpaRepositories(basePackageClasses = TicketRepository.class)
+    static class Config {
+    }
+
+    private static final int PASSENGER = 42;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private PnrBlockRepository pnrBlockRepository;
+
+    @Autowired
+    private BookedSeatRepository bookedSeatRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testFindAllByPassengerId_queryCountDoesNotGrowWithTickets() {
+        assertEquals(4, statementsToLoad(5));
+        assertEquals(4, statementsToLoad(50));
+    }
+
+    @Test
+    void testFindAllByPassengerEmail_matchesSnapshotAndLoadsDetails() {
+        persistTickets("E", 3);
+        entityManager.persist(ticket("OTHER", 7));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Ticket> tickets = ticketRepository.findAllByPassengerEmail("p42@example.com");
+
+        assertEquals(3, tickets.size());
+        assertEquals(Set.of(PASSENGER, 7), Set.copyOf(tickets.get(0).getPassengerIds()));
+        assertEquals("p42@example.com", tickets.get(0).getPassengers().get(0).getEmail());
+        assertEquals(Set.of("1", "2"), Set.copyOf(tickets.get(0).getSeatNumbers()));
+    }
+
+    @Test
+    void testFindPnrsAfter_pagesInTicketIdOrder() {
+        persistTickets("K", 5);
+        entityManager.flush();
+
+        List<TicketPnr> first = ticketRepository.findPnrsAfter(0, PageRequest.of(0, 3));
+        List<TicketPnr> rest = ticketRepository.findPnrsAfter(first.get(2).getTicketId(), PageRequest.of(0, 3));
+
+        assertEquals(List.of("K0", "K1", "K2"), first.stream().map(TicketPnr::getPnr).toList());
+        assertEquals(List.of("K3", "K4"), rest.stream().map(TicketPnr::getPnr).toList());
+    }
+
+    @Test
+    void testBookedSeatsAreUniquePerFlightAndBackfilledFromTickets() {
+        // two tickets that already share seats 1 and 2, as a race could have left them
+        persistTickets("S", 2);
+        entityManager.flush();
+
+        assertEquals(2, bookedSeatRepository.backfill());
+        assertEquals(0, bookedSeatRepository.backfill());
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookedSeatRepository.saveAndFlush(new BookedSeat(1, "2", 999)));
+    }
+
+    @Test
+    void testPnrBlocksComeFromASequence() {
+        long first = pnrBlockRepository.save(new PnrBlock("a", Instant.now())).getId();
+        long second = pnrBlockRepository.save(new PnrBlock("b", Instant.now())).getId();
+
+        assertTrue(second > first);
+    }
+
+    private long statementsToLoad(int ticketCount) {
+        persistTickets("Q" + ticketCount + "-", ticketCount);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Ticket> tickets = ticketRepository.findAllByPassengerId(PASSENGER);
+        // touch every collection so anything left lazy would show up as an extra statement
+        int touched = 0;
+        for (Ticket ticket : tickets) {
+            touched += ticket.getSeatNumbers().size() + ticket.getPassengerIds().size() + ticket.getPassengers().size();
+        }
+
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(tickets.size() * 6, touched);
+        entityManager.clear();
+        return statements;
+    }
+
+    private void persistTickets(String pnrPrefix, int count) {
+        for (int i = 0; i < count; i++) {
+            entityManager.persist(ticket(pnrPrefix + i, PASSENGER));
+        }
+    }
+
+    private static Ticket ticket(String pnr, int passengerId) {
+        return Ticket.builder()
+                .pnr(pnr)
+                .flightId(1)
+                .seatNumbers(List.of("1", "2"))
+                .passengerIds(List.of(passengerId, 7))
+                .numberOfSeats(2)
+                .booked(true)
+                .origin("A")
+                .destination("B")
+                .departureTime(LocalDateTime.now().plusDays(1))
+                .arrivalTime(LocalDateTime.now().plusDays(1).plusHours(2))
+                .passengers(List.of(
+                        new PassengerSnapshot(passengerId, "P", "p" + passengerId + "@example.com", ""),
+                        new PassengerSnapshot(7, "Q", "p7@example.com", "")))
+                .build();
+    }
+}
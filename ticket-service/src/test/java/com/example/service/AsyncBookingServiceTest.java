@@ -0,0 +1,123 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.ServiceBusyException;
+import com.example.model.Ticket;
+import com.example.request.BookTicketRequest;
+import com.example.response.BookingStatusResponse;
+import com.example.response.BookingStatusResponse.Status;
+
+class AsyncBookingServiceTest {
+
+    private TicketService ticketService;
+    private List<Runnable> queued;
+    private AsyncBookingService async;
+
+    @BeforeEach
+    void setUp() {
+        ticketService = mock(TicketService.class);
+        queued = new ArrayList<>();
+        // a queue of two that the test drains by hand
+        async = new AsyncBookingService(ticketService, new BlockPnrGenerator(new AtomicLong()::getAndIncrement), task -> {
+            if (queued.size() == 2) {
+                throw new RejectedExecutionException("full");
+            }
+            queued.add(task);
+        });
+    }
+
+    @Test
+    void testSubmit_acceptsThenLongPollCompletesOnConfirmation() {
+        ResponseEntity<BookingStatusResponse> accepted = async.submitBookingService(request("1"));
+
+        assertEquals(202, accepted.getStatusCode().value());
+        String pnr = accepted.getBody().getPnr();
+        assertEquals("/ticket/book/status/" + pnr, accepted.getHeaders().getLocation().toString());
+        assertEquals(Status.PENDING, accepted.getBody().getStatus());
+
+        DeferredResult<ResponseEntity<BookingStatusResponse>> poll = async.getBookingStatusService(pnr, 10);
+        assertFalse(poll.hasResult());
+
+        when(ticketService.book(any(), anyString())).thenAnswer(inv -> inv.getArgument(1));
+        queued.remove(0).run();
+
+        assertTrue(poll.hasResult());
+        assertEquals(Status.CONFIRMED, status(poll));
+        verify(ticketService).book(any(), eq(pnr));
+    }
+
+    @Test
+    void testSubmit_failedBookingIsRejectedWithReason() {
+        String pnr = async.submitBookingService(request("1")).getBody().getPnr();
+        when(ticketService.book(any(), anyString())).thenThrow(new IllegalArgumentException("Seats already booked: 1"));
+
+        queued.remove(0).run();
+
+        DeferredResult<ResponseEntity<BookingStatusResponse>> poll = async.getBookingStatusService(pnr, 0);
+        assertEquals(Status.REJECTED, status(poll));
+        assertEquals("Seats already booked: 1", body(poll).getMessage());
+    }
+
+    @Test
+    void testSubmit_fullQueueAndInvalidRequestsAreTurnedAway() {
+        async.submitBookingService(request("1"));
+        async.submitBookingService(request("2"));
+
+        assertThrows(ServiceBusyException.class, () -> async.submitBookingService(request("3")));
+        assertEquals(2, async.trackedBookings());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> async.submitBookingService(new BookTicketRequest(1, List.of(1, 2), List.of("4", " 4"))));
+        verify(ticketService, never()).book(any(), anyString());
+    }
+
+    @Test
+    void testStatus_pollOnAnotherInstanceReadsPendingUntilTheTicketExists() {
+        String pnr = async.submitBookingService(request("1")).getBody().getPnr();
+        AsyncBookingService other = new AsyncBookingService(ticketService, new BlockPnrGenerator(() -> 1), Runnable::run);
+        when(ticketService.findByPnr(pnr)).thenReturn(Optional.empty());
+
+        assertEquals(Status.PENDING, status(other.getBookingStatusService(pnr, 10)));
+
+        when(ticketService.findByPnr(pnr)).thenReturn(Optional.of(new Ticket()));
+        assertEquals(Status.CONFIRMED, status(other.getBookingStatusService(pnr, 0)));
+
+        assertThrows(ResourceNotFoundException.class, () -> other.getBookingStatusService("NOT-A-PNR", 0));
+    }
+
+    private static BookTicketRequest request(String seat) {
+        return new BookTicketRequest(1, List.of(1), List.of(seat));
+    }
+
+    private static Status status(DeferredResult<ResponseEntity<BookingStatusResponse>> result) {
+        return body(result).getStatus();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BookingStatusResponse body(DeferredResult<ResponseEntity<BookingStatusResponse>> result) {
+        return ((ResponseEntity<BookingStatusResponse>) result.getResult()).getBody();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class BlockPnrGeneratorTest {
+
+    @Test
+    void testCodesAreShortUniqueAndSelfChecking() {
+        PnrGenerator generator = new BlockPnrGenerator(new AtomicLong()::getAndIncrement);
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            String code = generator.next();
+            assertEquals(7, code.length());
+            assertTrue(PnrCodec.isWellFormed(code), code);
+            assertTrue(codes.add(code), code);
+        }
+
+        // the largest numbers take one more character
+        assertEquals(8, PnrCodec.encode(1L << 31).length());
+        assertTrue(PnrCodec.isWellFormed(PnrCodec.encode(1L << 31)));
+    }
+
+    @Test
+    void testCheckCharacterCatchesTyposAndReadOutCodesNormalize() {
+        String code = PnrCodec.encode(123_456);
+
+        for (int i = 0; i < code.length(); i++) {
+            for (char c : PnrCodec.ALPHABET.toCharArray()) {
+                if (c != code.charAt(i)) {
+                    String typo = code.substring(0, i) + c + code.substring(i + 1);
+                    assertFalse(PnrCodec.isWellFormed(typo), typo);
+                }
+            }
+        }
+
+        String spoken = " " + code.toLowerCase().replace('0', 'o').replace('1', 'l') + " ";
+        assertEquals(code, PnrCodec.normalize(spoken));
+        // older UUID references are left alone
+        String uuid = "3f2504e0-4f89-11d3-9a0c-0305e82c3301";
+        assertEquals(uuid, PnrCodec.normalize(uuid));
+    }
+
+    @Test
+    void testConcurrentCallersShareBlocksWithoutDuplicates() throws Exception {
+        AtomicLong blocks = new AtomicLong();
+        PnrGenerator generator = new BlockPnrGenerator(blocks::getAndIncrement);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < 8; w++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        codes.add(generator.next());
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(16_000, codes.size());
+        // one claim per block: 16 000 codes fit in 16 blocks, claimed only once each
+        assertEquals((16_000 + BlockPnrGenerator.BLOCK_SIZE - 1) / BlockPnrGenerator.BLOCK_SIZE, blocks.get());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.feign.FlightInterface;
+import com.example.model.OutboxEvent;
+import com.example.model.PassengerSnapshot;
+import com.example.model.SeatRelease;
+import com.example.model.Ticket;
+import com.example.repository.OutboxEventRepository;
+import com.example.repository.SeatReleaseRepository;
+import com.example.repository.TicketRepository;
+import com.example.response.FlightDisruptionResponse;
+
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.autoconfigure.exclude=",
+        "ticket.disruption.chunk-size=100"
+})
+@Import({ FlightDisruptionService.class, SeatReleaseRelay.class, SeatInventory.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlightDisruptionServiceTest {
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Ticket.class)
+    @EnableJpaRepositories(basePackageClasses = TicketRepository.class)
+    static class Config {
+    }
+
+    @Autowired
+    private FlightDisruptionService disruptionService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private SeatReleaseRepository seatReleaseRepository;
+
+    @Autowired
+    private SeatReleaseRelay seatReleaseRelay;
+
+    @MockBean
+    private FlightInterface flightInterface;
+
+    @Test
+    void testCancelsEveryBookedTicketOfA400SeatFlight() {
+        List<Ticket> tickets = new ArrayList<>();
+        for (int seat = 1; seat <= 400; seat++) {
+            tickets.add(ticket(10, seat, seat != 7));
+        }
+        tickets.add(ticket(11, 1, true));
+        ticketRepository.saveAll(tickets);
+        assertEquals(399, seatInventory.bookedCount(10));
+
+        FlightDisruptionResponse result = disruptionService.cancelFlightTicketsService(10).getBody();
+
+        assertEquals(399, result.getTicketsCancelled());
+        assertEquals(399, result.getSeatsReleased());
+
+        assertTrue(ticketRepository.findBookedSeatNumbers(10).isEmpty());
+        assertEquals(List.of("1"), ticketRepository.findBookedSeatNumbers(11));
+        assertEquals(0, seatInventory.bookedCount(10));
+        verify(flightInterface, times(1)).releaseSeats(10, 399);
+        assertEquals(0, seatReleaseRepository.count());
+
+        List<OutboxEvent> events = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getTopic().equals(FlightDisruptionService.CANCELLATION_TOPIC))
+                .filter(event -> event.getFlightId() == 10)
+                .toList();
+        assertEquals(399, events.size());
+        assertEquals("p10@example.com", events.get(0).getEmail());
+
+        // nothing left to cancel the second time
+        assertEquals(0, disruptionService.cancelFlightTicketsService(10).getBody().getTicketsCancelled());
+        verify(flightInterface, times(1)).releaseSeats(10, 399);
+    }
+
+    /**
+     * Wall-clock time to cancel a full 400-seat flight. Disabled by default; run with
+     * {@code mvn test -Dtest=FlightDisruptionServiceTest -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkCancellingA400SeatFlight() {
+        List<Ticket> tickets = new ArrayList<>();
+        for (int seat = 1; seat <= 400; seat++) {
+            tickets.add(ticket(20, seat, true));
+        }
+        ticketRepository.saveAll(tickets);
+        // first use pays for query compilation
+        disruptionService.cancelFlightTicketsService(-1);
+
+        long start = System.nanoTime();
+        FlightDisruptionResponse result = disruptionService.cancelFlightTicketsService(20).getBody();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(400, result.getTicketsCancelled());
+        System.out.printf("cancelled %d tickets in %d ms%n", result.getTicketsCancelled(), millis);
+    }
+
+    @Test
+    void testFailedSeatReleaseIsKeptAndRetried() {
+        ticketRepository.saveAll(List.of(ticket(12, 1, true), ticket(12, 2, true)));
+        seatInventory.tryHold(12, List.of("5"));
+        doThrow(new IllegalStateException("flight-service down")).when(flightInterface).releaseSeats(12, 2);
+
+        assertEquals(2, disruptionService.cancelFlightTicketsService(12).getBody().getSeatsReleased());
+
+        // the tickets stay cancelled and the seats stay owed
+        assertTrue(ticketRepository.findBookedSeatNumbers(12).isEmpty());
+        assertEquals(1, seatReleaseRepository.count());
+        assertEquals(2, seatReleaseRepository.findAll().get(0).getSeats());
+        // holds on the flight are untouched by the cancellation
+        assertEquals(List.of(), seatInventory.bookedSeats(12));
+        assertEquals(List.of("5"), seatInventory.heldSeats(12));
+
+        doNothing().when(flightInterface).releaseSeats(12, 2);
+        SeatRelease owed = seatReleaseRepository.findAll().get(0);
+        owed.setNextAttemptAt(Instant.now());
+        seatReleaseRepository.save(owed);
+        seatReleaseRelay.relay();
+
+        verify(flightInterface, times(2)).releaseSeats(12, 2);
+        assertEquals(0, seatReleaseRepository.count());
+    }
+
+    @Test
+    void testFlightWithoutTickets() {
+        assertEquals(0, disruptionService.cancelFlightTicketsService(99).getBody().getSeatsReleased());
+        verify(flightInterface, never()).releaseSeats(99, 0);
+    }
+
+    private static Ticket ticket(int flightId, int seat, boolean booked) {
+        return Ticket.builder()
+                .pnr("F" + flightId + "-" + seat)
+                .flightId(flightId)
+                .seatNumbers(List.of(Integer.toString(seat)))
+                .passengerIds(List.of(seat))
+                .numberOfSeats(1)
+                .booked(booked)
+                .origin("A")
+                .destination("B")
+                .departureTime(LocalDateTime.now().plusDays(1))
+                .arrivalTime(LocalDateTime.now().plusDays(1).plusHours(2))
+                .passengers(List.of(new PassengerSnapshot(seat, "P", "p" + flightId + "@example.com", "")))
+                .build();
+    }
+}
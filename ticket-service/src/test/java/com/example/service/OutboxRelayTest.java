@@ -0,0 +1,181 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.event.TicketBookedEvent;
+import com.example.event.TicketCancelledEvent;
+import com.example.feign.PassengerInterface;
+import com.example.model.OutboxEvent;
+import com.example.repository.OutboxEventRepository;
+import com.example.response.PassengerDetailsResponse;
+
+class OutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private OutboxEventRepository repo;
+    private PassengerInterface passengerFeign;
+    private KafkaTemplate<String, Object> kafka;
+    private OutboxRelay relay;
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repo = mock(OutboxEventRepository.class);
+        passengerFeign = mock(PassengerInterface.class);
+        kafka = mock(KafkaTemplate.class);
+        TransactionTemplate tx = mock(TransactionTemplate.class);
+        when(tx.execute(any())).thenAnswer(inv -> {
+            inTransaction.set(true);
+            try {
+                return inv.<TransactionCallback<?>>getArgument(0).doInTransaction(new SimpleTransactionStatus());
+            } finally {
+                inTransaction.set(false);
+            }
+        });
+
+        relay = new OutboxRelay(repo, passengerFeign, kafka, tx, Clock.fixed(NOW, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(relay, "maxAttempts", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRelayBatch_sendsWithOneLookupAndDeletesSent() {
+        OutboxEvent first = new OutboxEvent("ticket-confirmation", "PNR1", 7, 1, 2, NOW);
+        OutboxEvent second = new OutboxEvent("ticket-confirmation", "PNR1", 7, 2, 2, NOW);
+        when(repo.claimDue(eq(OutboxEvent.Status.PENDING), eq(NOW), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(passengerFeign.getPassengerDetailsByIds(anyCollection())).thenReturn(ResponseEntity.ok(Map.of(
+                1, new PassengerDetailsResponse("A", "a@example.com", ""),
+                2, new PassengerDetailsResponse("B", "b@example.com", ""))));
+        when(kafka.send(eq("ticket-confirmation"), eq("PNR1"), any(TicketBookedEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        assertEquals(2, relay.relayBatch());
+
+        verify(passengerFeign, times(1)).getPassengerDetailsByIds(anyCollection());
+        ArgumentCaptor<TicketBookedEvent> sent = ArgumentCaptor.forClass(TicketBookedEvent.class);
+        verify(kafka, times(2)).send(eq("ticket-confirmation"), eq("PNR1"), sent.capture());
+        assertEquals(List.of("a@example.com", "b@example.com"),
+                sent.getAllValues().stream().map(TicketBookedEvent::getEmail).toList());
+        verify(repo).deleteAllInBatch(List.of(first, second));
+    }
+
+    @Test
+    void testRelayBatch_failedSendBacksOffThenGivesUp() {
+        OutboxEvent event = new OutboxEvent("ticket-confirmation", "PNR1", 7, 1, 1, NOW);
+        when(repo.claimDue(eq(OutboxEvent.Status.PENDING), eq(NOW), any(Pageable.class))).thenReturn(List.of(event));
+        when(passengerFeign.getPassengerDetailsByIds(anyCollection())).thenReturn(ResponseEntity.ok(Map.of(
+                1, new PassengerDetailsResponse("A", "a@example.com", ""))));
+        when(kafka.send(any(), any(), any(TicketBookedEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        relay.relayBatch();
+
+        assertEquals(1, event.getAttempts());
+        assertEquals(NOW.plusSeconds(1), event.getNextAttemptAt());
+        assertEquals(OutboxEvent.Status.PENDING, event.getStatus());
+        verify(repo, never()).deleteAllInBatch(any());
+
+        relay.relayBatch();
+
+        assertEquals(2, event.getAttempts());
+        assertEquals(OutboxEvent.Status.FAILED, event.getStatus());
+        assertEquals("broker down", event.getLastError());
+    }
+
+    @Test
+    void testRelayBatch_claimsInItsOwnTransactionAndSendsOutsideIt() {
+        OutboxEvent event = new OutboxEvent("ticket-confirmation", "PNR1", 7, 1, 1, NOW);
+        when(repo.claimDue(eq(OutboxEvent.Status.PENDING), eq(NOW), any(Pageable.class))).thenReturn(List.of(event));
+        when(passengerFeign.getPassengerDetailsByIds(anyCollection())).thenAnswer(inv -> {
+            assertFalse(inTransaction.get());
+            return ResponseEntity.ok(Map.of(1, new PassengerDetailsResponse("A", "a@example.com", "")));
+        });
+        when(kafka.send(any(), any(), any(TicketBookedEvent.class))).thenAnswer(inv -> {
+            assertFalse(inTransaction.get());
+            // leased while in flight, so another instance does not claim it too
+            assertEquals(NOW.plusSeconds(120), event.getNextAttemptAt());
+            return CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+        });
+
+        relay.relayBatch();
+
+        assertEquals(NOW.plusSeconds(1), event.getNextAttemptAt());
+        verify(repo).saveAll(List.of(event));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRelayBatch_cancellationsAreSentAsCancellationEvents() {
+        OutboxEvent event = new OutboxEvent(FlightDisruptionService.CANCELLATION_TOPIC, "PNR3", 7, 1,
+                "a@example.com", 2, NOW);
+        when(repo.claimDue(eq(OutboxEvent.Status.PENDING), eq(NOW), any(Pageable.class))).thenReturn(List.of(event));
+        when(kafka.send(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        relay.relayBatch();
+
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(kafka).send(eq(FlightDisruptionService.CANCELLATION_TOPIC), eq("PNR3"), sent.capture());
+        TicketCancelledEvent cancelled = assertInstanceOf(TicketCancelledEvent.class, sent.getValue());
+        assertEquals(2, cancelled.getSeats());
+        verify(repo).deleteAllInBatch(List.of(event));
+    }
+
+    @Test
+    void testRelayBatch_passengerLookupFailure_retriesWholeBatch() {
+        OutboxEvent event = new OutboxEvent("ticket-confirmation", "PNR1", 7, 1, 1, NOW);
+        when(repo.claimDue(eq(OutboxEvent.Status.PENDING), eq(NOW), any(Pageable.class))).thenReturn(List.of(event));
+        when(passengerFeign.getPassengerDetailsByIds(anyCollection())).thenThrow(new IllegalStateException("down"));
+
+        relay.relayBatch();
+
+        assertEquals(1, event.getAttempts());
+        verify(kafka, never()).send(any(), any(), any(TicketBookedEvent.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRelayBatch_eventsCarryingEmailSkipLookup() {
+        OutboxEvent event = new OutboxEvent("ticket-confirmation", "PNR2", 7, 1, "a@example.com", 1, NOW);
+        when(repo.claimDue(eq(OutboxEvent.Status.PENDING), eq(NOW), any(Pageable.class))).thenReturn(List.of(event));
+        when(kafka.send(any(), any(), any(TicketBookedEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        relay.relayBatch();
+
+        verify(passengerFeign, never()).getPassengerDetailsByIds(anyCollection());
+        verify(repo).deleteAllInBatch(List.of(event));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.repository.TicketRepository;
+import com.example.repository.TicketRepository.TicketPnr;
+
+class PnrFilterTest {
+
+    @Test
+    void testUnknownReferencesAreRejectedOnceLoaded() {
+        TicketRepository repo = mock(TicketRepository.class);
+        when(repo.findPnrsAfter(eq(0), any())).thenReturn(List.of(row(1, "LEGACY-UUID"), row(2, "AB12CD3")));
+        when(repo.findPnrsAfter(eq(2), any())).thenReturn(List.of(row(3, "ZZ99YY8")));
+        PnrFilter filter = new PnrFilter(repo);
+
+        // nothing is turned away before the first load
+        assertTrue(filter.mightExist("NOPE"));
+
+        filter.refresh();
+        assertTrue(filter.isReady());
+        assertTrue(filter.mightExist("LEGACY-UUID"));
+        assertTrue(filter.mightExist("AB12CD3"));
+        assertFalse(filter.mightExist("ZZ99YY8"));
+
+        // later refreshes pick up bookings made elsewhere
+        filter.refresh();
+        assertTrue(filter.mightExist("ZZ99YY8"));
+
+        filter.add("NEW0001");
+        assertTrue(filter.mightExist("NEW0001"));
+    }
+
+    @Test
+    void testTicketCommittedBelowTheHighestIdIsPickedUpLater() {
+        TicketRepository repo = mock(TicketRepository.class);
+        // id 2 was taken first but its booking commits after 3 has been read
+        when(repo.findPnrsAfter(eq(0), any())).thenReturn(List.of(row(1, "AAAA001"), row(3, "CCCC003")));
+        when(repo.findPnrsByTicketIdIn(List.of(2))).thenReturn(List.of(), List.of(row(2, "BBBB002")));
+        PnrFilter filter = new PnrFilter(repo);
+
+        filter.refresh(0);
+        assertFalse(filter.mightExist("BBBB002"));
+        assertEquals(1, filter.openGaps());
+
+        filter.refresh(1_000);
+        assertFalse(filter.mightExist("BBBB002"));
+
+        // far more than any fixed rescan window of ids later
+        filter.refresh(2_000);
+        assertTrue(filter.mightExist("BBBB002"));
+        assertEquals(0, filter.openGaps());
+        verify(repo, times(2)).findPnrsAfter(eq(3), any());
+    }
+
+    @Test
+    void testSkippedIdsThatNeverCommitAreGivenUp() {
+        TicketRepository repo = mock(TicketRepository.class);
+        when(repo.findPnrsAfter(eq(0), any())).thenReturn(List.of(row(1, "AAAA001"), row(4, "DDDD004")));
+        PnrFilter filter = new PnrFilter(repo, 1000, 0.01, Duration.ofMinutes(10));
+
+        filter.refresh(0);
+        assertEquals(2, filter.openGaps());
+        filter.refresh(Duration.ofMinutes(5).toMillis());
+        verify(repo, times(1)).findPnrsByTicketIdIn(List.of(2, 3));
+
+        filter.refresh(Duration.ofMinutes(11).toMillis());
+        assertEquals(0, filter.openGaps());
+        verify(repo, times(1)).findPnrsByTicketIdIn(List.of(2, 3));
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        PnrFilter filter = new PnrFilter(mock(TicketRepository.class), 10_000, 0.01, Duration.ofMinutes(10));
+        filter.refresh();
+
+        PnrGenerator generator = new BlockPnrGenerator(new AtomicLong()::getAndIncrement);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(generator.next());
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightExist(generator.next())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+    }
+
+    private static TicketPnr row(int ticketId, String pnr) {
+        return new TicketPnr() {
+            @Override
+            public Integer getTicketId() { return ticketId; }
+
+            @Override
+            public String getPnr() { return pnr; }
+        };
+    }
+}
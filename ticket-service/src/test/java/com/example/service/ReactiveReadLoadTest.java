@@ -0,0 +1,171 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URL;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.repository.ReactiveTicketReader;
+import com.example.repository.TicketRepository;
+import com.example.response.FlightResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * How many seat-map reads can wait on a slow flight-service at once. The reactive path is given
+ * {@value #REQUESTS} requests together; the blocking path gets the same requests on
+ * {@value #REQUEST_THREADS} threads, Tomcat's default, as the MVC endpoint would. flight-service is
+ * a local stub answering after {@code LATENCY}. Disabled by default; run with
+ * {@code mvn test -Dtest=ReactiveReadLoadTest -Dbenchmark=true}, adding {@code -DargLine=-Xmx256m}
+ * to hold both to a fixed heap.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReactiveReadLoadTest {
+
+    private static final int REQUESTS = 4000;
+    private static final int REQUEST_THREADS = 200;
+    private static final Duration LATENCY = Duration.ofMillis(250);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong peakHeap = new AtomicLong();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private DisposableServer flightService;
+    private ScheduledExecutorService heapSampler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        LocalDateTime departure = LocalDateTime.of(2026, 3, 1, 9, 30);
+        String flight = new ObjectMapper().findAndRegisterModules().writeValueAsString(
+                new FlightResponse(1, null, "DEL", "BOM", 4500.0, departure, departure.plusHours(2), 500, 200));
+
+        flightService = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/flight/getFlightById/{id}", (request, response) -> {
+                    peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return response.header("Content-Type", "application/json")
+                            .sendString(Mono.delay(LATENCY).thenReturn(flight))
+                            .then()
+                            .doFinally(signal -> inFlight.decrementAndGet());
+                }))
+                .bindNow();
+
+        heapSampler = Executors.newSingleThreadScheduledExecutor();
+        heapSampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 5, TimeUnit.MILLISECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        heapSampler.shutdownNow();
+        flightService.disposeNow();
+    }
+
+    @Test
+    void benchmarkConcurrentSeatMapReads() throws Exception {
+        Result blocking = measure(() -> {
+            ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+            List<Future<?>> requests = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                requests.add(requestThreads.submit(() -> {
+                    try (InputStream body = new URL("http://localhost:" + flightService.port()
+                            + "/flight/getFlightById/1").openStream()) {
+                        return body.readAllBytes();
+                    }
+                }));
+            }
+            for (Future<?> request : requests) {
+                request.get();
+            }
+            requestThreads.shutdown();
+        });
+
+        TicketRepository repo = mock(TicketRepository.class);
+        when(repo.findBookedSeatNumbers(1)).thenReturn(List.of("1", "2", "3"));
+        SeatInventory inventory = new SeatInventory(repo);
+        inventory.bookedSeats(1);
+        WebClient flightClient = WebClient.builder()
+                .baseUrl("http://localhost:" + flightService.port())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(
+                        ConnectionProvider.builder("load-test").maxConnections(REQUESTS).build())))
+                .build();
+        ReactiveTicketService service = new ReactiveTicketService(mock(ReactiveTicketReader.class),
+                new PnrFilter(repo), inventory, flightClient, flightClient);
+        ReflectionTestUtils.setField(service, "remoteCallTimeout", Duration.ofSeconds(30));
+
+        // one round to open the connections, as a running service would already have them
+        Runnable round = () -> Flux.range(0, REQUESTS)
+                .flatMap(i -> service.getSeatMap(1, null), REQUESTS)
+                .then()
+                .block();
+        round.run();
+        Result reactive = measure(round::run);
+
+        System.out.printf("%d seat-map reads, flight-service answering in %d ms, max heap %d MB, %d cores%n",
+                REQUESTS, LATENCY.toMillis(), Runtime.getRuntime().maxMemory() >> 20,
+                Runtime.getRuntime().availableProcessors());
+        System.out.println("blocking, " + REQUEST_THREADS + " threads: " + blocking);
+        System.out.println("reactive:              " + reactive);
+
+        // on few cores, sending the requests rather than waiting for them bounds how many are out at once
+        assertTrue(reactive.peakInFlight() > 2 * REQUEST_THREADS);
+        assertTrue(reactive.peakThreads() < REQUEST_THREADS);
+        assertTrue(reactive.millis() < blocking.millis());
+    }
+
+    private record Result(long millis, int peakInFlight, int peakThreads, long peakHeapMb) {
+        @Override
+        public String toString() {
+            return String.format("%5d ms | %4d waiting at once | %3d live threads at peak | %4d MB heap at peak",
+                    millis, peakInFlight, peakThreads, peakHeapMb);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Run {
+        void run() throws Exception;
+    }
+
+    private Result measure(Run run) throws Exception {
+        System.gc();
+        peakInFlight.set(0);
+        peakHeap.set(0);
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        run.run();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new Result(millis, peakInFlight.get(), threads.getPeakThreadCount(), peakHeap.get() >> 20);
+    }
+}
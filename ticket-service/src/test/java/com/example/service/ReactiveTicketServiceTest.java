@@ -0,0 +1,239 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.exception.ResourceNotFoundException;
+import com.example.model.PassengerSnapshot;
+import com.example.model.Ticket;
+import com.example.repository.ReactiveTicketReader;
+import com.example.repository.TicketRepository;
+import com.example.response.FlightResponse;
+import com.example.response.PassengerDetailsResponse;
+import com.example.response.SeatMapResponse;
+import com.example.response.TicketResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ReactiveTicketServiceTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2026, 3, 1, 9, 30);
+
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+
+    // path -> body the stub services answer with as JSON, "" for an empty 200; anything else is a 404
+    private final Map<String, Object> remote = new ConcurrentHashMap<>();
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+
+    private ReactiveTicketReader reader;
+    private TicketRepository ticketRepository;
+    private SeatInventory inventory;
+    private ReactiveTicketService service;
+
+    @BeforeEach
+    void setUp() {
+        reader = mock(ReactiveTicketReader.class);
+        ticketRepository = mock(TicketRepository.class);
+        inventory = new SeatInventory(ticketRepository);
+        service = new ReactiveTicketService(reader, new PnrFilter(ticketRepository), inventory,
+                stub("http://flight-service"), stub("http://PASSENGER-SERVICE"));
+    }
+
+    @Test
+    void testGetByPnr_snapshotNeedsNoRemoteCall() {
+        when(reader.findByPnr("SNAP001")).thenReturn(Mono.just(snapshotted("SNAP001")));
+
+        TicketResponse response = service.getByPnr("SNAP001").block(WAIT).getBody();
+
+        assertEquals("DEL", response.getOrigin());
+        assertEquals("p11@example.com", response.getPassengers().get(0).getEmail());
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    void testGetByPnr_legacyTicketFetchesFlightAndPassengers() {
+        when(reader.findByPnr("LEGACY1")).thenReturn(Mono.just(
+                new Ticket(1, "LEGACY1", 7, List.of("3"), List.of(11, 12), 2, true)));
+        remote.put("/flight/getFlightById/7", flight(7));
+        remote.put("/passenger/getByPassengerId/11", new PassengerDetailsResponse("A", "a@example.com", "1"));
+        remote.put("/passenger/getByPassengerId/12", new PassengerDetailsResponse("B", "b@example.com", "2"));
+
+        TicketResponse response = service.getByPnr("LEGACY1").block(WAIT).getBody();
+
+        assertEquals("DEL", response.getOrigin());
+        assertEquals(List.of("a@example.com", "b@example.com"),
+                response.getPassengers().stream().map(PassengerDetailsResponse::getEmail).toList());
+
+        // a passenger-service that does not know one of them fails the whole read
+        remote.remove("/passenger/getByPassengerId/12");
+        assertThrows(RuntimeException.class, () -> service.getByPnr("LEGACY1").block(WAIT));
+    }
+
+    @Test
+    void testGetByPnr_unknownTicketIsNotFound() {
+        when(reader.findByPnr("NOPE001")).thenReturn(Mono.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getByPnr("NOPE001").block(WAIT));
+    }
+
+    @Test
+    void testGetTicketsByEmail_fallsBackToPassengerServiceAndBatches() {
+        when(reader.findAllByPassengerEmail("a@example.com")).thenReturn(Flux.empty());
+        when(reader.findAllByPassengerId(11)).thenReturn(Flux.just(
+                new Ticket(1, "LEGACY1", 7, List.of("3"), List.of(11), 1, true),
+                new Ticket(2, "LEGACY2", 8, List.of("4"), List.of(11), 1, true)));
+        remote.put("/passenger/getPassengerIdByEmail/a@example.com", 11);
+        remote.put("/flight/getFlightsByIds", List.of(flight(7), flight(8)));
+        remote.put("/passenger/getByPassengerIds", Map.of(11, new PassengerDetailsResponse("A", "a@example.com", "1")));
+
+        List<TicketResponse> responses = service.getTicketsByEmail("a@example.com").block(WAIT).getBody();
+
+        assertEquals(List.of("LEGACY1", "LEGACY2"), responses.stream().map(TicketResponse::getPnr).toList());
+        assertEquals(3, calls.size());
+
+        when(reader.findAllByPassengerEmail("nobody@example.com")).thenReturn(Flux.empty());
+        remote.put("/passenger/getPassengerIdByEmail/nobody@example.com", "");
+        assertEquals(HttpStatus.NOT_FOUND,
+                service.getTicketsByEmail("nobody@example.com").block(WAIT).getStatusCode());
+    }
+
+    @Test
+    void testGetTicketsByEmail_listsLegacyTicketsNextToSnapshottedOnes() {
+        Ticket recent = snapshotted("SNAP001");
+        Ticket legacy = new Ticket(5, "LEGACY5", 8, List.of("4"), List.of(11), 1, true);
+        when(reader.findAllByPassengerEmail("p11@example.com")).thenReturn(Flux.just(recent));
+        when(reader.findAllByPassengerId(11)).thenReturn(Flux.just(recent, legacy));
+        remote.put("/flight/getFlightsByIds", List.of(flight(8)));
+        remote.put("/passenger/getByPassengerIds", Map.of(11, new PassengerDetailsResponse("P", "p11@example.com", "1")));
+
+        List<TicketResponse> responses = service.getTicketsByEmail("p11@example.com").block(WAIT).getBody();
+
+        assertEquals(List.of("SNAP001", "LEGACY5"), responses.stream().map(TicketResponse::getPnr).toList());
+        assertEquals("DEL", responses.get(1).getOrigin());
+        // the snapshot names the passenger; only the legacy ticket needed its flight and passengers fetched
+        assertEquals(List.of("/flight/getFlightsByIds", "/passenger/getByPassengerIds"), calls.stream().sorted().toList());
+    }
+
+    @Test
+    void testGetTicketsByEmail_passengerServiceDownStillServesSnapshots() {
+        Ticket recent = snapshotted("SNAP001");
+        Ticket legacy = new Ticket(5, "LEGACY5", 8, List.of("4"), List.of(11), 1, true);
+        when(reader.findAllByPassengerEmail("p11@example.com")).thenReturn(Flux.just(recent));
+        when(reader.findAllByPassengerId(11)).thenReturn(Flux.just(recent, legacy));
+        remote.put("/flight/getFlightsByIds", List.of(flight(8)));
+
+        var response = service.getTicketsByEmail("p11@example.com").block(WAIT);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("SNAP001"), response.getBody().stream().map(TicketResponse::getPnr).toList());
+    }
+
+    @Test
+    void testGetSeatMap_readsSeatsOverR2dbcAndAnswersUnchangedPollsFromMemory() {
+        when(reader.findBookedSeatNumbers(7)).thenReturn(Mono.just(List.of("1", "2")));
+        remote.put("/flight/getFlightById/7", flight(7));
+
+        ResponseEntity<SeatMapResponse> first = service.getSeatMap(7, null).block(WAIT);
+
+        assertEquals(List.of("1", "2"), first.getBody().getBookedSeats());
+        assertTrue(inventory.isLoaded(7));
+        verify(ticketRepository, never()).findBookedSeatNumbers(7);
+
+        ResponseEntity<SeatMapResponse> again = service.getSeatMap(7, first.getHeaders().getETag()).block(WAIT);
+        assertEquals(HttpStatus.NOT_MODIFIED, again.getStatusCode());
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void testGetSeatMap_evictedFlightIsReadAgainOverR2dbc() {
+        when(reader.findBookedSeatNumbers(7)).thenReturn(Mono.just(List.of("1")), Mono.just(List.of("1", "2")));
+        remote.put("/flight/getFlightById/7", flight(7));
+        String etag = service.getSeatMap(7, null).block(WAIT).getHeaders().getETag();
+
+        inventory.evictIdle(System.nanoTime() + Duration.ofDays(1).toNanos());
+        ResponseEntity<SeatMapResponse> after = service.getSeatMap(7, etag).block(WAIT);
+
+        assertEquals(HttpStatus.OK, after.getStatusCode());
+        assertEquals(List.of("1", "2"), after.getBody().getBookedSeats());
+        verify(ticketRepository, never()).findBookedSeatNumbers(7);
+    }
+
+    @Test
+    void testGetSeatMap_unknownFlightKeepsNothing() {
+        assertThrows(RuntimeException.class, () -> service.getSeatMap(99, null).block(WAIT));
+
+        assertFalse(inventory.isLoaded(99));
+        verify(reader, never()).findBookedSeatNumbers(99);
+    }
+
+    private WebClient stub(String baseUrl) {
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .exchangeFunction(request -> {
+                    String path = request.url().getPath();
+                    calls.add(path);
+                    Object body = remote.get(path);
+                    if (body == null) {
+                        return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+                    }
+                    if (body.equals("")) {
+                        return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+                    }
+                    try {
+                        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body(json.writeValueAsString(body))
+                                .build());
+                    } catch (Exception ex) {
+                        return Mono.error(ex);
+                    }
+                })
+                .build();
+    }
+
+    private static FlightResponse flight(int flightId) {
+        return new FlightResponse(flightId, null, "DEL", "BOM", 4500.0, DEPARTURE, DEPARTURE.plusHours(2), 180, 150);
+    }
+
+    private static Ticket snapshotted(String pnr) {
+        return Ticket.builder()
+                .ticketId(1)
+                .pnr(pnr)
+                .flightId(7)
+                .seatNumbers(List.of("1"))
+                .passengerIds(List.of(11))
+                .numberOfSeats(1)
+                .booked(true)
+                .origin("DEL")
+                .destination("BOM")
+                .departureTime(DEPARTURE)
+                .arrivalTime(DEPARTURE.plusHours(2))
+                .passengers(List.of(new PassengerSnapshot(11, "P", "p11@example.com", "")))
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.SeatAlreadyBookedException;
+import com.example.feign.FlightInterface;
+import com.example.repository.TicketRepository;
+import com.example.request.SeatHoldRequest;
+import com.example.response.Airline;
+import com.example.response.FlightResponse;
+import com.example.response.SeatHoldResponse;
+
+class SeatHoldServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+    private static final long MINUTE = 60_000;
+
+    private SeatInventory inventory;
+    private SeatHoldService holds;
+
+    @BeforeEach
+    void setUp() {
+        TicketRepository repo = mock(TicketRepository.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        when(repo.findBookedSeatNumbers(1)).thenReturn(List.of("3"));
+        when(flightFeign.getByID(1)).thenReturn(ResponseEntity.ok(new FlightResponse(1, Airline.INDIGO, "NYC", "LAX",
+                100.0, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(2).plusHours(6), 50, 49)));
+
+        inventory = new SeatInventory(repo);
+        holds = new SeatHoldService(inventory, flightFeign, Clock.fixed(NOW, ZoneOffset.UTC), 10, 15, 4, 6, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testHold_blocksBookingsAndOtherHolds() {
+        ResponseEntity<SeatHoldResponse> resp = holds.holdSeatsService(new SeatHoldRequest(1, 11, List.of(" 5", "6"), null));
+
+        assertEquals(201, resp.getStatusCode().value());
+        assertEquals(List.of("5", "6"), resp.getBody().getSeatNumbers());
+        assertEquals(NOW.plusSeconds(600), resp.getBody().getExpiresAt());
+        assertEquals(List.of("5", "6"), inventory.heldSeats(1));
+
+        assertEquals(List.of("6"), inventory.tryBook(1, List.of("6", "7")));
+        assertThrows(SeatAlreadyBookedException.class,
+                () -> holds.holdSeatsService(new SeatHoldRequest(1, 11, List.of("3", "8"), 5)));
+        assertThrows(IllegalArgumentException.class,
+                () -> holds.holdSeatsService(new SeatHoldRequest(1, 11, List.of("9"), 16)));
+    }
+
+    @Test
+    void testExpire_releasesOnlyDueHolds() {
+        holds.holdSeatsService(new SeatHoldRequest(1, 11, List.of("5"), 2));
+        holds.holdSeatsService(new SeatHoldRequest(1, 11, List.of("6"), 15));
+
+        holds.expire(NOW.toEpochMilli() + 2 * MINUTE - 1000);
+        assertEquals(List.of("5", "6"), inventory.heldSeats(1));
+
+        holds.expire(NOW.toEpochMilli() + 2 * MINUTE);
+        assertEquals(List.of("6"), inventory.heldSeats(1));
+
+        // far past a full turn of the wheel
+        holds.expire(NOW.toEpochMilli() + 60 * MINUTE);
+        assertTrue(inventory.heldSeats(1).isEmpty());
+        assertEquals(0, holds.activeHolds());
+    }
+
+    @Test
+    void testBookHeldSeats_convertsAndRestoresOnRollback() {
+        String holdId = holds.holdSeatsService(new SeatHoldRequest(1, 11, List.of("5", "6"), null)).getBody().getHoldId();
+
+        assertThrows(IllegalArgumentException.class, () -> holds.bookHeldSeats(holdId, 1, List.of("5")));
+        assertEquals(1, holds.activeHolds());
+
+        TransactionSynchronizationManager.initSynchronization();
+        holds.bookHeldSeats(holdId, 1, List.of("6", "5"));
+        assertEquals(List.of("3", "5", "6"), inventory.bookedSeats(1));
+        assertTrue(inventory.heldSeats(1).isEmpty());
+        assertEquals(0, holds.activeHolds());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(List.of("3"), inventory.bookedSeats(1));
+        assertEquals(List.of("5", "6"), inventory.heldSeats(1));
+        assertEquals(1, holds.activeHolds());
+    }
+
+    @Test
+    void testReleaseHold() {
+        String holdId = holds.holdSeatsService(new SeatHoldRequest(1, 11, List.of("5"), null)).getBody().getHoldId();
+
+        holds.releaseHoldService(holdId);
+
+        assertTrue(inventory.heldSeats(1).isEmpty());
+        assertThrows(ResourceNotFoundException.class, () -> holds.releaseHoldService(holdId));
+        assertThrows(ResourceNotFoundException.class, () -> holds.bookHeldSeats(holdId, 1, List.of("5")));
+    }
+
+    @Test
+    void testHold_capsSeatsPerPassengerAndPerFlight() {
+        String first = holds.holdSeatsService(new SeatHoldRequest(1, 11, List.of("5", "6", "7"), null)).getBody().getHoldId();
+
+        assertThrows(SeatAlreadyBookedException.class,
+                () -> holds.holdSeatsService(new SeatHoldRequest(1, 11, List.of("8", "9"), null)));
+        holds.holdSeatsService(new SeatHoldRequest(1, 11, List.of("8"), null));
+
+        // the flight has 4 of its 6 seats held; a refused hold takes nothing from either count
+        assertThrows(SeatAlreadyBookedException.class,
+                () -> holds.holdSeatsService(new SeatHoldRequest(1, 12, List.of("10", "11", "12"), null)));
+        assertThrows(SeatAlreadyBookedException.class,
+                () -> holds.holdSeatsService(new SeatHoldRequest(1, 12, List.of("3", "10"), null)));
+        holds.holdSeatsService(new SeatHoldRequest(1, 12, List.of("10", "11"), null));
+        assertEquals(List.of("5", "6", "7", "8", "10", "11"), inventory.heldSeats(1));
+
+        // ending a hold, however it ends, frees its seats under both caps
+        holds.releaseHoldService(first);
+        holds.holdSeatsService(new SeatHoldRequest(1, 11, List.of("12", "13", "14"), null));
+        holds.expire(NOW.toEpochMilli() + 60 * MINUTE);
+        holds.holdSeatsService(new SeatHoldRequest(1, 12, List.of("15", "16", "17", "18"), null));
+    }
+}
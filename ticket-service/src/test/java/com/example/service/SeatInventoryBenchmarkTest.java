@@ -0,0 +1,76 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.repository.TicketRepository;
+
+/**
+ * Conflict checks and seat maps on a 500-seat widebody at 95% load, comparing the old scan over
+ * booked seat strings with the bitmap. Disabled by default; run with
+ * {@code mvn test -Dtest=SeatInventoryBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SeatInventoryBenchmarkTest {
+
+    private static final int SEATS = 500;
+    private static final int BOOKED = SEATS * 95 / 100;
+    private static final int ROUNDS = 200_000;
+
+    @Test
+    void benchmarkConflictCheckAndSeatMap() {
+        List<String> all = IntStream.rangeClosed(1, SEATS).mapToObj(Integer::toString).collect(Collectors.toList());
+        Collections.shuffle(all, new Random(42));
+        List<String> booked = List.copyOf(all.subList(0, BOOKED));
+        List<String> free = List.copyOf(all.subList(BOOKED, SEATS));
+
+        TicketRepository repo = mock(TicketRepository.class);
+        when(repo.findBookedSeatNumbers(1)).thenReturn(booked);
+        SeatInventory inventory = new SeatInventory(repo);
+        inventory.bookedSeats(1);
+
+        // a family of four asking for two free seats and two taken ones
+        List<String> requested = List.of(free.get(0), free.get(1), booked.get(0), booked.get(1));
+
+        long sink = 0;
+        for (int warmup = 0; warmup < 2; warmup++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                List<String> alreadyBooked = booked.stream().map(seat -> seat.trim().toUpperCase()).toList();
+                Set<String> conflicts = requested.stream().filter(alreadyBooked::contains).collect(Collectors.toSet());
+                sink += conflicts.size() + alreadyBooked.size();
+            }
+            long scanNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                sink += inventory.tryBook(1, requested).size() + inventory.bookedCount(1);
+            }
+            long bitmapNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                sink += inventory.bookedSeats(1).size();
+            }
+            long seatMapNanos = System.nanoTime() - start;
+
+            System.out.printf("%s: scan %d ns/check | bitmap %d ns/check | seat map %d ns%n",
+                    warmup == 0 ? "warmup" : "measured", scanNanos / ROUNDS, bitmapNanos / ROUNDS,
+                    seatMapNanos / ROUNDS);
+        }
+
+        assertEquals(BOOKED, inventory.bookedCount(1));
+        System.out.println("checksum " + sink);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.repository.TicketRepository;
+import com.example.repository.TicketRepository.FlightSeat;
+import com.example.response.SeatMapDelta;
+import com.example.response.SeatMapDelta.Change;
+
+class SeatInventoryTest {
+
+    private TicketRepository repo;
+    private SeatInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(TicketRepository.class);
+        inventory = new SeatInventory(repo);
+        when(repo.findBookedSeatNumbers(1)).thenReturn(List.of("3", " 12 ", "7"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testLoadsLazilyOncePerFlight() {
+        assertEquals(List.of("3", "7", "12"), inventory.bookedSeats(1));
+        assertEquals(3, inventory.bookedCount(1));
+        verify(repo, times(1)).findBookedSeatNumbers(1);
+    }
+
+    @Test
+    void testEvictIdle_dropsUnusedFlightsButKeepsHeldAndUncommittedSeats() {
+        when(repo.findBookedSeatNumbers(2)).thenReturn(List.of());
+        when(repo.findBookedSeatNumbers(3)).thenReturn(List.of());
+        inventory.bookedSeats(1);
+        inventory.tryHold(2, List.of("1"));
+        TransactionSynchronizationManager.initSynchronization();
+        inventory.tryBook(3, List.of("1"));
+
+        inventory.evictIdle(System.nanoTime() + Duration.ofHours(1).toNanos());
+
+        assertFalse(inventory.isLoaded(1));
+        assertTrue(inventory.isLoaded(2));
+        assertTrue(inventory.isLoaded(3));
+
+        // read again on next use
+        assertEquals(List.of("3", "7", "12"), inventory.bookedSeats(1));
+        verify(repo, times(2)).findBookedSeatNumbers(1);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        inventory.evictIdle(System.nanoTime() + Duration.ofHours(1).toNanos());
+        assertFalse(inventory.isLoaded(3));
+    }
+
+    @Test
+    void testResync_picksUpBookingsAndCancellationsFromOtherInstances() {
+        List<SeatMapDelta> deltas = new ArrayList<>();
+        inventory.onSeatChange(deltas::add);
+        assertEquals(List.of("3", "7", "12"), inventory.bookedSeats(1));
+        long before = inventory.version(1);
+        // a booking here that has not committed yet is not in the database
+        TransactionSynchronizationManager.initSynchronization();
+        inventory.tryBook(1, List.of("20"));
+
+        // elsewhere seat 7 was cancelled and seat 9 sold
+        when(repo.findBookedSeatsByFlightIdIn(any())).thenReturn(List.of(row(1, "3"), row(1, "9"), row(1, "12")));
+        inventory.resync();
+
+        assertEquals(List.of("3", "9", "12", "20"), inventory.bookedSeats(1));
+        assertNotEquals(before, inventory.version(1));
+        assertEquals(List.of(Change.BOOKED, Change.RELEASED),
+                deltas.stream().map(SeatMapDelta::getChange).toList());
+        assertEquals(List.of("9"), deltas.get(0).getSeats());
+        assertEquals(List.of("7"), deltas.get(1).getSeats());
+    }
+
+    @Test
+    void testEvictIdle_keepsRecentlyUsedFlights() {
+        inventory.bookedSeats(1);
+
+        inventory.evictIdle(System.nanoTime());
+
+        assertTrue(inventory.isLoaded(1));
+    }
+
+    @Test
+    void testTryBook_allOrNothing() {
+        assertEquals(List.of("7"), inventory.tryBook(1, List.of("5", "7")));
+        assertEquals(List.of("3", "7", "12"), inventory.bookedSeats(1));
+
+        assertTrue(inventory.tryBook(1, List.of("5", "6")).isEmpty());
+        assertEquals(List.of("3", "5", "6", "7", "12"), inventory.bookedSeats(1));
+    }
+
+    @Test
+    void testTryBook_rollbackGivesSeatsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(inventory.tryBook(1, List.of("40")).isEmpty());
+        assertEquals(List.of("3", "7", "12", "40"), inventory.bookedSeats(1));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(List.of("3", "7", "12"), inventory.bookedSeats(1));
+    }
+
+    @Test
+    void testReleaseOnCommit_waitsForCommit() {
+        inventory.bookedSeats(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        inventory.releaseOnCommit(1, List.of("3", "12"));
+        assertEquals(3, inventory.bookedCount(1));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(List.of("7"), inventory.bookedSeats(1));
+    }
+
+    @Test
+    void testVersion_changesWithEveryChange() throws InterruptedException {
+        long loaded = inventory.version(1);
+        assertEquals(loaded, inventory.version(1));
+
+        inventory.tryHold(1, List.of("20"));
+        long held = inventory.version(1);
+        assertNotEquals(loaded, held);
+
+        // a refused booking changes nothing
+        inventory.tryBook(1, List.of("3"));
+        assertEquals(held, inventory.version(1));
+
+        inventory.releaseOnCommit(1, List.of("3"));
+        assertNotEquals(held, inventory.version(1));
+
+        // a flight loaded again, as after a restart, never reuses an earlier version; versions are
+        // seeded from the clock, and a restart takes longer than the millisecond waited here
+        long beforeReload = inventory.version(1);
+        Thread.sleep(2);
+        assertTrue(new SeatInventory(repo).version(1) > beforeReload);
+    }
+
+    @Test
+    void testSeatChanges_bookingsReportedOnCommitOnly() {
+        List<SeatMapDelta> deltas = new ArrayList<>();
+        inventory.onSeatChange(deltas::add);
+
+        inventory.tryHold(1, List.of("20"));
+        TransactionSynchronizationManager.initSynchronization();
+        inventory.tryBook(1, List.of("21", "22"));
+        assertEquals(1, deltas.size());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // a booking rolled back after readers may have seen its seats gives them back
+        TransactionSynchronizationManager.initSynchronization();
+        inventory.tryBook(1, List.of("30"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        inventory.releaseHold(1, List.of("20"));
+
+        assertEquals(List.of(Change.HELD, Change.BOOKED, Change.RELEASED, Change.HOLD_RELEASED),
+                deltas.stream().map(SeatMapDelta::getChange).toList());
+        assertEquals(List.of("21", "22"), deltas.get(1).getSeats());
+        assertEquals(List.of("30"), deltas.get(2).getSeats());
+    }
+
+    private static FlightSeat row(int flightId, String seat) {
+        return new FlightSeat() {
+            @Override
+            public Integer getFlightId() { return flightId; }
+
+            @Override
+            public String getSeatNumber() { return seat; }
+        };
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.exception.ResourceNotFoundException;
+import com.example.exception.ServiceBusyException;
+import com.example.repository.TicketRepository;
+import com.example.response.SeatMapResponse;
+
+class SeatMapBroadcasterTest {
+
+    private TicketService ticketService;
+    private SeatInventory inventory;
+    private List<Runnable> drains;
+    private SeatMapBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        ticketService = mock(TicketService.class);
+        TicketRepository repo = mock(TicketRepository.class);
+        when(repo.findBookedSeatNumbers(1)).thenReturn(List.of());
+        inventory = new SeatInventory(repo);
+        // drains are queued but never run, as if every client were stalled
+        drains = new ArrayList<>();
+        broadcaster = new SeatMapBroadcaster(ticketService, inventory, drains::add);
+        ReflectionTestUtils.setField(broadcaster, "bufferSize", 4);
+        ReflectionTestUtils.setField(broadcaster, "maxSubscribers", 2);
+    }
+
+    @Test
+    void testSubscribersFanOutAndStalledOnesAreDropped() {
+        when(ticketService.getSeatMap(1)).thenReturn(ResponseEntity.ok(
+                new SeatMapResponse(1, 10, 10, List.of(), List.of())));
+
+        broadcaster.streamSeatMapService(1);
+        broadcaster.streamSeatMapService(1);
+        assertEquals(2, broadcaster.subscribers(1));
+        assertEquals(2, drains.size());
+        assertThrows(ServiceBusyException.class, () -> broadcaster.streamSeatMapService(1));
+
+        // one drain per subscriber is in flight however many changes arrive
+        for (int seat = 1; seat <= 4; seat++) {
+            inventory.tryHold(1, List.of(Integer.toString(seat)));
+        }
+        assertEquals(2, drains.size());
+        assertEquals(2, broadcaster.subscribers(1));
+
+        // the fifth change overflows both buffers
+        inventory.tryHold(1, List.of("5"));
+        assertEquals(0, broadcaster.subscribers(1));
+        broadcaster.streamSeatMapService(1);
+        assertEquals(1, broadcaster.subscribers(1));
+    }
+
+    @Test
+    void testSubscriberThatStopsReadingIsDroppedAndItsWorkerReplaced() throws Exception {
+        when(ticketService.getSeatMap(1)).thenReturn(ResponseEntity.ok(
+                new SeatMapResponse(1, 10, 10, List.of(), List.of())));
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(1);
+        pool.setMaxPoolSize(1);
+        pool.initialize();
+
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        AtomicBoolean completed = new AtomicBoolean();
+        List<SseEmitter> emitters = new ArrayList<>(List.of(
+                new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        try {
+                            unblock.await();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+
+                    @Override
+                    public void complete() {
+                        completed.set(true);
+                    }
+                },
+                new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) {
+                        delivered.countDown();
+                    }
+                }));
+        SeatMapBroadcaster broadcaster = new SeatMapBroadcaster(ticketService, inventory, pool) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return emitters.remove(0);
+            }
+        };
+
+        try {
+            // the only worker is stuck on the first client, the second one waits behind it
+            broadcaster.streamSeatMapService(1);
+            broadcaster.streamSeatMapService(1);
+            assertFalse(delivered.await(200, TimeUnit.MILLISECONDS));
+
+            broadcaster.dropStalled(System.nanoTime() + Duration.ofMinutes(1).toNanos());
+
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            assertEquals(1, broadcaster.subscribers(1));
+            assertEquals(2, pool.getCorePoolSize());
+
+            // once the stuck send returns the extra worker goes away and the client is completed
+            unblock.countDown();
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!completed.get() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(completed.get());
+            assertEquals(1, pool.getCorePoolSize());
+        } finally {
+            unblock.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testUnknownFlightDoesNotStaySubscribed() {
+        when(ticketService.getSeatMap(99)).thenThrow(new ResourceNotFoundException("Flight not found"));
+
+        assertThrows(ResourceNotFoundException.class, () -> broadcaster.streamSeatMapService(99));
+        assertEquals(0, broadcaster.subscribers(99));
+    }
+}
@@ -4,36 +4,64 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import com.example.event.TicketBookedEvent;
+import com.example.model.OutboxEvent;
+import com.example.model.PassengerSnapshot;
 import com.example.model.Ticket;
+import com.example.model.BookedSeat;
+import com.example.repository.BookedSeatRepository;
+import com.example.repository.OutboxEventRepository;
 import com.example.repository.TicketRepository;
 import com.example.request.BookTicketRequest;
+import com.example.request.MultiSegmentBookingRequest;
+import com.example.request.SeatReservation;
 import com.example.response.FlightResponse;
 import com.example.response.PassengerDetailsResponse;
 import com.example.response.SeatMapResponse;
 import com.example.response.Airline;
 
+import com.example.exception.SeatAlreadyBookedException;
 import com.example.feign.FlightInterface;
 import com.example.feign.PassengerInterface;
 
 public class TicketServiceTest {
 
+    private static PnrGenerator pnrs() {
+        return new BlockPnrGenerator(new AtomicLong()::getAndIncrement);
+    }
+
     @Test
     void testBookTicketService_success() {
         TicketRepository repo = mock(TicketRepository.class);
         PassengerInterface passengerFeign = mock(PassengerInterface.class);
         FlightInterface flightFeign = mock(FlightInterface.class);
-        KafkaTemplate<String, TicketBookedEvent> kafka = mock(KafkaTemplate.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
 
-        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, kafka);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
 
         BookTicketRequest req = new BookTicketRequest(1, List.of(1, 2), List.of("1", "2"));
 
@@ -42,10 +70,9 @@ public class TicketServiceTest {
 
         when(flightFeign.getByID(1)).thenReturn(ResponseEntity.ok(flight));
         when(repo.findBookedSeatNumbers(1)).thenReturn(List.of());
-
-        // ensure passenger details are returned so sendKafkaNotifications won't NPE
-        when(passengerFeign.getPassengerDetails(1)).thenReturn(ResponseEntity.ok(new PassengerDetailsResponse("P1", "p1@example.com", "")));
-        when(passengerFeign.getPassengerDetails(2)).thenReturn(ResponseEntity.ok(new PassengerDetailsResponse("P2", "p2@example.com", "")));
+        when(passengerFeign.getPassengerDetailsByIds(List.of(1, 2))).thenReturn(ResponseEntity.ok(Map.of(
+                1, new PassengerDetailsResponse("P1", "p1@example.com", ""),
+                2, new PassengerDetailsResponse("P2", "p2@example.com", ""))));
 
         // when saving, return ticket with pnr set
         when(repo.save(any(Ticket.class))).thenAnswer(invocation -> {
@@ -58,6 +85,11 @@ public class TicketServiceTest {
                     .passengerIds(t.getPassengerIds())
                     .numberOfSeats(t.getNumberOfSeats())
                     .booked(t.isBooked())
+                    .origin(t.getOrigin())
+                    .destination(t.getDestination())
+                    .departureTime(t.getDepartureTime())
+                    .arrivalTime(t.getArrivalTime())
+                    .passengers(t.getPassengers())
                     .build();
         });
 
@@ -73,6 +105,22 @@ public class TicketServiceTest {
 
         verify(repo, times(1)).save(any(Ticket.class));
         verify(flightFeign, times(1)).reserveSeats(1, 2);
+
+        // the flight and passengers are snapshotted onto the ticket
+        ArgumentCaptor<Ticket> saved = ArgumentCaptor.forClass(Ticket.class);
+        verify(repo).save(saved.capture());
+        assertTrue(saved.getValue().hasSnapshot());
+        assertEquals("NYC", saved.getValue().getOrigin());
+        assertEquals("p2@example.com", saved.getValue().getPassengers().get(1).getEmail());
+
+        // notifications are only queued, already carrying the e-mail; one batched lookup, nothing sent
+        ArgumentCaptor<List<OutboxEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(outbox).saveAll(events.capture());
+        assertEquals(List.of(1, 2), events.getValue().stream().map(OutboxEvent::getPassengerId).toList());
+        assertEquals("p1@example.com", events.getValue().get(0).getEmail());
+        assertEquals(resp.getBody(), events.getValue().get(0).getPnr());
+        verify(passengerFeign, times(1)).getPassengerDetailsByIds(any());
+        verify(passengerFeign, never()).getPassengerDetails(anyInt());
     }
 
     @Test
@@ -80,9 +128,9 @@ public class TicketServiceTest {
         TicketRepository repo = mock(TicketRepository.class);
         PassengerInterface passengerFeign = mock(PassengerInterface.class);
         FlightInterface flightFeign = mock(FlightInterface.class);
-        KafkaTemplate<String, TicketBookedEvent> kafka = mock(KafkaTemplate.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
 
-        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, kafka);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
 
         BookTicketRequest req = new BookTicketRequest(1, List.of(1), List.of("1"));
 
@@ -91,19 +139,128 @@ public class TicketServiceTest {
 
         when(flightFeign.getByID(1)).thenReturn(ResponseEntity.ok(flight));
         when(repo.findBookedSeatNumbers(1)).thenReturn(List.of("1"));
+        when(passengerFeign.getPassengerDetailsByIds(List.of(1))).thenReturn(ResponseEntity.ok(Map.of(
+                1, new PassengerDetailsResponse("P1", "p1@example.com", ""))));
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> svc.bookTicketService(req));
         assertTrue(ex.getMessage().contains("Seats already booked"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBookTicketService_seatSoldByAnotherInstance_throwsAndRereadsTheFlight() {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+        BookedSeatRepository bookedSeats = mock(BookedSeatRepository.class);
+
+        SeatInventory inventory = new SeatInventory(repo);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, inventory, mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), bookedSeats);
+
+        FlightResponse flight = new FlightResponse(1, Airline.INDIGO, "NYC", "LAX", 100.0,
+                LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(2).plusHours(6), 100, 100);
+        when(flightFeign.getByID(1)).thenReturn(ResponseEntity.ok(flight));
+        // this instance loaded the flight before another one sold seat 7
+        when(repo.findBookedSeatNumbers(1)).thenReturn(List.of());
+        when(passengerFeign.getPassengerDetailsByIds(List.of(1))).thenReturn(ResponseEntity.ok(Map.of(
+                1, new PassengerDetailsResponse("P1", "p1@example.com", ""))));
+        when(repo.save(any(Ticket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(bookedSeats.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("uk_booked_seat_flight_seat"));
+
+        assertThrows(SeatAlreadyBookedException.class,
+                () -> svc.bookTicketService(new BookTicketRequest(1, List.of(1), List.of("07"))));
+
+        // written in the same form as every other copy of the seat
+        ArgumentCaptor<List<BookedSeat>> written = ArgumentCaptor.forClass(List.class);
+        verify(bookedSeats).saveAllAndFlush(written.capture());
+        assertEquals("7", written.getValue().get(0).getSeatNumber());
+        // the stale copy is dropped, so the next booking sees the other instance's seat
+        assertFalse(inventory.isLoaded(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBookSegmentsService_batchesLookupsAndReserve() {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
+
+        when(flightFeign.getFlightsByIds(List.of(1, 2))).thenReturn(ResponseEntity.ok(List.of(
+                new FlightResponse(1, Airline.INDIGO, "NYC", "LAX", 100.0,
+                        LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(2).plusHours(6), 100, 100),
+                new FlightResponse(2, Airline.INDIGO, "LAX", "NYC", 100.0,
+                        LocalDateTime.now().plusDays(9), LocalDateTime.now().plusDays(9).plusHours(6), 100, 100))));
+        when(passengerFeign.getPassengerDetailsByIds(List.of(1, 2))).thenReturn(ResponseEntity.ok(Map.of(
+                1, new PassengerDetailsResponse("P1", "p1@example.com", ""),
+                2, new PassengerDetailsResponse("P2", "p2@example.com", ""))));
+        when(repo.saveAll(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        var resp = svc.bookSegmentsService(new MultiSegmentBookingRequest(List.of(
+                new BookTicketRequest(1, List.of(1, 2), List.of("1", "2")),
+                new BookTicketRequest(2, List.of(1, 2), List.of("5", "6")))));
+
+        assertEquals(2, resp.getBody().size());
+        ArgumentCaptor<List<SeatReservation>> reserved = ArgumentCaptor.forClass(List.class);
+        verify(flightFeign, times(1)).reserveSeats(reserved.capture());
+        assertEquals(List.of(1, 2), reserved.getValue().stream().map(SeatReservation::getFlightId).toList());
+        verify(flightFeign, never()).getByID(anyInt());
+        verify(passengerFeign, times(1)).getPassengerDetailsByIds(any());
+
+        ArgumentCaptor<List<Ticket>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repo).saveAll(saved.capture());
+        assertEquals("LAX", saved.getValue().get(1).getOrigin());
+    }
+
+    @Test
+    void testBookSegmentsService_conflictOnAnySegmentBooksNothing() {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+
+        SeatInventory inventory = new SeatInventory(repo);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, inventory, mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
+
+        when(flightFeign.getFlightsByIds(List.of(1, 2))).thenReturn(ResponseEntity.ok(List.of(
+                new FlightResponse(1, Airline.INDIGO, "NYC", "LAX", 100.0,
+                        LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(2).plusHours(6), 100, 100),
+                new FlightResponse(2, Airline.INDIGO, "LAX", "NYC", 100.0,
+                        LocalDateTime.now().plusDays(9), LocalDateTime.now().plusDays(9).plusHours(6), 100, 99))));
+        when(passengerFeign.getPassengerDetailsByIds(List.of(1))).thenReturn(ResponseEntity.ok(Map.of(
+                1, new PassengerDetailsResponse("P1", "p1@example.com", ""))));
+        when(repo.findBookedSeatNumbers(2)).thenReturn(List.of("5"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(IllegalArgumentException.class, () -> svc.bookSegmentsService(new MultiSegmentBookingRequest(List.of(
+                    new BookTicketRequest(1, List.of(1), List.of("1")),
+                    new BookTicketRequest(2, List.of(1), List.of("5"))))));
+
+            // the first segment's seat was claimed and goes back when the transaction rolls back
+            assertEquals(List.of("1"), inventory.bookedSeats(1));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            assertTrue(inventory.bookedSeats(1).isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(flightFeign, never()).reserveSeats(any());
+        verify(repo, never()).saveAll(any());
+    }
+
     @Test
     void testGetByPnrService_success() {
         TicketRepository repo = mock(TicketRepository.class);
         PassengerInterface passengerFeign = mock(PassengerInterface.class);
         FlightInterface flightFeign = mock(FlightInterface.class);
-        KafkaTemplate<String, TicketBookedEvent> kafka = mock(KafkaTemplate.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
 
-        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, kafka);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
 
         Ticket t = Ticket.builder()
                 .pnr("PNR123")
@@ -130,18 +287,182 @@ public class TicketServiceTest {
         assertEquals(2, resp.getBody().getPassengers().size());
     }
 
+    @Test
+    void testGetByPnrService_snapshottedTicketNeedsNoRemoteCalls() {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
+
+        Ticket t = snapshottedTicket(9, "PNR9", 5, 10);
+        when(repo.findByPnr("PNR9")).thenReturn(Optional.of(t));
+        when(repo.findAllByPassengerEmail("p10@example.com")).thenReturn(List.of(t));
+        when(passengerFeign.getIdByEmail("p10@example.com")).thenReturn(ResponseEntity.ok(10));
+        when(repo.findAllByPassengerId(10)).thenReturn(List.of(t));
+
+        var byPnr = svc.getByPnrService("PNR9").getBody();
+        assertEquals("A", byPnr.getOrigin());
+        assertEquals("p10@example.com", byPnr.getPassengers().get(0).getEmail());
+
+        var byEmail = svc.getTicketsByEmailService("p10@example.com").getBody();
+        assertEquals(List.of("PNR9"), byEmail.stream().map(r -> r.getPnr()).toList());
+
+        verifyNoInteractions(flightFeign, passengerFeign);
+    }
+
+    @Test
+    void testGetTicketsByEmailService_listsLegacyTicketsNextToSnapshottedOnes() {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
+
+        // booked before snapshots existed, so only found through the passenger id
+        Ticket legacy = Ticket.builder().ticketId(3).pnr("OLD3").flightId(6).seatNumbers(List.of("4"))
+                .passengerIds(List.of(10)).numberOfSeats(1).booked(true).build();
+        Ticket recent = snapshottedTicket(8, "NEW8", 5, 10);
+        when(repo.findAllByPassengerEmail("p10@example.com")).thenReturn(List.of(recent));
+        when(passengerFeign.getIdByEmail("p10@example.com")).thenReturn(ResponseEntity.ok(10));
+        when(repo.findAllByPassengerId(10)).thenReturn(List.of(legacy, recent));
+
+        LocalDateTime departure = LocalDateTime.now().plusDays(3);
+        when(flightFeign.getFlightsByIds(List.of(6))).thenReturn(ResponseEntity.ok(List.of(
+                new FlightResponse(6, Airline.INDIGO, "BOM", "DEL", 50.0, departure, departure.plusHours(2), 50, 40))));
+        when(passengerFeign.getPassengerDetailsByIds(List.of(10)))
+                .thenReturn(ResponseEntity.ok(Map.of(10, new PassengerDetailsResponse("P10", "p10@example.com", ""))));
+
+        var byEmail = svc.getTicketsByEmailService("p10@example.com").getBody();
+
+        assertEquals(List.of("OLD3", "NEW8"), byEmail.stream().map(r -> r.getPnr()).toList());
+        assertEquals("BOM", byEmail.get(0).getOrigin());
+        assertEquals("A", byEmail.get(1).getOrigin());
+        verify(flightFeign, never()).getFlightsByIds(List.of(5));
+        verify(passengerFeign, never()).getIdByEmail(any());
+    }
+
+    @Test
+    void testGetTicketsByEmailService_passengerServiceDownStillServesSnapshots() {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
+
+        Ticket legacy = Ticket.builder().ticketId(3).pnr("OLD3").flightId(6).seatNumbers(List.of("4"))
+                .passengerIds(List.of(10)).numberOfSeats(1).booked(true).build();
+        Ticket recent = snapshottedTicket(8, "NEW8", 5, 10);
+        when(repo.findAllByPassengerEmail("p10@example.com")).thenReturn(List.of(recent));
+        when(repo.findAllByPassengerId(10)).thenReturn(List.of(legacy, recent));
+        when(passengerFeign.getIdByEmail(any())).thenThrow(new RuntimeException("passenger-service down"));
+        when(passengerFeign.getPassengerDetailsByIds(any())).thenThrow(new RuntimeException("passenger-service down"));
+
+        LocalDateTime departure = LocalDateTime.now().plusDays(3);
+        when(flightFeign.getFlightsByIds(List.of(6))).thenReturn(ResponseEntity.ok(List.of(
+                new FlightResponse(6, Airline.INDIGO, "BOM", "DEL", 50.0, departure, departure.plusHours(2), 50, 40))));
+
+        var resp = svc.getTicketsByEmailService("p10@example.com");
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals(List.of("NEW8"), resp.getBody().stream().map(r -> r.getPnr()).toList());
+    }
+
+    private static Ticket snapshottedTicket(int ticketId, String pnr, int flightId, int passengerId) {
+        return Ticket.builder()
+                .ticketId(ticketId)
+                .pnr(pnr)
+                .flightId(flightId)
+                .seatNumbers(List.of("1"))
+                .passengerIds(List.of(passengerId))
+                .numberOfSeats(1)
+                .booked(true)
+                .origin("A")
+                .destination("B")
+                .departureTime(LocalDateTime.now().plusDays(1))
+                .arrivalTime(LocalDateTime.now().plusDays(1).plusHours(2))
+                .passengers(List.of(new PassengerSnapshot(passengerId, "P" + passengerId,
+                        "p" + passengerId + "@example.com", "")))
+                .build();
+    }
+
     @Test
     void testGetSeatMap_flightNotFound_throws() {
         TicketRepository repo = mock(TicketRepository.class);
         PassengerInterface passengerFeign = mock(PassengerInterface.class);
         FlightInterface flightFeign = mock(FlightInterface.class);
-        KafkaTemplate<String, TicketBookedEvent> kafka = mock(KafkaTemplate.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
 
-        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, kafka);
+        SeatInventory inventory = new SeatInventory(repo);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, inventory, mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
 
         when(flightFeign.getByID(99)).thenReturn(ResponseEntity.ok(null));
 
         assertThrows(RuntimeException.class, () -> svc.getSeatMap(99));
+        assertThrows(RuntimeException.class, () -> svc.getSeatMap(99, "\"1\""));
+        // nothing is kept for a flight that does not exist
+        assertFalse(inventory.isLoaded(99));
+        verify(repo, never()).findBookedSeatNumbers(99);
+    }
+
+    @Test
+    void testGetSeatMap_showsHeldSeatsSeparately() {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+
+        SeatInventory inventory = new SeatInventory(repo);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, inventory, mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
+
+        FlightResponse flight = new FlightResponse(1, Airline.INDIGO, "NYC", "LAX", 100.0,
+                LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(2).plusHours(6), 10, 8);
+        when(flightFeign.getByID(1)).thenReturn(ResponseEntity.ok(flight));
+        when(repo.findBookedSeatNumbers(1)).thenReturn(List.of("1", "2"));
+        inventory.tryHold(1, List.of("4", "5"));
+
+        SeatMapResponse map = svc.getSeatMap(1).getBody();
+
+        assertEquals(List.of("1", "2"), map.getBookedSeats());
+        assertEquals(List.of("4", "5"), map.getHeldSeats());
+        assertEquals(6, map.getAvailableSeats());
+    }
+
+    @Test
+    void testGetSeatMap_unchangedPollIsNotModified() {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+
+        SeatInventory inventory = new SeatInventory(repo);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, inventory, mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
+
+        FlightResponse flight = new FlightResponse(1, Airline.INDIGO, "NYC", "LAX", 100.0,
+                LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(2).plusHours(6), 10, 10);
+        when(flightFeign.getByID(1)).thenReturn(ResponseEntity.ok(flight));
+        when(repo.findBookedSeatNumbers(1)).thenReturn(List.of());
+
+        ResponseEntity<SeatMapResponse> first = svc.getSeatMap(1, null);
+        String etag = first.getHeaders().getETag();
+        assertEquals(200, first.getStatusCode().value());
+        assertNotNull(etag);
+
+        ResponseEntity<SeatMapResponse> unchanged = svc.getSeatMap(1, etag);
+        assertEquals(304, unchanged.getStatusCode().value());
+        assertNull(unchanged.getBody());
+        verify(flightFeign, times(1)).getByID(1);
+        verify(repo, times(1)).findBookedSeatNumbers(1);
+
+        // a booking moves the version on, so the old tag no longer matches
+        inventory.tryBook(1, List.of("3"));
+        ResponseEntity<SeatMapResponse> changed = svc.getSeatMap(1, etag);
+        assertEquals(200, changed.getStatusCode().value());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertEquals(List.of("3"), changed.getBody().getBookedSeats());
     }
 
     @Test
@@ -149,9 +470,9 @@ public class TicketServiceTest {
         TicketRepository repo = mock(TicketRepository.class);
         PassengerInterface passengerFeign = mock(PassengerInterface.class);
         FlightInterface flightFeign = mock(FlightInterface.class);
-        KafkaTemplate<String, TicketBookedEvent> kafka = mock(KafkaTemplate.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
 
-        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, kafka);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
 
         Ticket t = Ticket.builder()
                 .pnr("PNR1")
@@ -174,4 +495,156 @@ public class TicketServiceTest {
         assertEquals(400, resp.getStatusCodeValue());
         assertTrue(resp.getBody().contains("cannot be cancelled"));
     }
+
+    @Test
+    void testGetTicketsByEmailService_looksUpAllFlightsInOneCall() {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, Runnable::run, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
+
+        when(passengerFeign.getIdByEmail("alice@example.com")).thenReturn(ResponseEntity.ok(10));
+        when(repo.findAllByPassengerId(10)).thenReturn(List.of(
+                Ticket.builder().ticketId(1).pnr("P1").flightId(5).passengerIds(List.of(10)).numberOfSeats(1).booked(true).build(),
+                Ticket.builder().ticketId(2).pnr("P2").flightId(6).passengerIds(List.of(10)).numberOfSeats(1).booked(true).build(),
+                Ticket.builder().ticketId(3).pnr("P3").flightId(5).passengerIds(List.of(10)).numberOfSeats(1).booked(true).build()));
+
+        LocalDateTime departure = LocalDateTime.now().plusDays(3);
+        when(flightFeign.getFlightsByIds(any())).thenReturn(ResponseEntity.ok(List.of(
+                new FlightResponse(5, Airline.INDIGO, "DEL", "BOM", 50.0, departure, departure.plusHours(2), 50, 40),
+                new FlightResponse(6, Airline.INDIGO, "BOM", "DEL", 50.0, departure, departure.plusHours(2), 50, 40))));
+        when(passengerFeign.getPassengerDetailsByIds(any()))
+                .thenReturn(ResponseEntity.ok(Map.of(10, new PassengerDetailsResponse("Alice", "alice@example.com", ""))));
+
+        var resp = svc.getTicketsByEmailService("alice@example.com");
+
+        assertEquals(3, resp.getBody().size());
+        assertEquals("BOM", resp.getBody().get(1).getOrigin());
+        verify(flightFeign, times(1)).getFlightsByIds(any());
+        verify(flightFeign, never()).getByID(anyInt());
+    }
+
+    @Test
+    void testGetTicketsByEmailService_remoteCallsDoNotGrowWithTickets() {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, executor, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
+
+        // 300 tickets over 5 flights, each with the traveller plus a companion: 301 distinct passengers
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            tickets.add(Ticket.builder().ticketId(i + 1).pnr("P" + i).flightId(1 + i % 5).passengerIds(List.of(10, 1000 + i))
+                    .numberOfSeats(2).booked(true).build());
+        }
+        when(passengerFeign.getIdByEmail("alice@example.com")).thenReturn(ResponseEntity.ok(10));
+        when(repo.findAllByPassengerId(10)).thenReturn(tickets);
+
+        LocalDateTime departure = LocalDateTime.now().plusDays(3);
+        when(flightFeign.getFlightsByIds(any())).thenAnswer(inv -> ResponseEntity.ok(
+                inv.<Collection<Integer>>getArgument(0).stream()
+                        .map(id -> new FlightResponse(id, Airline.INDIGO, "DEL", "BOM", 50.0, departure,
+                                departure.plusHours(2), 50, 40))
+                        .toList()));
+        when(passengerFeign.getPassengerDetailsByIds(any())).thenAnswer(inv -> ResponseEntity.ok(
+                inv.<Collection<Integer>>getArgument(0).stream().collect(Collectors.toMap(Function.identity(),
+                        id -> new PassengerDetailsResponse("P" + id, id + "@example.com", "")))));
+
+        try {
+            var resp = svc.getTicketsByEmailService("alice@example.com");
+
+            assertEquals(300, resp.getBody().size());
+            assertEquals("P1299", resp.getBody().get(299).getPassengers().get(1).getName());
+        } finally {
+            executor.shutdown();
+        }
+
+        verify(flightFeign, times(1)).getFlightsByIds(any());
+        // 301 passengers in batches of 200
+        verify(passengerFeign, times(2)).getPassengerDetailsByIds(any());
+        verify(passengerFeign, times(1)).getIdByEmail(anyString());
+        verify(flightFeign, never()).getByID(anyInt());
+        verify(passengerFeign, never()).getPassengerDetails(anyInt());
+    }
+
+    @Test
+    void testGetByPnrService_fetchesFlightAndPassengersConcurrently() {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, executor, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
+
+        List<Integer> passengerIds = List.of(10, 11, 12, 13, 14);
+        when(repo.findByPnr("PNR9")).thenReturn(Optional.of(Ticket.builder().pnr("PNR9").flightId(5)
+                .passengerIds(passengerIds).numberOfSeats(5).booked(true).build()));
+
+        LocalDateTime departure = LocalDateTime.now().plusDays(1);
+        when(flightFeign.getByID(5)).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return ResponseEntity.ok(new FlightResponse(5, Airline.INDIGO, "A", "B", 50.0, departure,
+                    departure.plusHours(2), 50, 45));
+        });
+        when(passengerFeign.getPassengerDetails(anyInt())).thenAnswer(inv -> {
+            Thread.sleep(300);
+            int id = inv.getArgument(0);
+            return ResponseEntity.ok(new PassengerDetailsResponse("P" + id, id + "@example.com", ""));
+        });
+
+        try {
+            long start = System.nanoTime();
+            var resp = svc.getByPnrService("PNR9");
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            // six calls of 300 ms each would take 1800 ms one after another
+            assertTrue(millis < 1200, "took " + millis + " ms");
+            assertEquals(List.of("P10", "P11", "P12", "P13", "P14"),
+                    resp.getBody().getPassengers().stream().map(PassengerDetailsResponse::getName).toList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGetByPnrService_slowCallTimesOutAndCancelsTheRest() throws Exception {
+        TicketRepository repo = mock(TicketRepository.class);
+        PassengerInterface passengerFeign = mock(PassengerInterface.class);
+        FlightInterface flightFeign = mock(FlightInterface.class);
+        OutboxEventRepository outbox = mock(OutboxEventRepository.class);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        TicketService svc = new TicketService(repo, passengerFeign, flightFeign, outbox, executor, new SeatInventory(repo), mock(SeatHoldService.class), pnrs(), new PnrFilter(repo), mock(BookedSeatRepository.class));
+        ReflectionTestUtils.setField(svc, "remoteCallTimeout", Duration.ofMillis(200));
+
+        when(repo.findByPnr("PNR8")).thenReturn(Optional.of(Ticket.builder().pnr("PNR8").flightId(5)
+                .passengerIds(List.of(10)).numberOfSeats(1).booked(true).build()));
+
+        CountDownLatch interrupted = new CountDownLatch(2);
+        Answer<Object> hang = inv -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+                throw ex;
+            }
+            return null;
+        };
+        when(flightFeign.getByID(5)).thenAnswer(hang);
+        when(passengerFeign.getPassengerDetails(10)).thenAnswer(hang);
+
+        try {
+            IllegalStateException ex = assertThrows(IllegalStateException.class, () -> svc.getByPnrService("PNR8"));
+            assertTrue(ex.getMessage().contains("timed out"));
+            assertTrue(interrupted.await(2, TimeUnit.SECONDS), "remote calls were not cancelled");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }